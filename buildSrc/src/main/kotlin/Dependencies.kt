@@ -6,6 +6,8 @@ object Versions {
     const val clikt = "5.0.0"
     const val detekt = "1.23.7"
     const val ini4j = "0.5.4"
+    const val jmh = "1.37"
+    const val jmh_plugin = "0.7.2"
     const val jacodb = "b17013382a"
     const val juliet = "1.3.2"
     const val junit = "5.9.3"
@@ -271,6 +273,12 @@ object Plugins {
         id = "com.gradleup.shadow",
         version = Versions.shadow
     )
+
+    // https://github.com/melix/jmh-gradle-plugin
+    object Jmh : ProjectPlugin(
+        id = "me.champeau.jmh",
+        version = Versions.jmh_plugin
+    )
 }
 
 fun PluginDependenciesSpec.id(plugin: Plugins.ProjectPlugin) {
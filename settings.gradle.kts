@@ -39,6 +39,7 @@ include("usvm-sample-language")
 include("usvm-dataflow")
 include("usvm-jvm-dataflow")
 include("usvm-ts-dataflow")
+include("usvm-benchmarks")
 
 include("usvm-python")
 include("usvm-python:cpythonadapter")
@@ -0,0 +1,42 @@
+plugins {
+    id("usvm.kotlin-conventions")
+    id(Plugins.Jmh)
+}
+
+dependencies {
+    jmh(project(":usvm-core"))
+    jmh(project(":usvm-util"))
+    jmh(project(":usvm-jvm"))
+
+    jmh(Libs.jacodb_api_jvm)
+    jmh(Libs.jacodb_core)
+    jmh(Libs.kotlinx_collections)
+    jmh(Libs.ksmt_yices)
+}
+
+// Samples of the usvm-jvm module analyzed by the end-to-end benchmarks
+val jvmSamplesJar = project(":usvm-jvm")
+    .layout
+    .buildDirectory
+    .file("libs/usvm-jvm-test.jar")
+
+tasks.named("jmh") {
+    dependsOn(":usvm-jvm:testJar")
+}
+
+jmh {
+    jmhVersion.set(Versions.jmh)
+    resultFormat.set("JSON")
+    jvmArgsAppend.add("-Dusvm.benchmarks.jvm.samples=${jvmSamplesJar.get().asFile.absolutePath}")
+
+    // Allows running a subset of benchmarks, e.g. `./gradlew :usvm-benchmarks:jmh -Pjmh.includes=PathConstraints`
+    findProperty("jmh.includes")?.let { includes.add(it.toString()) }
+
+    // Recorded solver queries to replay, e.g. `./gradlew :usvm-benchmarks:jmh -Pqueries=/path/to/queries`
+    val queries = findProperty("queries")
+    if (queries != null) {
+        jvmArgsAppend.add("-Dusvm.benchmarks.queries=${file(queries).absolutePath}")
+    } else {
+        excludes.add("RecordedQueries")
+    }
+}
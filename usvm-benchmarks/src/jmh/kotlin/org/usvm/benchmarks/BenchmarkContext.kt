@@ -0,0 +1,81 @@
+package org.usvm.benchmarks
+
+import io.ksmt.solver.z3.KZ3Solver
+import org.usvm.UBoolExpr
+import org.usvm.UBv32SizeExprProvider
+import org.usvm.UComponents
+import org.usvm.UContext
+import org.usvm.USizeExprProvider
+import org.usvm.USizeSort
+import org.usvm.solver.USolverBase
+import org.usvm.solver.UTypeSolver
+import org.usvm.types.USingleTypeStream
+import org.usvm.types.UTypeStream
+import org.usvm.types.UTypeSystem
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.INFINITE
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * The only type of the [BenchmarkTypeSystem].
+ */
+object BenchmarkType
+
+/**
+ * A type system with a single type, so that benchmarks of the core measure no type reasoning.
+ */
+object BenchmarkTypeSystem : UTypeSystem<BenchmarkType> {
+    override val typeOperationsTimeout: Duration = INFINITE
+
+    override fun isSupertype(supertype: BenchmarkType, type: BenchmarkType): Boolean = true
+
+    override fun hasCommonSubtype(type: BenchmarkType, types: Collection<BenchmarkType>): Boolean = types.isEmpty()
+
+    override fun isFinal(type: BenchmarkType): Boolean = true
+
+    override fun isInstantiable(type: BenchmarkType): Boolean = true
+
+    override fun findSubtypes(type: BenchmarkType): Sequence<BenchmarkType> = emptySequence()
+
+    override fun topTypeStream(): UTypeStream<BenchmarkType> = USingleTypeStream(this, BenchmarkType)
+}
+
+class BenchmarkComponents : UComponents<BenchmarkType, USizeSort> {
+    override val useSolverForForks: Boolean = true
+
+    override fun <Context : UContext<USizeSort>> mkSolver(ctx: Context): USolverBase<BenchmarkType> {
+        val (translator, decoder) = buildTranslatorAndLazyDecoder(ctx)
+        val typeSolver = UTypeSolver(BenchmarkTypeSystem)
+
+        return USolverBase(ctx, KZ3Solver(ctx), typeSolver, translator, decoder, SOLVER_TIMEOUT)
+    }
+
+    override fun mkTypeSystem(ctx: UContext<USizeSort>): UTypeSystem<BenchmarkType> = BenchmarkTypeSystem
+
+    override fun <Context : UContext<USizeSort>> mkSizeExprProvider(ctx: Context): USizeExprProvider<USizeSort> =
+        UBv32SizeExprProvider(ctx)
+
+    companion object {
+        private val SOLVER_TIMEOUT = 10.seconds
+    }
+}
+
+fun mkBenchmarkContext(): UContext<USizeSort> = UContext(BenchmarkComponents())
+
+/**
+ * Generates [count] satisfiable constraints typical for path constraints of a real program:
+ * numeric bounds of registers, non-null references and disjunctions.
+ */
+fun UContext<USizeSort>.mkConstraints(count: Int): List<UBoolExpr> = List(count) { idx ->
+    val register = mkRegisterReading(idx, bv32Sort)
+    when (idx % 3) {
+        0 -> mkBvSignedLessExpr(register, mkBv(idx + BOUND))
+        1 -> mkNot(mkEq(mkRegisterReading(idx, addressSort), nullRef))
+        else -> mkOr(
+            mkRegisterReading(idx, boolSort),
+            mkBvSignedGreaterExpr(register, mkRegisterReading(idx - 1, bv32Sort)),
+        )
+    }
+}
+
+private const val BOUND = 1000
@@ -0,0 +1,96 @@
+package org.usvm.benchmarks
+
+import kotlinx.coroutines.runBlocking
+import org.jacodb.api.jvm.JcClasspath
+import org.jacodb.api.jvm.JcDatabase
+import org.jacodb.api.jvm.ext.findClass
+import org.jacodb.impl.features.InMemoryHierarchy
+import org.jacodb.impl.jacodb
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.usvm.PathSelectionStrategy
+import org.usvm.SolverType
+import org.usvm.UMachineOptions
+import org.usvm.machine.JcMachine
+import org.usvm.machine.interpreter.transformers.JcMultiDimArrayAllocationTransformer
+import org.usvm.machine.interpreter.transformers.JcStringConcatTransformer
+import org.usvm.machine.state.JcState
+import java.io.File
+import java.util.concurrent.TimeUnit
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Analyzes all the public methods of a sample class of the usvm-jvm module end-to-end.
+ *
+ * The samples jar path is passed with the `usvm.benchmarks.jvm.samples` system property by the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+open class JcMachineBenchmark {
+    @Param(
+        "org.usvm.samples.controlflow.Conditions",
+        "org.usvm.samples.controlflow.Switch",
+        "org.usvm.samples.algorithms.BinarySearch",
+        "org.usvm.samples.arrays.IntArrayBasics",
+        "org.usvm.samples.math.DivRemExamples",
+    )
+    var className: String = ""
+
+    private lateinit var db: JcDatabase
+    private lateinit var cp: JcClasspath
+
+    private val options = UMachineOptions(
+        pathSelectionStrategies = listOf(PathSelectionStrategy.FORK_DEPTH),
+        solverType = SolverType.YICES,
+        timeout = 60.seconds,
+    )
+
+    @Setup
+    fun setup() {
+        val samplesPath = System.getProperty(SAMPLES_PROPERTY) ?: error("System property $SAMPLES_PROPERTY required")
+        val classpath = listOf(File(samplesPath))
+
+        runBlocking {
+            db = jacodb {
+                useProcessJavaRuntime()
+                installFeatures(InMemoryHierarchy)
+                loadByteCode(classpath)
+            }
+            cp = db.classpath(classpath, listOf(JcMultiDimArrayAllocationTransformer, JcStringConcatTransformer))
+            db.awaitBackgroundJobs()
+        }
+    }
+
+    @TearDown
+    fun tearDown() {
+        cp.close()
+        db.close()
+    }
+
+    @Benchmark
+    fun analyze(): List<JcState> {
+        val methods = cp.findClass(className).declaredMethods.filter {
+            it.isPublic && !it.isConstructor && !it.isClassInitializer
+        }
+
+        return JcMachine(cp, options).use { machine -> machine.analyze(methods) }
+    }
+
+    private companion object {
+        const val SAMPLES_PROPERTY = "usvm.benchmarks.jvm.samples"
+    }
+}
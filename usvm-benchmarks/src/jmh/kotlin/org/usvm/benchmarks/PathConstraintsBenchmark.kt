@@ -0,0 +1,78 @@
+package org.usvm.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.usvm.UBoolExpr
+import org.usvm.UContext
+import org.usvm.USizeSort
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UNumericConstraints
+import org.usvm.constraints.UPathConstraints
+import java.util.concurrent.TimeUnit
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class PathConstraintsBenchmark {
+    @Param("10", "100", "1000")
+    var constraintsCount: Int = 0
+
+    private lateinit var ctx: UContext<USizeSort>
+    private lateinit var constraints: List<UBoolExpr>
+    private lateinit var numericConstraints: List<UBoolExpr>
+    private lateinit var pathConstraints: UPathConstraints<BenchmarkType>
+    private lateinit var newConstraint: UBoolExpr
+
+    @Setup
+    fun setup() {
+        ctx = mkBenchmarkContext()
+        constraints = ctx.mkConstraints(constraintsCount)
+        numericConstraints = with(ctx) {
+            List(constraintsCount) { idx ->
+                val register = mkRegisterReading(idx, bv32Sort)
+                if (idx % 2 == 0) {
+                    mkBvSignedLessOrEqualExpr(register, mkRegisterReading(idx + 1, bv32Sort))
+                } else {
+                    mkBvSignedGreaterExpr(register, mkBv(-idx))
+                }
+            }
+        }
+
+        pathConstraints = UPathConstraints(ctx, MutabilityOwnership())
+        constraints.forEach { pathConstraints += it }
+        newConstraint = with(ctx) { mkBvSignedLessExpr(mkRegisterReading(0, bv32Sort), mkBv(0)) }
+    }
+
+    @Benchmark
+    fun plusAssign(): UPathConstraints<BenchmarkType> {
+        val result = UPathConstraints<BenchmarkType>(ctx, MutabilityOwnership())
+        constraints.forEach { result += it }
+        return result
+    }
+
+    @Benchmark
+    fun cloneAndPlusAssign(): UPathConstraints<BenchmarkType> {
+        val clone = pathConstraints.clone()
+        clone += newConstraint
+        return clone
+    }
+
+    @Benchmark
+    fun addNumericConstraint(): UNumericConstraints<*> {
+        val result = UNumericConstraints(ctx, ctx.bv32Sort, MutabilityOwnership())
+        numericConstraints.forEach { result.addNumericConstraint(it) }
+        return result
+    }
+}
@@ -0,0 +1,80 @@
+package org.usvm.benchmarks
+
+import kotlinx.collections.immutable.PersistentMap
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import org.usvm.collections.immutable.implementations.immutableMap.UPersistentHashMap
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.collections.immutable.persistentHashMapOf
+import java.util.concurrent.TimeUnit
+import kotlinx.collections.immutable.persistentHashMapOf as kotlinxPersistentHashMapOf
+
+/**
+ * Compares [UPersistentHashMap] with the kotlinx persistent hash map it was derived from.
+ *
+ * The owned versions of operations mutate nodes in place, like the memory and constraints do while
+ * they own a collection; the shared versions copy nodes, like the first modification after a state clone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class PersistentHashMapBenchmark {
+    @Param("10", "1000", "100000")
+    var size: Int = 0
+
+    private lateinit var keys: List<Int>
+    private lateinit var uMap: UPersistentHashMap<Int, Int>
+    private lateinit var kotlinxMap: PersistentMap<Int, Int>
+
+    @Setup
+    fun setup() {
+        keys = List(size) { it * KEY_STEP }
+        uMap = keys.fold(persistentHashMapOf<Int, Int>()) { map, key -> map.put(key, key, MutabilityOwnership()) }
+        kotlinxMap = keys.fold(kotlinxPersistentHashMapOf<Int, Int>()) { map, key -> map.put(key, key) }
+    }
+
+    @Benchmark
+    fun uPutOwned(): UPersistentHashMap<Int, Int> {
+        val ownership = MutabilityOwnership()
+        return keys.fold(persistentHashMapOf<Int, Int>()) { map, key -> map.put(key, key, ownership) }
+    }
+
+    @Benchmark
+    fun uPutShared(): UPersistentHashMap<Int, Int> =
+        keys.fold(persistentHashMapOf<Int, Int>()) { map, key -> map.put(key, key, MutabilityOwnership()) }
+
+    @Benchmark
+    fun kotlinxPut(): PersistentMap<Int, Int> =
+        keys.fold(kotlinxPersistentHashMapOf<Int, Int>()) { map, key -> map.put(key, key) }
+
+    @Benchmark
+    fun kotlinxPutBuilder(): PersistentMap<Int, Int> =
+        kotlinxPersistentHashMapOf<Int, Int>().builder().apply { keys.forEach { put(it, it) } }.build()
+
+    @Benchmark
+    fun uGet(blackhole: Blackhole) {
+        keys.forEach { blackhole.consume(uMap[it]) }
+    }
+
+    @Benchmark
+    fun kotlinxGet(blackhole: Blackhole) {
+        keys.forEach { blackhole.consume(kotlinxMap[it]) }
+    }
+
+    private companion object {
+        const val KEY_STEP = 31
+    }
+}
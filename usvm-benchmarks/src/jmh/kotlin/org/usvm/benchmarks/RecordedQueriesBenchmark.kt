@@ -0,0 +1,79 @@
+package org.usvm.benchmarks
+
+import io.ksmt.KContext
+import io.ksmt.solver.KSolver
+import io.ksmt.solver.yices.KYicesSolver
+import io.ksmt.solver.z3.KZ3Solver
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import org.usvm.solver.USolverQueryRecorder
+import org.usvm.solver.USolverQueryReplayer
+import java.nio.file.Path
+import java.util.concurrent.TimeUnit
+import kotlin.io.path.Path
+import kotlin.time.Duration.Companion.milliseconds
+
+/**
+ * Replays the solver queries recorded by [USolverQueryRecorder] (see `UMachineOptions.solverQueriesDirectory`)
+ * with different solvers and timeouts.
+ *
+ * The queries directory is passed with the `usvm.benchmarks.queries` system property by the build.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+open class RecordedQueriesBenchmark {
+    @Param("Z3", "YICES")
+    var solverType: String = ""
+
+    @Param("1000")
+    var timeoutMillis: Long = 0
+
+    private lateinit var ctx: KContext
+    private lateinit var solver: KSolver<*>
+    private lateinit var replayer: USolverQueryReplayer
+    private lateinit var queries: List<Path>
+
+    @Setup
+    fun setup() {
+        val queriesPath = System.getProperty(QUERIES_PROPERTY) ?: error("System property $QUERIES_PROPERTY required")
+        queries = USolverQueryReplayer.queryFiles(Path(queriesPath))
+
+        ctx = KContext()
+        solver = when (solverType) {
+            "Z3" -> KZ3Solver(ctx)
+            "YICES" -> KYicesSolver(ctx)
+            else -> error("Unknown solver: $solverType")
+        }
+        replayer = USolverQueryReplayer(ctx, solver, timeoutMillis.milliseconds)
+    }
+
+    @TearDown
+    fun tearDown() {
+        solver.close()
+        ctx.close()
+    }
+
+    @Benchmark
+    fun replay(blackhole: Blackhole) {
+        queries.forEach { blackhole.consume(replayer.replayFile(it)) }
+    }
+
+    private companion object {
+        const val QUERIES_PROPERTY = "usvm.benchmarks.queries"
+    }
+}
@@ -0,0 +1,62 @@
+package org.usvm.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.usvm.regions.IntIntervalsRegion
+import org.usvm.regions.RegionTree
+import org.usvm.regions.emptyRegionTree
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class RegionTreeBenchmark {
+    @Param("10", "100", "1000")
+    var writesCount: Int = 0
+
+    private lateinit var regions: List<IntIntervalsRegion>
+    private lateinit var tree: RegionTree<IntIntervalsRegion, Int>
+    private lateinit var localizedRegion: IntIntervalsRegion
+
+    @Setup
+    fun setup() {
+        val random = Random(SEED)
+        regions = List(writesCount) {
+            val left = random.nextInt(RANGE)
+            IntIntervalsRegion.ofClosed(left, left + random.nextInt(MAX_LENGTH))
+        }
+        tree = write()
+        localizedRegion = IntIntervalsRegion.ofClosed(RANGE / 4, RANGE / 2)
+    }
+
+    @Benchmark
+    fun write(): RegionTree<IntIntervalsRegion, Int> =
+        regions.foldIndexed(emptyRegionTree<IntIntervalsRegion, Int>()) { idx, tree, region -> tree.write(region, idx) }
+
+    @Benchmark
+    fun localize(): RegionTree<IntIntervalsRegion, Int> =
+        tree.localize(localizedRegion)
+
+    @Benchmark
+    fun iterate(): Int =
+        tree.sumOf { (value, _) -> value }
+
+    private companion object {
+        const val SEED = 42
+        const val RANGE = 10_000
+        const val MAX_LENGTH = 100
+    }
+}
@@ -0,0 +1,67 @@
+package org.usvm.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Warmup
+import org.openjdk.jmh.infra.Blackhole
+import org.usvm.UContext
+import org.usvm.USizeSort
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UPathConstraints
+import org.usvm.solver.USolverBase
+import java.util.concurrent.TimeUnit
+
+/**
+ * Checks a fixed set of queries sharing a common prefix, like the fork checks of a single path do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class SolverBenchmark {
+    @Param("10", "100")
+    var constraintsCount: Int = 0
+
+    private lateinit var ctx: UContext<USizeSort>
+    private lateinit var solver: USolverBase<BenchmarkType>
+    private lateinit var queries: List<UPathConstraints<BenchmarkType>>
+
+    @Setup
+    fun setup() {
+        ctx = mkBenchmarkContext()
+        solver = ctx.solver()
+
+        val constraints = ctx.mkConstraints(constraintsCount)
+        queries = List(QUERIES_COUNT) { idx ->
+            UPathConstraints<BenchmarkType>(ctx, MutabilityOwnership()).apply {
+                constraints.forEach { plusAssign(it) }
+                plusAssign(with(ctx) { mkEq(mkRegisterReading(0, bv32Sort), mkBv(idx)) })
+            }
+        }
+    }
+
+    @TearDown
+    fun tearDown() {
+        solver.close()
+    }
+
+    @Benchmark
+    fun check(blackhole: Blackhole) {
+        queries.forEach { blackhole.consume(solver.check(it)) }
+    }
+
+    private companion object {
+        const val QUERIES_COUNT = 16
+    }
+}
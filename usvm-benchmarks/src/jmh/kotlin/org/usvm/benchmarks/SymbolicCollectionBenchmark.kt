@@ -0,0 +1,81 @@
+package org.usvm.benchmarks
+
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.usvm.UBv32Sort
+import org.usvm.UContext
+import org.usvm.UExpr
+import org.usvm.UHeapRef
+import org.usvm.USizeSort
+import org.usvm.api.readArrayIndex
+import org.usvm.api.readField
+import org.usvm.api.writeArrayIndex
+import org.usvm.api.writeField
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UPathConstraints
+import org.usvm.memory.UMemory
+import org.usvm.sizeSort
+import java.util.concurrent.TimeUnit
+
+/**
+ * Reads from symbolic collections with long update lists: input fields are backed by
+ * [org.usvm.memory.UFlatUpdates] and input arrays by [org.usvm.memory.UTreeUpdates].
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class SymbolicCollectionBenchmark {
+    @Param("10", "100", "1000")
+    var updatesCount: Int = 0
+
+    private lateinit var ctx: UContext<USizeSort>
+    private lateinit var memory: UMemory<BenchmarkType, Any?>
+    private lateinit var arrayRef: UHeapRef
+    private lateinit var readRef: UHeapRef
+    private lateinit var readIndex: UExpr<USizeSort>
+
+    @Setup
+    fun setup() = with(mkBenchmarkContext()) {
+        ctx = this
+        val ownership = MutabilityOwnership()
+        memory = UMemory(this, ownership, UPathConstraints<BenchmarkType>(this, ownership).typeConstraints)
+
+        arrayRef = mkRegisterReading(updatesCount, addressSort)
+        repeat(updatesCount) { idx ->
+            val ref = mkRegisterReading(idx, addressSort)
+            val value = mkBv(idx)
+            val guard = mkRegisterReading(idx, boolSort)
+            memory.writeField(ref, FIELD, bv32Sort, value, guard)
+
+            val index = mkRegisterReading(idx, sizeSort)
+            memory.writeArrayIndex(arrayRef, index, BenchmarkType, bv32Sort, value, guard)
+        }
+
+        readRef = mkRegisterReading(updatesCount + 1, addressSort)
+        readIndex = mkRegisterReading(updatesCount + 1, sizeSort)
+    }
+
+    @Benchmark
+    fun readFlatUpdates(): UExpr<UBv32Sort> =
+        memory.readField(readRef, FIELD, ctx.bv32Sort)
+
+    @Benchmark
+    fun readTreeUpdates(): UExpr<UBv32Sort> =
+        memory.readArrayIndex(arrayRef, readIndex, BenchmarkType, ctx.bv32Sort)
+
+    private companion object {
+        const val FIELD = "field"
+    }
+}
@@ -49,7 +49,9 @@ import org.usvm.memory.splitUHeapRef
 import org.usvm.regions.Region
 import org.usvm.solver.USoftConstraintsProvider
 import org.usvm.solver.USolverBase
+import org.usvm.statistics.UProfilingCounters
 import org.usvm.types.UTypeSystem
+import java.util.concurrent.atomic.AtomicInteger
 
 @Suppress("LeakingThis")
 open class UContext<USizeSort : USort>(
@@ -60,6 +62,8 @@ open class UContext<USizeSort : USort>(
 ) : KContext(operationMode, astManagementMode, simplificationMode) {
 
     private val solver by lazy { components.mkSolver(this) }
+    private val threadSolverBuilder: () -> USolverBase<*> = { components.mkSolver(this) }
+    private val threadSolver = ThreadLocal<USolverBase<*>>()
     private val typeSystem by lazy { components.mkTypeSystem(this) }
     private val softConstraintsProvider by lazy { components.mkSoftConstraintsProvider(this) }
     private val composerBuilder: (UReadOnlyMemory<*>, MutabilityOwnership) -> UComposer<*, USizeSort> by lazy {
@@ -70,17 +74,36 @@ open class UContext<USizeSort : USort>(
     val defaultOwnership = MutabilityOwnership()
     val sizeExprs by lazy { components.mkSizeExprProvider(this) }
     val statesForkProvider by lazy { components.mkStatesForkProvider() }
+    val maxModelsPerState by lazy {
+        components.maxModelsPerState.also { require(it > 0) { "Max models per state must be positive: $it" } }
+    }
 
-    private var currentStateId = 0u
+    /**
+     * Per-thread counters of solver queries, solver time and created states, see [org.usvm.statistics.UProfilingObserver].
+     */
+    val profilingCounters = UProfilingCounters()
+
+    private val currentStateId = AtomicInteger(0)
 
     /**
      * Generates new deterministic id of state in this context.
+     * Ids are deterministic only when states are created by a single thread.
      */
     fun getNextStateId(): StateId {
-        return currentStateId++
+        return currentStateId.getAndIncrement().toUInt()
     }
 
-    fun <Type> solver(): USolverBase<Type> = this.solver.uncheckedCast()
+    fun <Type> solver(): USolverBase<Type> = (threadSolver.get() ?: this.solver).uncheckedCast()
+
+    /**
+     * Makes [solver] return a solver owned by the current thread, creating it if necessary.
+     * Worker threads of a parallel machine use it not to share the SMT solver and its translator and decoder.
+     */
+    fun useThreadSolver() {
+        if (threadSolver.get() == null) {
+            threadSolver.set(threadSolverBuilder())
+        }
+    }
 
     @Suppress("UNCHECKED_CAST")
     fun <Type> typeSystem(): UTypeSystem<Type> =
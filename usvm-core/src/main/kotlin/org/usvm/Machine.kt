@@ -6,6 +6,7 @@ import org.usvm.stopstrategies.StopStrategy
 import org.usvm.util.bracket
 import org.usvm.util.debug
 import org.usvm.utils.isSat
+import kotlin.concurrent.thread
 
 val logger = object : KLogging() {}.logger
 
@@ -17,6 +18,9 @@ val logger = object : KLogging() {}.logger
 abstract class UMachine<State : UState<*, *, *, *, *, State>> : AutoCloseable {
     abstract val options: UMachineOptions
 
+    private val deferForkChecks: Boolean
+        get() = options.useSolverForForks && options.deferForkChecks
+
     /**
      * Runs symbolic execution loop.
      *
@@ -36,11 +40,23 @@ abstract class UMachine<State : UState<*, *, *, *, *, State>> : AutoCloseable {
         isStateTerminated: (State) -> Boolean,
         stopStrategy: StopStrategy = StopStrategy { false }
     ) {
+        if (options.workersCount > 1) {
+            runParallel(interpreter, pathSelector, observer, isStateTerminated, stopStrategy)
+            return
+        }
+
         logger.debug().bracket("$this.run($interpreter, ${pathSelector::class.simpleName})") {
             observer.onMachineStarted()
             try {
                 while (!pathSelector.isEmpty() && !stopStrategy.shouldStop()) {
                     val state = pathSelector.peek()
+                    if (deferForkChecks && !state.isSat()) {
+                        // The state was forked without a solver check and turned out to be infeasible
+                        pathSelector.remove(state)
+                        observer.onStateTerminated(state, stateReachable = false)
+                        continue
+                    }
+
                     observer.onStatePeeked(state)
 
                     val (forkedStates, stateAlive) = try {
@@ -97,5 +113,106 @@ abstract class UMachine<State : UState<*, *, *, *, *, State>> : AutoCloseable {
         }
     }
 
+    /**
+     * Parallel version of [run] with [UMachineOptions.workersCount] worker threads.
+     *
+     * Workers take states out of the [pathSelector] and step them concurrently, each with its own solver
+     * (see [UContext.useThreadSolver]). The [pathSelector], the [stopStrategy] and the [observer] are accessed
+     * under a single lock only, so they are never called concurrently and need no synchronization of their own.
+     *
+     * Since a state being stepped must not be peeked by another worker, it is removed from the [pathSelector]
+     * while stepped and added back with its forks by [UPathSelector.addForked] after the step, instead of
+     * being updated.
+     */
+    private fun runParallel(
+        interpreter: UInterpreter<State>,
+        pathSelector: UPathSelector<State>,
+        observer: UMachineObserver<State>,
+        isStateTerminated: (State) -> Boolean,
+        stopStrategy: StopStrategy,
+    ) {
+        val workersCount = options.workersCount
+        logger.debug().bracket("$this.runParallel($interpreter, ${pathSelector::class.simpleName}, $workersCount)") {
+            val scheduler = UParallelScheduler(pathSelector, observer, stopStrategy)
+
+            observer.onMachineStarted()
+            try {
+                val workers = List(workersCount) { idx ->
+                    thread(name = "$this-worker-$idx") {
+                        scheduler.runWorker { state -> stepInWorker(state, interpreter, scheduler, isStateTerminated) }
+                    }
+                }
+                workers.forEach(Thread::join)
+            } finally {
+                observer.onMachineStopped()
+            }
+
+            scheduler.failure?.let { throw it }
+
+            if (!pathSelector.isEmpty()) {
+                val stopReason = stopStrategy.stopReason()
+                logger.debug { stopReason }
+            }
+        }
+    }
+
+    private fun stepInWorker(
+        state: State,
+        interpreter: UInterpreter<State>,
+        scheduler: UParallelScheduler<State>,
+        isStateTerminated: (State) -> Boolean,
+    ) {
+        state.ctx.useThreadSolver()
+
+        if (deferForkChecks && !state.isSat()) {
+            // The state was forked without a solver check and turned out to be infeasible
+            scheduler.terminate(state, stateReachable = false)
+            return
+        }
+        scheduler.peeked(state)
+
+        val (forkedStates, stateAlive) = try {
+            interpreter.step(state)
+        } catch (e: Throwable) {
+            if (options.throwExceptionOnStepFailure) {
+                throw e
+            }
+
+            logger.error(e) { "Step failed" }
+            scheduler.complete(state, forks = emptySequence()) { observer ->
+                observer.onStateTerminated(state, stateReachable = false)
+                emptyList()
+            }
+            return
+        }
+
+        // Satisfiability checks may involve the solver, so they are made before taking the lock
+        val originalStateAlive = stateAlive && !isStateTerminated(state)
+        val originalStateReachable = !originalStateAlive && state.isSat()
+        val aliveForkedStates = mutableListOf<State>()
+        val reachableTerminatedForkedStates = mutableListOf<State>()
+        for (forkedState in forkedStates) {
+            if (!isStateTerminated(forkedState)) {
+                aliveForkedStates.add(forkedState)
+            } else if (forkedState.isSat()) {
+                reachableTerminatedForkedStates.add(forkedState)
+            }
+        }
+
+        scheduler.complete(state, forkedStates) { observer ->
+            for (forkedState in reachableTerminatedForkedStates) {
+                observer.onStateTerminated(forkedState, stateReachable = true)
+            }
+
+            if (originalStateAlive) {
+                aliveForkedStates.add(0, state)
+            } else if (originalStateReachable) {
+                observer.onStateTerminated(state, stateReachable = stateAlive)
+            }
+
+            aliveForkedStates
+        }
+    }
+
     override fun toString(): String = this::class.simpleName?:"<empty>"
 }
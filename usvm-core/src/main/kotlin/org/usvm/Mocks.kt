@@ -86,6 +86,12 @@ class UIndexedMocker<Method>(
         return trackedSymbols[trackedLiteral]!!.cast()
     }
 
+    internal fun structuralSnapshot(): List<UIdentityKey> = listOf(
+        UIdentityKey(methodMockClauses),
+        UIdentityKey(trackedSymbols),
+        UIdentityKey(untrackedSymbols),
+    )
+
     override fun clone(): UIndexedMocker<Method> =
         UIndexedMocker(methodMockClauses, trackedSymbols, untrackedSymbols)
 
@@ -0,0 +1,118 @@
+package org.usvm
+
+import org.usvm.statistics.UMachineObserver
+import org.usvm.stopstrategies.StopStrategy
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * Distributes states of the [pathSelector] between worker threads of a parallel [UMachine].
+ *
+ * All the accesses to the [pathSelector], the [observer] and the [stopStrategy] are made under a single lock,
+ * so none of them is ever called concurrently. A taken state is removed from the [pathSelector] until its step
+ * is [complete]d, so no two workers step the same state.
+ */
+internal class UParallelScheduler<State>(
+    private val pathSelector: UPathSelector<State>,
+    private val observer: UMachineObserver<State>,
+    private val stopStrategy: StopStrategy,
+) {
+    private val lock = ReentrantLock()
+    private val stateAvailable = lock.newCondition()
+
+    private var statesInProgress = 0
+    private var stopped = false
+
+    /**
+     * The first exception thrown by a worker. When set, all the workers stop.
+     */
+    @Volatile
+    var failure: Throwable? = null
+        private set
+
+    /**
+     * Takes states and runs [step] on them until there are no states left or the machine should stop.
+     * The [step] must call [peeked] and then [complete] for the taken state, or [terminate] it without a step.
+     */
+    fun runWorker(step: (State) -> Unit) {
+        while (true) {
+            val state = take() ?: return
+            try {
+                step(state)
+            } catch (e: Throwable) {
+                lock.withLock {
+                    if (failure == null) {
+                        failure = e
+                    }
+                    stopped = true
+                }
+                return
+            } finally {
+                lock.withLock {
+                    statesInProgress--
+                    stateAvailable.signalAll()
+                }
+            }
+        }
+    }
+
+    /**
+     * Notifies the [observer] that the [state] is about to be stepped.
+     */
+    fun peeked(state: State): Unit = lock.withLock {
+        observer.onStatePeeked(state)
+    }
+
+    /**
+     * Notifies the [observer] that the [state] has been stepped with [forks] and returns states to the path selector.
+     *
+     * @param onStepped is called under the lock after [UMachineObserver.onState]. It may notify the observer
+     * about terminated states and returns the alive states to add to the path selector.
+     */
+    fun complete(
+        state: State,
+        forks: Sequence<State>,
+        onStepped: (UMachineObserver<State>) -> Collection<State>,
+    ): Unit = lock.withLock {
+        observer.onState(state, forks)
+        val aliveStates = onStepped(observer)
+        if (aliveStates.isNotEmpty()) {
+            // The state isn't the last peeked one, since other workers may have peeked states after it
+            pathSelector.addForked(state, aliveStates)
+        }
+    }
+
+    /**
+     * Notifies the [observer] that the [state] is terminated without being stepped.
+     */
+    fun terminate(state: State, stateReachable: Boolean): Unit = lock.withLock {
+        observer.onStateTerminated(state, stateReachable)
+    }
+
+    private fun take(): State? = lock.withLock {
+        while (true) {
+            if (stopped) {
+                return null
+            }
+            if (stopStrategy.shouldStop()) {
+                stopped = true
+                stateAvailable.signalAll()
+                return null
+            }
+            if (!pathSelector.isEmpty()) {
+                break
+            }
+            if (statesInProgress == 0) {
+                // nothing to wait for, wake up the others to let them finish too
+                stateAvailable.signalAll()
+                return null
+            }
+            stateAvailable.await()
+        }
+
+        val state = pathSelector.peek()
+        pathSelector.remove(state)
+        statesInProgress++
+        state
+    }
+}
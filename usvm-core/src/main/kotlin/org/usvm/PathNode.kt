@@ -41,6 +41,29 @@ class PathNode<Statement> private constructor(
 
     val statement: Statement get() = requireNotNull(_segment).statement
 
+    /**
+     * Objects identifying the observers which have already processed this node and all its ancestors,
+     * so that walks from the leaves of the path tree towards the root may stop here.
+     * See [org.usvm.statistics.CoverageStatistics].
+     *
+     * Several observers may walk the same path tree, so the [MAX_PROCESSORS] latest ones are kept.
+     * An observer forgotten by a node just walks it again.
+     */
+    @Volatile
+    private var processors: Array<Any>? = null
+
+    internal fun isProcessedBy(processor: Any): Boolean =
+        processors?.any { it === processor } == true
+
+    internal fun markProcessedBy(processor: Any) {
+        val current = processors
+        processors = when {
+            current == null -> arrayOf(processor)
+            current.size < MAX_PROCESSORS -> current + processor
+            else -> Array(MAX_PROCESSORS) { idx -> if (idx < MAX_PROCESSORS - 1) current[idx + 1] else processor }
+        }
+    }
+
     operator fun plus(statement: Statement): PathNode<Statement> {
         return PathNode(this, PathSegment.Single(statement), depth + 1)
     }
@@ -91,6 +114,8 @@ class PathNode<Statement> private constructor(
     }
 
     companion object {
+        private const val MAX_PROCESSORS = 4
+
         private val EMPTY = PathNode<Nothing?>(parent = null, _segment = null, depth = 0)
 
         @Suppress("UNCHECKED_CAST")
@@ -18,6 +18,12 @@ interface UPathSelector<State> {
      */
     fun add(states: Collection<State>)
 
+    /**
+     * Adds [states] forked from the [parent] state, which may be among them. Unlike [add], doesn't rely on
+     * the [parent] being the last peeked state, so it may be used when several states are stepped at once.
+     */
+    fun addForked(parent: State, states: Collection<State>): Unit = add(states)
+
     /**
      * Updates the internal priority of the [state].
      */
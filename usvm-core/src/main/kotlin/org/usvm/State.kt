@@ -35,6 +35,10 @@ abstract class UState<Type, Method, Statement, Context, Target, State>(
      */
     val id: StateId = ctx.getNextStateId()
 
+    init {
+        ctx.profilingCounters.onStateCreated()
+    }
+
     open var ownership = initOwnership
         protected set
 
@@ -0,0 +1,64 @@
+package org.usvm
+
+/**
+ * Structural fingerprint of a [UState]. Fingerprints of two states are equal if the states are at the same
+ * statement with the same call stack, path constraints and targets, their memories have reference equal regions
+ * and mocks and the same values in registers, and their [languageKey]s are equal.
+ *
+ * Equal fingerprints mean that the states would be executed the same way, so one of them may be dropped.
+ * The converse doesn't hold, e.g., regions written independently are never considered equal.
+ *
+ * A fingerprint is a snapshot, it doesn't change when the state is modified.
+ */
+class UStateFingerprint(state: UState<*, *, *, *, *, *>, languageKey: Any? = null) {
+    private val components: List<Any?> = listOf(
+        state.pathNode.statement,
+        state.callStack.toList(),
+        state.isExceptional,
+        state.targets.toList(),
+        languageKey,
+        state.memory.structuralSnapshot(),
+        state.pathConstraints.constraintSequence().toHashSet(),
+    )
+
+    private val hash = components.hashCode()
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (other !is UStateFingerprint) return false
+
+        return hash == other.hash && components == other.components
+    }
+
+    override fun hashCode(): Int = hash
+}
+
+/**
+ * A cheap to compute part of [UStateFingerprint]: the statement, the top frame and the depth of the call stack of
+ * a state, its exceptional flag and its language key. States with equal fingerprints always have equal keys,
+ * so fingerprints are to be compared for the states with equal keys only.
+ */
+data class UStateKey(
+    private val statement: Any?,
+    private val topFrame: Any?,
+    private val callStackSize: Int,
+    private val isExceptional: Boolean,
+    private val languageKey: Any?,
+) {
+    constructor(state: UState<*, *, *, *, *, *>, languageKey: Any? = null) : this(
+        state.pathNode.statement,
+        state.callStack.lastOrNull(),
+        state.callStack.size,
+        state.isExceptional,
+        languageKey,
+    )
+}
+
+/**
+ * Wraps the [value] to compare it by reference.
+ */
+internal class UIdentityKey(private val value: Any?) {
+    override fun equals(other: Any?): Boolean = other is UIdentityKey && other.value === value
+
+    override fun hashCode(): Int = System.identityHashCode(value)
+}
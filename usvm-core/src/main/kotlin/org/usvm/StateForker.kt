@@ -3,6 +3,7 @@ package org.usvm
 import org.usvm.collections.immutable.internal.MutabilityOwnership
 import org.usvm.model.UModelBase
 import org.usvm.solver.USatResult
+import org.usvm.solver.USolverResult
 import org.usvm.solver.UUnknownResult
 import org.usvm.solver.UUnsatResult
 
@@ -45,9 +46,26 @@ object WithSolverStateForker : StateForker {
         state: T,
         condition: UBoolExpr,
     ): ForkResult<T> {
+        val notCondition = state.ctx.mkNot(condition)
+
+        // Models of the state may have been dropped, see [org.usvm.ps.ModelRetentionPathSelector],
+        // so the positive branch is checked directly and its model is used to split the branches as usual
+        if (state.models.isEmpty()) {
+            when (val posResult = checkBranch(state, condition)) {
+                is USatResult -> state.models = listOf(posResult.model)
+                is UUnsatResult -> {
+                    // The negative branch is left unchecked, as infeasible states are never reported,
+                    // see [org.usvm.utils.isSat]
+                    state.pathConstraints += notCondition
+                    return ForkResult(positiveState = null, negativeState = state)
+                }
+
+                is UUnknownResult -> return NoSolverStateForker.fork(state, condition)
+            }
+        }
+
         val (trueModels, falseModels, _) = splitModelsByCondition(state.models, condition)
 
-        val notCondition = state.ctx.mkNot(condition)
         val (posState, negState) = when {
 
             trueModels.isNotEmpty() && falseModels.isNotEmpty() -> {
@@ -95,20 +113,23 @@ object WithSolverStateForker : StateForker {
         conditions: Iterable<UBoolExpr>,
     ): List<T?> {
         val guardedModels = mutableListOf<Pair<List<UModelBase<Type>>, UBoolExpr>?>()
+        val conditionsToCheck = mutableListOf<IndexedValue<UBoolExpr>>()
 
-        for (condition in conditions) {
+        for ((i, condition) in conditions.withIndex()) {
             val (trueModels, _, _) = splitModelsByCondition(state.models, condition)
 
             if (trueModels.isNotEmpty()) {
                 guardedModels += trueModels to condition
             } else {
-                forkOriginalStateIfSat(
-                    state,
-                    newConstraintToOriginalState = condition,
-                    guardedModels
-                )
+                guardedModels += null
+                conditionsToCheck += IndexedValue(i, condition)
             }
         }
+
+        if (conditionsToCheck.isNotEmpty()) {
+            checkOriginalStateIfSat(state, conditionsToCheck, guardedModels)
+        }
+
         val result = mutableListOf<T?>()
         var curState = state
         val lastNotNullIndex = guardedModels.indexOfLast { x -> x != null }
@@ -149,13 +170,14 @@ object WithSolverStateForker : StateForker {
     ): T? {
         val constraintsToCheck = state.pathConstraints.clone()
 
-        constraintsToCheck += if (stateToCheck) {
+        val constraintToCheck = if (stateToCheck) {
             newConstraintToForkedState
         } else {
             newConstraintToOriginalState
         }
+        constraintsToCheck += constraintToCheck
         val solver = state.ctx.solver<Type>()
-        val satResult = solver.check(constraintsToCheck)
+        val satResult = solver.checkSliced(constraintsToCheck, constraintToCheck, state.models)
 
         return when (satResult) {
             is UUnsatResult -> {
@@ -193,30 +215,47 @@ object WithSolverStateForker : StateForker {
         }
     }
 
-    @Suppress("MoveVariableDeclarationIntoWhen")
-    private fun <T : UState<Type, *, *, Context, *, T>, Type, Context : UContext<*>> forkOriginalStateIfSat(
+    /**
+     * Checks the path constraints of the [state] with the [condition] added.
+     */
+    private fun <T : UState<Type, *, *, Context, *, T>, Type, Context : UContext<*>> checkBranch(
         state: T,
-        newConstraintToOriginalState: UBoolExpr,
-        guardedModels: MutableList<Pair<List<UModelBase<Type>>, UBoolExpr>?>
-    ) {
+        condition: UBoolExpr,
+    ): USolverResult<UModelBase<Type>> {
         val constraintsToCheck = state.pathConstraints.clone()
-
-        constraintsToCheck += newConstraintToOriginalState
+        constraintsToCheck += condition
         val solver = state.ctx.solver<Type>()
-        val satResult = solver.check(constraintsToCheck)
+        val result = solver.checkSliced(constraintsToCheck, condition, knownModels = emptyList())
 
-        when (satResult) {
-            is UUnsatResult -> guardedModels += null
+        // rollback previous ownership, the cloned constraints are not used anymore
+        state.pathConstraints.changeOwnership(state.ownership)
+        return result
+    }
 
-            is USatResult -> {
-                // Note that we cannot extract common code here due to
-                // heavy plusAssign operator in path constraints.
-                // Therefore, it is better to reuse already constructed [constraintToCheck].
-                guardedModels += listOf(satResult.model) to newConstraintToOriginalState
-            }
+    /**
+     * Checks the [conditions] added to the path constraints of the [state] in a single solver session,
+     * see [org.usvm.solver.USolverBase.checkMulti]. Puts the satisfiable conditions with their models
+     * into [guardedModels] at the indices of the conditions.
+     */
+    private fun <T : UState<Type, *, *, Context, *, T>, Type, Context : UContext<*>> checkOriginalStateIfSat(
+        state: T,
+        conditions: List<IndexedValue<UBoolExpr>>,
+        guardedModels: MutableList<Pair<List<UModelBase<Type>>, UBoolExpr>?>,
+    ) {
+        val newConstraints = conditions.map { it.value }
+        val queries = newConstraints.map { condition ->
+            state.pathConstraints.clone().also { it += condition }
+        }
+        val solver = state.ctx.solver<Type>()
+        val satResults = solver.checkMulti(state.pathConstraints, queries, newConstraints, state.models)
 
-            is UUnknownResult -> {
-                guardedModels += null
+        // rollback previous ownership, the queries are not used anymore
+        state.pathConstraints.changeOwnership(state.ownership)
+
+        for ((condition, satResult) in conditions.zip(satResults)) {
+            // On UUnsatResult and UUnknownResult, the condition is not taken
+            if (satResult is USatResult) {
+                guardedModels[condition.index] = listOf(satResult.model) to condition.value
             }
         }
     }
@@ -16,6 +16,17 @@ import org.usvm.types.UTypeSystem
 interface UComponents<Type, USizeSort : USort> {
     val useSolverForForks: Boolean
 
+    /**
+     * Whether forks are made without the solver, while the machine checks feasibility of states when they are
+     * peeked (see [UMachineOptions.deferForkChecks]).
+     */
+    val deferForkChecks: Boolean get() = false
+
+    /**
+     * The maximum number of models kept by a state, see [UMachineOptions.maxModelsPerState].
+     */
+    val maxModelsPerState: Int get() = Int.MAX_VALUE
+
     fun <Context : UContext<USizeSort>> mkSolver(ctx: Context): USolverBase<Type>
     fun mkTypeSystem(ctx: UContext<USizeSort>): UTypeSystem<Type>
     fun <Context : UContext<USizeSort>> mkSizeExprProvider(ctx: Context): USizeExprProvider<USizeSort>
@@ -38,7 +49,8 @@ interface UComponents<Type, USizeSort : USort> {
     ): (UReadOnlyMemory<Type>, MutabilityOwnership) -> UComposer<Type, USizeSort> =
         { memory: UReadOnlyMemory<Type>, ownership: MutabilityOwnership -> UComposer(ctx, memory, ownership) }
 
-    fun mkStatesForkProvider(): StateForker = if (useSolverForForks) WithSolverStateForker else NoSolverStateForker
+    fun mkStatesForkProvider(): StateForker =
+        if (useSolverForForks && !deferForkChecks) WithSolverStateForker else NoSolverStateForker
 
     fun <Context : UContext<USizeSort>> mkSoftConstraintsProvider(
         ctx: Context
@@ -22,7 +22,6 @@ import org.usvm.solver.UCollectionDecoder
 import org.usvm.solver.UExprTranslator
 import org.usvm.solver.URegionDecoder
 import org.usvm.solver.URegionTranslator
-import java.util.IdentityHashMap
 
 class UArrayRegionDecoder<ArrayType, Sort : USort, USizeSort : USort>(
     private val regionId: UArrayRegionId<ArrayType, Sort, USizeSort>,
@@ -66,7 +65,7 @@ private class UAllocatedArrayRegionTranslator<ArrayType, Sort : USort, USizeSort
         mkArrayConst(sort, translatedDefaultValue)
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<USizeSort, Sort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<USizeSort, Sort>>>()
     private val updatesTranslator = UAllocatedArrayUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
@@ -87,7 +86,7 @@ private class UInputArrayRegionTranslator<ArrayType, Sort : USort, USizeSort : U
         mkArraySort(addressSort, sizeSort, collectionId.sort).mkConst(collectionId.toString())
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArray2Sort<UAddressSort, USizeSort, Sort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArray2Sort<UAddressSort, USizeSort, Sort>>>()
     private val updatesTranslator = UInputArrayUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
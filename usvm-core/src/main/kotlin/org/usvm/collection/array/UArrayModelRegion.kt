@@ -24,7 +24,8 @@ class UArrayLazyModelRegion<ArrayType, Sort : USort, USizeSort : USort>(
     private val inputArrayDecoder: UCollectionDecoder<USymbolicArrayIndex<USizeSort>, Sort>
 ) : UArrayModelRegion<ArrayType, Sort, USizeSort>(regionId) {
     override val inputArray: UReadOnlyMemoryRegion<USymbolicArrayIndex<USizeSort>, Sort> by lazy {
-        inputArrayDecoder.decodeCollection(model)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputArrayDecoder.decodeCollection(model) }
     }
 }
 
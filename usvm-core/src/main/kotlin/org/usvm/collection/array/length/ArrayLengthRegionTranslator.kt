@@ -18,7 +18,6 @@ import org.usvm.solver.UCollectionDecoder
 import org.usvm.solver.UExprTranslator
 import org.usvm.solver.URegionDecoder
 import org.usvm.solver.URegionTranslator
-import java.util.IdentityHashMap
 
 class UArrayLengthRegionDecoder<ArrayType, USizeSort : USort>(
     private val regionId: UArrayLengthsRegionId<ArrayType, USizeSort>,
@@ -51,7 +50,7 @@ private class UInputArrayLengthRegionTranslator<ArrayType, USizeSort : USort>(
         mkArraySort(addressSort, sizeSort).mkConst(collectionId.toString())
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<UAddressSort, USizeSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<UAddressSort, USizeSort>>>()
     private val updatesTranslator = UInputArrayLengthUpdateTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
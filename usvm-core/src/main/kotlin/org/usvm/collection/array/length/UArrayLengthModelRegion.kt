@@ -25,7 +25,8 @@ class UArrayLengthLazyModelRegion<ArrayType, USizeSort : USort>(
     private val inputArrayLengthDecoder: UCollectionDecoder<UHeapRef, USizeSort>,
 ) : UArrayLengthModelRegion<ArrayType, USizeSort>(regionId) {
     override val inputArrayLength: UReadOnlyMemoryRegion<UHeapRef, USizeSort> by lazy {
-        inputArrayLengthDecoder.decodeCollection(model)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputArrayLengthDecoder.decodeCollection(model) }
     }
 }
 
@@ -18,7 +18,6 @@ import org.usvm.solver.UExprTranslator
 import org.usvm.solver.URegionDecoder
 import org.usvm.solver.URegionTranslator
 import org.usvm.uctx
-import java.util.IdentityHashMap
 
 class UFieldRegionDecoder<Field, Sort : USort>(
     private val regionId: UFieldsRegionId<Field, Sort>,
@@ -49,7 +48,7 @@ private class UInputFieldRegionTranslator<Field, Sort : USort>(
         mkArraySort(addressSort, collectionId.sort).mkConst(collectionId.toString())
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<UAddressSort, Sort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<UAddressSort, Sort>>>()
     private val updatesTranslator = UInputFieldUpdateTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
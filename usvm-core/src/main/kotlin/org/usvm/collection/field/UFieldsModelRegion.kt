@@ -25,7 +25,8 @@ class UFieldsLazyModelRegion<Field, Sort : USort>(
     private val inputFieldsDecoder: UCollectionDecoder<UHeapRef, Sort>
 ) : UFieldsModelRegion<Field, Sort>(regionId) {
     override val inputFields: UReadOnlyMemoryRegion<UHeapRef, Sort> by lazy {
-        inputFieldsDecoder.decodeCollection(model)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputFieldsDecoder.decodeCollection(model) }
     }
 }
 
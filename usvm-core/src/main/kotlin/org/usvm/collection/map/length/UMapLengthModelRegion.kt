@@ -25,7 +25,8 @@ class UMapLengthLazyModelRegion<MapType, USizeSort : USort>(
     private val inputLengthDecoder: UCollectionDecoder<UHeapRef, USizeSort>
 ) : UMapLengthModelRegion<MapType, USizeSort>(regionId) {
     override val inputMapLength: UReadOnlyMemoryRegion<UHeapRef, USizeSort> by lazy {
-        inputLengthDecoder.decodeCollection(model)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputLengthDecoder.decodeCollection(model) }
     }
 }
 
@@ -18,7 +18,6 @@ import org.usvm.solver.UCollectionDecoder
 import org.usvm.solver.UExprTranslator
 import org.usvm.solver.URegionDecoder
 import org.usvm.solver.URegionTranslator
-import java.util.IdentityHashMap
 
 class UMapLengthRegionDecoder<MapType, USizeSort : USort>(
     private val regionId: UMapLengthRegionId<MapType, USizeSort>,
@@ -51,7 +50,7 @@ private class UInputMapLengthRegionTranslator<MapType, USizeSort : USort>(
         mkArraySort(addressSort, sizeSort).mkConst(collectionId.toString())
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<UAddressSort, USizeSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<UAddressSort, USizeSort>>>()
     private val updatesTranslator = UInputMapLengthUpdateTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
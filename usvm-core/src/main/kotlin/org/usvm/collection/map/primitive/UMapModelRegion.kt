@@ -26,7 +26,8 @@ class UMapLazyModelRegion<MapType, KeySort : USort, ValueSort : USort, Reg : Reg
     private val inputMapDecoder: UCollectionDecoder<USymbolicMapKey<KeySort>, ValueSort>
 ) : UMapModelRegion<MapType, KeySort, ValueSort, Reg>(regionId) {
     override val inputMap: UReadOnlyMemoryRegion<USymbolicMapKey<KeySort>, ValueSort> by lazy {
-        inputMapDecoder.decodeCollection(model)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputMapDecoder.decodeCollection(model) }
     }
 }
 
@@ -24,7 +24,6 @@ import org.usvm.solver.URegionDecoder
 import org.usvm.solver.URegionTranslator
 import org.usvm.uctx
 import org.usvm.regions.Region
-import java.util.IdentityHashMap
 
 class UMapRegionDecoder<MapType, KeySort : USort, ValueSort : USort, Reg : Region<Reg>>(
     private val regionId: UMapRegionId<MapType, KeySort, ValueSort, Reg>,
@@ -67,7 +66,7 @@ private class UAllocatedMapTranslator<MapType, KeySort : USort, ValueSort : USor
         mkArrayConst(sort, translatedDefaultValue)
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<KeySort, ValueSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<KeySort, ValueSort>>>()
     private val updatesTranslator = UAllocatedMapUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
@@ -88,7 +87,7 @@ private class UInputMapTranslator<MapType, KeySort : USort, ValueSort : USort, R
         mkArraySort(addressSort, collectionId.keySort, collectionId.sort).mkConst(collectionId.toString())
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArray2Sort<UAddressSort, KeySort, ValueSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArray2Sort<UAddressSort, KeySort, ValueSort>>>()
     private val updatesTranslator = UInputMapUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
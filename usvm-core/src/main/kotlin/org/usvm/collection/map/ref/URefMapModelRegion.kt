@@ -26,7 +26,8 @@ class URefMapLazyModelRegion<MapType, ValueSort : USort>(
     private val inputMapDecoder: UCollectionDecoder<USymbolicMapKey<UAddressSort>, ValueSort>
 ) : URefMapModelRegion<MapType, ValueSort>(regionId) {
     override val inputMap: UReadOnlyMemoryRegion<USymbolicMapKey<UAddressSort>, ValueSort> by lazy {
-        inputMapDecoder.decodeCollection(model)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputMapDecoder.decodeCollection(model) }
     }
 }
 
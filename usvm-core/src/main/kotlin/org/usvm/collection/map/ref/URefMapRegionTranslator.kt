@@ -23,7 +23,6 @@ import org.usvm.solver.UExprTranslator
 import org.usvm.solver.URegionDecoder
 import org.usvm.solver.URegionTranslator
 import org.usvm.uctx
-import java.util.IdentityHashMap
 
 class URefMapRegionDecoder<MapType, ValueSort : USort>(
     private val regionId: URefMapRegionId<MapType, ValueSort>,
@@ -76,7 +75,7 @@ private class UAllocatedRefMapWithInputKeysTranslator<MapType, ValueSort : USort
         mkArrayConst(sort, translatedDefaultValue)
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<UAddressSort, ValueSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<UAddressSort, ValueSort>>>()
     private val updatesTranslator = UAllocatedRefMapUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
@@ -98,7 +97,7 @@ private class UInputRefMapWithAllocatedKeysTranslator<MapType, ValueSort : USort
         mkArrayConst(sort, translatedDefaultValue)
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArraySort<UAddressSort, ValueSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArraySort<UAddressSort, ValueSort>>>()
     private val updatesTranslator = UAllocatedRefMapUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
@@ -119,7 +118,7 @@ private class UInputRefMapTranslator<MapType, ValueSort : USort>(
         mkArraySort(addressSort, addressSort, collectionId.sort).mkConst(collectionId.toString())
     }
 
-    private val visitorCache = IdentityHashMap<Any?, KExpr<KArray2Sort<UAddressSort, UAddressSort, ValueSort>>>()
+    private val visitorCache = exprTranslator.translationCaches.mkCache<KExpr<KArray2Sort<UAddressSort, UAddressSort, ValueSort>>>()
     private val updatesTranslator = UInputRefMapUpdatesTranslator(exprTranslator, initialValue)
 
     override fun translateReading(
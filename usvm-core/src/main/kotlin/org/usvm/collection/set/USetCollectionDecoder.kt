@@ -39,7 +39,10 @@ abstract class USetCollectionDecoder<ElementSort : USort> {
         }
 
         val usedSetKeys = hashSetOf<KFunctionApp<KBoolSort>>()
-        assertions.flatMapTo(usedSetKeys) { appCollector.applyVisitor(it) }
+        // The collector is shared by the models of all the solver queries
+        synchronized(appCollector) {
+            assertions.flatMapTo(usedSetKeys) { appCollector.applyVisitor(it) }
+        }
 
         var entries = persistentHashMapOf<USymbolicSetElement<ElementSort>, UBoolExpr>()
         for (key in usedSetKeys) {
@@ -49,7 +49,8 @@ class USetLazyModelRegion<SetType, ElementSort : USort, Reg : Region<Reg>>(
     inputSetDecoder: USetCollectionDecoder<ElementSort>
 ) : USetModelRegion<SetType, ElementSort, Reg>(regionId) {
     override val inputSet: UMemory2DArray<UAddressSort, ElementSort, UBoolSort> by lazy {
-        inputSetDecoder.decodeCollection(model, assertions)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputSetDecoder.decodeCollection(model, assertions) }
     }
 }
 
@@ -46,7 +46,8 @@ class URefSetLazyModelRegion<SetType>(
     inputSetDecoder: USetCollectionDecoder<UAddressSort>
 ) : URefSetModelRegion<SetType>(regionId) {
     override val inputSet: UMemory2DArray<UAddressSort, UAddressSort, UBoolSort> by lazy {
-        inputSetDecoder.decodeCollection(model, assertions)
+        // The model evaluator is shared by all the regions of the model
+        synchronized(model) { inputSetDecoder.decodeCollection(model, assertions) }
     }
 }
 
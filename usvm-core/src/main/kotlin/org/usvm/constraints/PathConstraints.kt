@@ -184,6 +184,10 @@ open class UPathConstraints<Type>(
             }
         }
 
+    /**
+     * Clones these path constraints in O(1), the nested constraints share their persistent data structures.
+     * Both [thisOwnership] and [cloneOwnership] must be fresh, so that neither copy mutates the shared structures.
+     */
     open fun clone(
         thisOwnership: MutabilityOwnership = MutabilityOwnership(),
         cloneOwnership: MutabilityOwnership = MutabilityOwnership(), // ownerships must be fresh new because of plus assign operations
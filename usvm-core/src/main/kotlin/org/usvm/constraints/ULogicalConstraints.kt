@@ -14,12 +14,16 @@ import org.usvm.merging.UOwnedMergeable
 
 class ULogicalConstraints private constructor(
     private var constraints: UPersistentHashSet<UBoolExpr>,
+    isContradicting: Boolean = constraints.any(UBoolExpr::isFalse),
 ) : Set<UBoolExpr>, UOwnedMergeable<ULogicalConstraints, MutableMergeGuard> {
     fun add(expr: UBoolExpr, ownership: MutabilityOwnership) {
         constraints = constraints.add(expr, ownership)
+        if (expr.isFalse) {
+            isContradicting = true
+        }
     }
 
-    fun clone(): ULogicalConstraints = ULogicalConstraints(constraints)
+    fun clone(): ULogicalConstraints = ULogicalConstraints(constraints, isContradicting)
     override val size: Int
         get() = constraints.calculateSize()
 
@@ -31,11 +35,12 @@ class ULogicalConstraints private constructor(
 
     override fun contains(element: UBoolExpr): Boolean = constraints.contains(element)
 
-    val isContradicting: Boolean
-        get() = constraints.any(UBoolExpr::isFalse)
+    var isContradicting: Boolean = isContradicting
+        private set
 
     fun contradiction(ctx: UContext<*>, ownership: MutabilityOwnership) {
         constraints = persistentHashSetOf<UBoolExpr>().add(ctx.falseExpr, ownership)
+        isContradicting = true
     }
 
     /**
@@ -59,6 +64,6 @@ class ULogicalConstraints private constructor(
     }
 
     companion object {
-        fun empty() = ULogicalConstraints(persistentHashSetOf())
+        fun empty() = ULogicalConstraints(persistentHashSetOf(), isContradicting = false)
     }
 }
@@ -8,6 +8,7 @@ import org.usvm.UConcreteHeapRef
 import org.usvm.UContext
 import org.usvm.UExpr
 import org.usvm.UHeapRef
+import org.usvm.UIdentityKey
 import org.usvm.UIndexedMocker
 import org.usvm.UMockEvaluator
 import org.usvm.UMocker
@@ -20,6 +21,7 @@ import org.usvm.constraints.UTypeConstraints
 import org.usvm.constraints.UTypeEvaluator
 import org.usvm.merging.MergeGuard
 import org.usvm.merging.UOwnedMergeable
+import java.util.concurrent.atomic.AtomicInteger
 
 interface UMemoryRegionId<Key, Sort : USort> {
     val sort: Sort
@@ -49,18 +51,18 @@ interface ULValue<Key, Sort : USort> {
  * Copying is prohibited.
  */
 class UAddressCounter {
-    private var lastAllocatedAddress: Int = INITIAL_CONCRETE_ADDRESS
-    private var lastStaticAddress: Int = INITIAL_STATIC_ADDRESS
+    private val lastAllocatedAddress = AtomicInteger(INITIAL_CONCRETE_ADDRESS)
+    private val lastStaticAddress = AtomicInteger(INITIAL_STATIC_ADDRESS)
 
     /**
      * Returns the [lastAllocatedAddress] and increments it.
      */
-    fun freshAllocatedAddress(): UConcreteHeapAddress = lastAllocatedAddress++
+    fun freshAllocatedAddress(): UConcreteHeapAddress = lastAllocatedAddress.getAndIncrement()
 
     /**
      * Returns the [lastStaticAddress] and decrements it.
      */
-    fun freshStaticAddress(): UConcreteHeapAddress = lastStaticAddress--
+    fun freshStaticAddress(): UConcreteHeapAddress = lastStaticAddress.getAndDecrement()
 }
 
 interface UReadOnlyMemory<Type> {
@@ -164,6 +166,16 @@ class UMemory<Type, Method>(
             ctx, cloneOwnership, typeConstraints, stack.clone(), mocks.clone(), regions
         ).also { ownership = thisOwnership }
 
+    /**
+     * Returns a snapshot of this memory. Snapshots of two memories are equal iff their regions and mocks are
+     * reference equal and their stacks contain the same values, see [org.usvm.UStateFingerprint].
+     */
+    internal fun structuralSnapshot(): List<Any> = listOf(
+        regions.associate { (id, region) -> id to UIdentityKey(region) },
+        stack.framesSnapshot(),
+        mocks.structuralSnapshot(),
+    )
+
     override fun toWritableMemory(ownership: MutabilityOwnership) =
         /* NOTE 1: To be perfectly rigorous, we should clone stack and types here.
         But in fact they should not be used, so to optimize things up, we don't touch them.
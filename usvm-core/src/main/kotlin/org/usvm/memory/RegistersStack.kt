@@ -68,6 +68,8 @@ class URegistersStack(
 
     fun pop() = frames.removeLast()
 
+    internal fun framesSnapshot(): List<List<UExpr<out USort>?>> = frames.map { it.toList() }
+
     fun clone(): URegistersStack {
         val newStack = ArrayDeque(frames.map { it.clone() })
         return URegistersStack(newStack)
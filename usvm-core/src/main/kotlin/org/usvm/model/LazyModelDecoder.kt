@@ -132,8 +132,10 @@ open class ULazyModelDecoder<Type>(
 
         private fun <Key, Sort : USort> completeRegion(
             regionId: UMemoryRegionId<Key, Sort>
-        ): UReadOnlyMemoryRegion<Key, Sort> = completedRegions.getOrPut(regionId) {
-            DefaultRegion(regionId, regionId.sort.accept(model).uncheckedCast())
+        ): UReadOnlyMemoryRegion<Key, Sort> = synchronized(model) {
+            completedRegions.getOrPut(regionId) {
+                DefaultRegion(regionId, regionId.sort.accept(model).uncheckedCast())
+            }
         }.uncheckedCast()
     }
 
@@ -14,6 +14,8 @@ import org.usvm.uctx
 
 /**
  * A lazy model for registers. Firstly, searches for translated symbol, then evaluates it in [model].
+ * The [translator] and the [model] are used under their monitors, since they are shared with the solver
+ * and other models which may be used by other threads.
  *
  * @param model to decode from. It has to be detached.
  * @param translator an expression translator used for encoding constraints.
@@ -28,13 +30,14 @@ class ULazyRegistersStackModel(
         sort: Sort,
     ): UExpr<Sort> {
         val registerReading = translator.ctx.mkRegisterReading(index, sort)
-        val translated = translator.translate(registerReading)
-        return model.evalAndComplete(translated)
+        val translated = synchronized(translator) { translator.translate(registerReading) }
+        return synchronized(model) { model.evalAndComplete(translated) }
     }
 }
 
 /**
  * A lazy model for an indexed mocker. Firstly, searches for translated symbol, then evaluates it in [model].
+ * The [translator] and the [model] are used under their monitors as in [ULazyRegistersStackModel].
  *
  * @param model to decode from. It has to be detached.
  * @param translator an expression translator used for encoding constraints.
@@ -49,8 +52,8 @@ class ULazyIndexedMockModel(
             "Unexpected symbol $symbol found"
         }
 
-        val translated = translator.translate(symbol)
-        return model.evalAndComplete(translated)
+        val translated = synchronized(translator) { translator.translate(symbol) }
+        return synchronized(model) { model.evalAndComplete(translated) }
     }
 }
 
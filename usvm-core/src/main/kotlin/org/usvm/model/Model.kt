@@ -30,6 +30,9 @@ interface UModel {
  * Evaluated expressions are cached within [UModelBase] instance.
  * If a symbol from an expression not found inside the model, components return the default value
  * of the correct sort.
+ *
+ * Models are shared by forked states, which may be stepped by different workers of a parallel machine,
+ * so evaluation is synchronized on the model, and the components shared between models synchronize themselves.
  */
 open class UModelBase<Type>(
     ctx: UContext<*>,
@@ -50,7 +53,7 @@ open class UModelBase<Type>(
      * a reading of some sort, a mock symbol, etc.
      */
     override fun <Sort : USort> eval(expr: UExpr<Sort>): UExpr<Sort> =
-        composer.compose(expr)
+        synchronized(this) { composer.compose(expr) }
 
     override fun <Key, Sort : USort> getRegion(regionId: UMemoryRegionId<Key, Sort>): UReadOnlyMemoryRegion<Key, Sort> {
         if (regionId is URegisterStackId) {
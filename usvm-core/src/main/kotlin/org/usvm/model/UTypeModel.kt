@@ -11,6 +11,9 @@ import org.usvm.types.UTypeRegion
 import org.usvm.types.UTypeStream
 import org.usvm.types.UTypeSystem
 
+/**
+ * Type model shared by the models built from the same solver result, so its methods are synchronized.
+ */
 class UTypeModel<Type>(
     val typeSystem: UTypeSystem<Type>,
     typeRegionByAddr: Map<UConcreteHeapAddress, UTypeRegion<Type>>,
@@ -20,6 +23,7 @@ class UTypeModel<Type>(
     private fun typeRegion(ref: UConcreteHeapRef): UTypeRegion<Type> =
         typeStreamByAddr[ref.address] ?: UTypeRegion(typeSystem, typeSystem.topTypeStream())
 
+    @Synchronized
     override fun evalIsSubtype(ref: UHeapRef, supertype: Type): UBoolExpr =
         when {
             ref is UConcreteHeapRef && ref.address == NULL_ADDRESS -> ref.ctx.trueExpr
@@ -46,6 +50,7 @@ class UTypeModel<Type>(
             else -> error("Expecting concrete ref, but got $ref")
         }
 
+    @Synchronized
     override fun evalIsSupertype(ref: UHeapRef, subtype: Type): UBoolExpr =
         when {
             ref is UConcreteHeapRef && ref.address == NULL_ADDRESS -> ref.ctx.falseExpr
@@ -72,6 +77,7 @@ class UTypeModel<Type>(
             else -> error("Expecting concrete ref, but got $ref")
         }
 
+    @Synchronized
     override fun getTypeStream(ref: UHeapRef): UTypeStream<Type> {
         check(ref is UConcreteHeapRef) { "Unexpected ref: $ref" }
         return typeRegion(ref).typeStream
@@ -0,0 +1,129 @@
+package org.usvm.ps
+
+import org.usvm.UPathSelector
+import org.usvm.UState
+import org.usvm.UStateFingerprint
+import org.usvm.UStateKey
+import org.usvm.logger
+import java.util.IdentityHashMap
+
+/**
+ * Drops states which converged with a state in the [underlyingPs], i.e., whose [UStateFingerprint]s are equal
+ * to the fingerprint of a state added earlier. Only the states in the [underlyingPs] are considered, so fingerprints
+ * are not retained for removed states.
+ *
+ * States are grouped by their cheap [UStateKey]s first. A fingerprint, which copies the constraints and the memory
+ * structure of a state, is taken only when another state with the same key is in the path selector, and dropped
+ * when the state is left alone with its key again.
+ *
+ * A key of a state is taken when the state is added or updated, and forgotten when the state is peeked,
+ * since a peeked state is about to be modified.
+ *
+ * @param languageKey returns language-specific parts of a state which should be equal for the states to converge.
+ */
+class DeduplicatingPathSelector<State : UState<*, *, *, *, *, State>>(
+    private val underlyingPs: UPathSelector<State>,
+    private val languageKey: (State) -> Any?,
+) : UPathSelector<State> {
+    private val buckets = hashMapOf<UStateKey, Bucket<State>>()
+    private val keys = IdentityHashMap<State, UStateKey>()
+    private val fingerprints = IdentityHashMap<State, UStateFingerprint>()
+
+    /**
+     * Number of states dropped so far.
+     */
+    var droppedStates: Int = 0
+        private set
+
+    /**
+     * States with the same [UStateKey]. A single state is kept without a fingerprint.
+     */
+    private class Bucket<State>(var singleState: State?) {
+        val statesByFingerprint = hashMapOf<UStateFingerprint, State>()
+    }
+
+    override fun isEmpty(): Boolean = underlyingPs.isEmpty()
+
+    override fun peek(): State = underlyingPs.peek().also(::forget)
+
+    override fun update(state: State) {
+        forget(state)
+        if (register(state)) {
+            underlyingPs.update(state)
+        } else {
+            underlyingPs.remove(state)
+        }
+    }
+
+    override fun add(states: Collection<State>) {
+        underlyingPs.add(states.filter(::register))
+    }
+
+    override fun addForked(parent: State, states: Collection<State>) {
+        underlyingPs.addForked(parent, states.filter(::register))
+    }
+
+    override fun remove(state: State) {
+        forget(state)
+        underlyingPs.remove(state)
+    }
+
+    /**
+     * Returns false if the [state] converged with another state.
+     */
+    private fun register(state: State): Boolean {
+        val key = UStateKey(state, languageKey(state))
+        val bucket = buckets[key]
+        if (bucket == null) {
+            buckets[key] = Bucket(state)
+            keys[state] = key
+            return true
+        }
+
+        val singleState = bucket.singleState
+        if (singleState != null) {
+            // The single state hasn't been modified since it was registered, as it hasn't been peeked
+            bucket.singleState = null
+            val singleStateFingerprint = fingerprint(singleState)
+            bucket.statesByFingerprint[singleStateFingerprint] = singleState
+            fingerprints[singleState] = singleStateFingerprint
+        }
+
+        val fingerprint = fingerprint(state)
+        val convergedState = bucket.statesByFingerprint.putIfAbsent(fingerprint, state)
+        if (convergedState != null && convergedState !== state) {
+            logger.debug { "Drop state ${state.id} | converged with state ${convergedState.id}" }
+            droppedStates++
+            return false
+        }
+
+        keys[state] = key
+        fingerprints[state] = fingerprint
+        return true
+    }
+
+    private fun forget(state: State) {
+        val key = keys.remove(state) ?: return
+        val bucket = buckets.getValue(key)
+        if (bucket.singleState === state) {
+            buckets.remove(key)
+            return
+        }
+
+        bucket.statesByFingerprint.remove(fingerprints.remove(state) ?: error("Missed state fingerprint"), state)
+        val states = bucket.statesByFingerprint.values
+        if (states.size <= 1) {
+            // A state left alone doesn't need its fingerprint anymore
+            val remainingState = states.singleOrNull()
+            if (remainingState == null) {
+                buckets.remove(key)
+            } else {
+                bucket.statesByFingerprint.clear()
+                fingerprints.remove(remainingState)
+                bucket.singleState = remainingState
+            }
+        }
+    }
+
+    private fun fingerprint(state: State): UStateFingerprint = UStateFingerprint(state, languageKey(state))
+}
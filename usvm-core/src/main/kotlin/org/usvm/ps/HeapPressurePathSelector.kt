@@ -0,0 +1,141 @@
+package org.usvm.ps
+
+import org.usvm.UPathSelector
+import org.usvm.logger
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
+
+/**
+ * Drops states when the heap is nearly full, so that analysis degrades gracefully instead of failing
+ * with [OutOfMemoryError].
+ *
+ * When a garbage collection leaves more than [heapUsageThreshold] of the heap occupied, [dropFraction] of the states
+ * in the [underlyingPs] are dropped. States which haven't been peeked for the longest time are dropped first,
+ * as the [underlyingPs] is unlikely to pick them soon. The last peeked state is never dropped.
+ *
+ * @param heapUsageAfterGc returns the fraction of the heap occupied after the last garbage collection,
+ * or null if there was no collection since the previous call.
+ */
+class HeapPressurePathSelector<State>(
+    private val underlyingPs: UPathSelector<State>,
+    private val heapUsageThreshold: Double,
+    private val dropFraction: Double = DEFAULT_DROP_FRACTION,
+    private val heapUsageAfterGc: () -> Double? = HeapUsageProbe()::usageAfterNewCollection,
+) : UPathSelector<State> {
+    init {
+        require(heapUsageThreshold > 0.0 && heapUsageThreshold <= 1.0) {
+            "Heap usage threshold must be in (0, 1]: $heapUsageThreshold"
+        }
+        require(dropFraction > 0.0 && dropFraction <= 1.0) { "Drop fraction must be in (0, 1]: $dropFraction" }
+    }
+
+    // States in the order of their last peek or addition, the least recently peeked ones go first
+    private val states = LinkedHashSet<State>()
+    private var lastPeekedState: State? = null
+
+    /**
+     * Number of states dropped so far.
+     */
+    var droppedStates: Int = 0
+        private set
+
+    override fun isEmpty(): Boolean = underlyingPs.isEmpty()
+
+    override fun peek(): State = underlyingPs.peek().also {
+        lastPeekedState = it
+        touch(it)
+    }
+
+    override fun update(state: State) {
+        underlyingPs.update(state)
+        touch(state)
+        dropStatesIfRequired()
+    }
+
+    override fun add(states: Collection<State>) {
+        underlyingPs.add(states)
+        this.states.addAll(states)
+        dropStatesIfRequired()
+    }
+
+    override fun remove(state: State) {
+        underlyingPs.remove(state)
+        states.remove(state)
+        if (state === lastPeekedState) {
+            lastPeekedState = null
+        }
+    }
+
+    private fun touch(state: State) {
+        states.remove(state)
+        states.add(state)
+    }
+
+    private fun dropStatesIfRequired() {
+        val heapUsage = heapUsageAfterGc() ?: return
+        if (heapUsage <= heapUsageThreshold) {
+            return
+        }
+
+        val statesToDrop = (states.size * dropFraction).toInt()
+        if (statesToDrop == 0) {
+            return
+        }
+
+        val dropped = states.asSequence()
+            .filter { it !== lastPeekedState }
+            .take(statesToDrop)
+            .toList()
+        dropped.forEach {
+            underlyingPs.remove(it)
+            states.remove(it)
+        }
+        droppedStates += dropped.size
+
+        logger.warn {
+            "Heap usage ${"%.2f".format(heapUsage)} exceeds $heapUsageThreshold: dropped ${dropped.size} states, " +
+                "${states.size} left"
+        }
+    }
+
+    companion object {
+        const val DEFAULT_DROP_FRACTION = 0.25
+    }
+}
+
+/**
+ * Measures the heap usage after garbage collections using the JVM memory pools.
+ */
+internal class HeapUsageProbe {
+    private val heapPools = ManagementFactory.getMemoryPoolMXBeans().filter { it.type == MemoryType.HEAP }
+    private val collectors = ManagementFactory.getGarbageCollectorMXBeans()
+    private var lastCollectionCount = collectionCount()
+
+    private fun collectionCount(): Long = collectors.sumOf { it.collectionCount.coerceAtLeast(0) }
+
+    /**
+     * Returns the fraction of the heap occupied after the last garbage collection,
+     * or null if there was no collection since the previous call.
+     */
+    fun usageAfterNewCollection(): Double? {
+        val collectionCount = collectionCount()
+        if (collectionCount == lastCollectionCount) {
+            return null
+        }
+        lastCollectionCount = collectionCount
+
+        var used = 0L
+        var max = 0L
+        for (pool in heapPools) {
+            val usage = pool.collectionUsage ?: continue
+            val poolMax = pool.usage.max
+            if (poolMax <= 0) {
+                continue
+            }
+            used += usage.used
+            max += poolMax
+        }
+
+        return if (max == 0L) null else used.toDouble() / max
+    }
+}
@@ -41,17 +41,23 @@ class IterativeDeepeningPs<Stmt, Method, Loop : Any, State : UState<*, Method, S
     }
 
     override fun add(states: Collection<State>) {
-        states.forEach { addSingleState(it) }
+        states.forEach { addSingleState(it, lastPeekedStateStats) }
+    }
+
+    override fun addForked(parent: State, states: Collection<State>) {
+        // Taken before adding the states, since the stats of the parent are replaced if it is added back
+        val parentStats = stateStats[parent] ?: error("Missed state stats")
+        states.forEach { addSingleState(it, parentStats) }
     }
 
     /**
      * Add state and register it loop stats.
      *
      * Note: it is important that [state] must be initial or
-     * somehow related to the [lastPeekedState] (e.g. forked from it).
+     * somehow related to the state with the [parentStats] (e.g. forked from it).
      * */
-    private fun addSingleState(state: State) {
-        val stats = loopStatistic.updateStats(lastPeekedStateStats, state)
+    private fun addSingleState(state: State, parentStats: StateStats<Method, Stmt, Loop>) {
+        val stats = loopStatistic.updateStats(parentStats, state)
 
         val iterations = stats.maxLoopIteration
         if (iterationLimit != null && iterations > iterationLimit) {
@@ -71,7 +77,7 @@ class IterativeDeepeningPs<Stmt, Method, Loop : Any, State : UState<*, Method, S
         check(state === lastPeekedState) { "Try to update not peeked state" }
 
         underlyingPs.remove(state)
-        addSingleState(state)
+        addSingleState(state, lastPeekedStateStats)
     }
 
     override fun remove(state: State) {
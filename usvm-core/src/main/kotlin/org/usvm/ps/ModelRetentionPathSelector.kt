@@ -0,0 +1,52 @@
+package org.usvm.ps
+
+import org.usvm.UPathSelector
+import org.usvm.UState
+
+/**
+ * Keeps [UState.models] only for [maxStatesWithModels] states in the [underlyingPs] which have been peeked
+ * or added most recently. Models of the other states are dropped, as the [underlyingPs] is unlikely to pick them soon,
+ * and recomputed by the solver when such a state forks (see [org.usvm.WithSolverStateForker]).
+ */
+class ModelRetentionPathSelector<State : UState<*, *, *, *, *, State>>(
+    private val underlyingPs: UPathSelector<State>,
+    private val maxStatesWithModels: Int,
+) : UPathSelector<State> {
+    init {
+        require(maxStatesWithModels > 0) { "Max number of states with models must be positive: $maxStatesWithModels" }
+    }
+
+    // States which may keep their models, the least recently peeked ones go first
+    private val statesWithModels = LinkedHashSet<State>()
+
+    override fun isEmpty(): Boolean = underlyingPs.isEmpty()
+
+    override fun peek(): State = underlyingPs.peek().also(::touch)
+
+    override fun update(state: State) {
+        underlyingPs.update(state)
+        touch(state)
+    }
+
+    override fun add(states: Collection<State>) {
+        underlyingPs.add(states)
+        states.forEach(::touch)
+    }
+
+    override fun remove(state: State) {
+        underlyingPs.remove(state)
+        statesWithModels.remove(state)
+    }
+
+    private fun touch(state: State) {
+        statesWithModels.remove(state)
+        statesWithModels.add(state)
+
+        while (statesWithModels.size > maxStatesWithModels) {
+            val iterator = statesWithModels.iterator()
+            val leastRecentlyPeeked = iterator.next()
+            iterator.remove()
+            leastRecentlyPeeked.models = emptyList()
+        }
+    }
+}
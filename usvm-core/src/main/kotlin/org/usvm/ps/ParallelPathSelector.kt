@@ -5,8 +5,8 @@ import org.usvm.UPathSelector
 /**
  * A parallel path selector.
  *
- * [update], [remove] and [add] operations are executed only on the current path selector. A pointer to
- * the next path selector advances when [add] is called.
+ * [update], [remove], [add] and [addForked] operations are executed only on the current path selector. A pointer to
+ * the next path selector advances when [add] or [addForked] is called.
  */
 class ParallelPathSelector<State>(
     private val selectors: List<UPathSelector<State>>,
@@ -40,6 +40,11 @@ class ParallelPathSelector<State>(
         ptr = (ptr + 1) % selectors.size
     }
 
+    override fun addForked(parent: State, states: Collection<State>) {
+        selectors[ptr].addForked(parent, states)
+        ptr = (ptr + 1) % selectors.size
+    }
+
     override fun remove(state: State) {
         selectors[ptr].remove(state)
     }
@@ -36,6 +36,7 @@ private fun <Method, Statement, Target, State> createPathSelector(
     cfgStatisticsFactory: () -> CfgStatistics<Method, Statement>? = { null },
     callGraphStatisticsFactory: () -> CallGraphStatistics<Method>? = { null },
     loopStatisticFactory: () -> StateLoopTracker<*, Statement, State>? = { null },
+    stateLanguageKey: ((State) -> Any?)? = null,
 ): UPathSelector<State>
     where Target : UTarget<Statement, Target>,
           State : UState<*, Method, Statement, *, Target, State> {
@@ -107,7 +108,7 @@ private fun <Method, Statement, Target, State> createPathSelector(
 
     selectors.singleOrNull()?.let { selector ->
         val mergingSelector = createMergingPathSelector(initialStates, selector, options, cfgStatisticsFactory)
-        val resultSelector = mergingSelector.wrapIfRequired(options, loopStatisticFactory)
+        val resultSelector = mergingSelector.wrapIfRequired(options, loopStatisticFactory, stateLanguageKey)
         resultSelector.add(initialStates.toList())
         return resultSelector
     }
@@ -120,7 +121,7 @@ private fun <Method, Statement, Target, State> createPathSelector(
             val selector = InterleavedPathSelector(selectors)
 
             val mergingSelector = createMergingPathSelector(initialStates, selector, options, cfgStatisticsFactory)
-            val resultSelector = mergingSelector.wrapIfRequired(options, loopStatisticFactory)
+            val resultSelector = mergingSelector.wrapIfRequired(options, loopStatisticFactory, stateLanguageKey)
             resultSelector.add(initialStates.toList())
 
             resultSelector
@@ -130,7 +131,7 @@ private fun <Method, Statement, Target, State> createPathSelector(
             // Here we should wrap all selectors independently since they work in parallel.
             val wrappedSelectors = selectors.map { selector ->
                 val mergingSelector = createMergingPathSelector(initialStates, selector, options, cfgStatisticsFactory)
-                mergingSelector.wrapIfRequired(options, loopStatisticFactory)
+                mergingSelector.wrapIfRequired(options, loopStatisticFactory, stateLanguageKey)
             }
 
             wrappedSelectors.first().add(initialStates.toList())
@@ -153,6 +154,7 @@ fun <Method, Statement, Target, State> createPathSelector(
     cfgStatisticsFactory: () -> CfgStatistics<Method, Statement>? = { null },
     callGraphStatisticsFactory: () -> CallGraphStatistics<Method>? = { null },
     loopStatisticFactory: () -> StateLoopTracker<*, Statement, State>? = { null },
+    stateLanguageKey: ((State) -> Any?)? = null,
 ): UPathSelector<State> where Target : UTarget<Statement, Target>, State : UState<*, Method, Statement, *, Target, State> =
     createPathSelector(
         listOf(initialState),
@@ -161,7 +163,8 @@ fun <Method, Statement, Target, State> createPathSelector(
         coverageStatisticsFactory,
         cfgStatisticsFactory,
         callGraphStatisticsFactory,
-        loopStatisticFactory
+        loopStatisticFactory,
+        stateLanguageKey
     )
 
 fun <Method, Statement, Target, State> createPathSelector(
@@ -173,6 +176,7 @@ fun <Method, Statement, Target, State> createPathSelector(
     cfgStatisticsFactory: () -> CfgStatistics<Method, Statement>? = { null },
     callGraphStatisticsFactory: () -> CallGraphStatistics<Method>? = { null },
     loopStatisticFactory: () -> StateLoopTracker<*, Statement, State>? = { null },
+    stateLanguageKey: ((State) -> Any?)? = null,
 ): UPathSelector<State> where Target : UTarget<Statement, Target>, State : UState<*, Method, Statement, *, Target, State> {
     if (options.timeout == Duration.INFINITE || initialStates.size == 1) {
         return createPathSelector(
@@ -182,7 +186,8 @@ fun <Method, Statement, Target, State> createPathSelector(
             coverageStatisticsFactory,
             cfgStatisticsFactory,
             callGraphStatisticsFactory,
-            loopStatisticFactory
+            loopStatisticFactory,
+            stateLanguageKey
         )
     }
 
@@ -199,7 +204,8 @@ fun <Method, Statement, Target, State> createPathSelector(
             coverageStatisticsFactory,
             cfgStatisticsFactory,
             callGraphStatisticsFactory,
-            loopStatisticFactory
+            loopStatisticFactory,
+            stateLanguageKey
         )
 
     val coverageStatistics = coverageStatisticsFactory()
@@ -264,18 +270,35 @@ private fun <State : UState<*, *, *, *, *, State>> UPathSelector<State>.wrapIfRe
     }
 private fun <Statement, Method, State : UState<*, Method, Statement, *, *, State>> UPathSelector<State>.wrapIfRequired(
     options: UMachineOptions,
-    loopStatisticFactory: () -> StateLoopTracker<*, Statement, State>?
+    loopStatisticFactory: () -> StateLoopTracker<*, Statement, State>?,
+    stateLanguageKey: ((State) -> Any?)?,
 ): UPathSelector<State> {
     var ps = this
     if (options.exceptionsPropagation && ps !is ExceptionPropagationPathSelector<State>) {
         ps = ExceptionPropagationPathSelector(ps)
     }
+    val maxStatesWithModels = options.maxStatesWithModels
+    if (maxStatesWithModels != null && ps !is ModelRetentionPathSelector<State>) {
+        ps = ModelRetentionPathSelector(ps, maxStatesWithModels)
+    }
+    // Wrapped by the loop selectors, since they allow removing only the peeked states
+    val heapUsageThreshold = options.heapUsageThreshold
+    if (heapUsageThreshold != null && ps !is HeapPressurePathSelector<State>) {
+        ps = HeapPressurePathSelector(ps, heapUsageThreshold)
+    }
     if (options.loopIterativeDeepening && ps !is IterativeDeepeningPs<*, *, *, State>) {
         ps = createIterativeDeepeningPathSelector(ps, options, loopStatisticFactory)
     }
     if (!options.loopIterativeDeepening && options.loopIterationLimit != null && ps !is LoopLimiterPs<*, *, *, State>) {
         ps = createLoopLimiterPathSelector(ps, options, loopStatisticFactory)
     }
+    // Wraps the loop selectors, since it removes only the updated states and never passes the dropped ones
+    if (options.deduplicateStates && ps !is DeduplicatingPathSelector<State>) {
+        val languageKey = requireNotNull(stateLanguageKey) {
+            "State language key is required for deduplicating path selector"
+        }
+        ps = DeduplicatingPathSelector(ps, languageKey)
+    }
     return ps
 }
 
@@ -68,12 +68,38 @@ import java.util.concurrent.ConcurrentHashMap
  * Translates custom [UExpr] to a [KExpr]. Region readings are translated via [URegionTranslator]s.
  * Base version cache everything, but doesn't track translated expressions like register readings, mock symbols, etc.
  *
+ * Translated memory updates are cached by region translators in [UTranslationCache]s made by [translationCaches].
+ * The expression cache of the translator itself is reset when the [translationCaches] start a new generation,
+ * so it doesn't retain the expressions of the states which are no longer alive. It is safe, since the translation
+ * is deterministic, e.g., type constraints are translated to the same constants again.
+ *
  * To show semantics of the translator, we use [KExpr] as return values, though [UExpr] is a typealias for it.
  */
 open class UExprTranslator<Type, USizeSort : USort>(
     override val ctx: UContext<USizeSort>,
+    val translationCaches: UTranslationCacheManager = UTranslationCacheManager(),
 ) : UExprTransformer<Type, USizeSort>(ctx) {
-    open fun <Sort : USort> translate(expr: UExpr<Sort>): KExpr<Sort> = apply(expr)
+    // The expression cache may be reset only when no translation is in progress
+    private var expressionCacheResetRequested = false
+    private var translationDepth = 0
+
+    init {
+        translationCaches.addGenerationListener { expressionCacheResetRequested = true }
+    }
+
+    open fun <Sort : USort> translate(expr: UExpr<Sort>): KExpr<Sort> {
+        if (translationDepth == 0 && expressionCacheResetRequested) {
+            expressionCacheResetRequested = false
+            resetCache()
+        }
+
+        translationDepth++
+        try {
+            return apply(expr)
+        } finally {
+            translationDepth--
+        }
+    }
 
     override fun <Sort : USort> transform(expr: URegisterReading<Sort>): KExpr<Sort> {
         val registerConst = expr.sort.mkConst("r${expr.idx}_${expr.sort}")
@@ -103,22 +129,29 @@ open class UExprTranslator<Type, USizeSort : USort>(
     private val _declToIsExpr = mutableMapOf<KDecl<UBoolSort>, UIsExpr<Type>>()
     val declToIsExpr: Map<KDecl<UBoolSort>, UIsExpr<Type>> get() = _declToIsExpr
 
+    // Keeps the translation of type constraints the same after the expression cache is reset
+    private val isExprToConst = hashMapOf<UIsExpr<Type>, KExpr<KBoolSort>>()
+
     override fun transform(expr: UIsSubtypeExpr<Type>): KExpr<KBoolSort> {
         require(expr.ref is USymbolicHeapRef) { "Unexpected ref: ${expr.ref}" }
 
-        val const = expr.sort.mkConst("isSubtype#${_declToIsExpr.size}")
-        // we need to track declarations to pass them to the type solver in the DPLL(T) procedure
-        _declToIsExpr[const.decl] = expr
-        return const
+        return isExprToConst.getOrPut(expr) {
+            val const = expr.sort.mkConst("isSubtype#${_declToIsExpr.size}")
+            // we need to track declarations to pass them to the type solver in the DPLL(T) procedure
+            _declToIsExpr[const.decl] = expr
+            const
+        }
     }
 
     override fun transform(expr: UIsSupertypeExpr<Type>): KExpr<KBoolSort> {
         require(expr.ref is USymbolicHeapRef) { "Unexpected ref: ${expr.ref}" }
 
-        val const = expr.sort.mkConst("isSupertype#${_declToIsExpr.size}")
-        // we need to track declarations to pass them to the type solver in the DPLL(T) procedure
-        _declToIsExpr[const.decl] = expr
-        return const
+        return isExprToConst.getOrPut(expr) {
+            val const = expr.sort.mkConst("isSupertype#${_declToIsExpr.size}")
+            // we need to track declarations to pass them to the type solver in the DPLL(T) procedure
+            _declToIsExpr[const.decl] = expr
+            const
+        }
     }
 
     override fun transform(expr: UInputArrayLengthReading<Type, USizeSort>): KExpr<USizeSort> =
@@ -1,18 +1,25 @@
 package org.usvm.solver
 
+import io.ksmt.expr.KExpr
 import io.ksmt.solver.KSolver
 import io.ksmt.solver.KSolverStatus
 import io.ksmt.utils.asExpr
 import org.usvm.UBoolExpr
 import org.usvm.UConcreteHeapRef
 import org.usvm.UContext
+import org.usvm.URegisterReading
+import org.usvm.USort
+import org.usvm.collections.immutable.internal.MutabilityOwnership
 import org.usvm.constraints.UPathConstraints
 import org.usvm.isFalse
 import org.usvm.isTrue
+import org.usvm.memory.UReadOnlyRegistersStack
 import org.usvm.model.UModelBase
 import org.usvm.model.UModelDecoder
+import org.usvm.uctx
 import org.usvm.utils.ensureSat
 import kotlin.time.Duration
+import kotlin.time.TimeSource
 
 sealed interface USolverResult<out T>
 
@@ -32,14 +39,102 @@ open class USolverBase<Type>(
     protected val ctx: UContext<*>,
     protected val smtSolver: KSolver<*>,
     protected val typeSolver: UTypeSolver<Type>,
+    /**
+     * Models decoded by this solver translate expressions with the [translator] lazily, possibly in other threads
+     * when their states are stepped by other workers of a parallel machine. So it is only used under its monitor.
+     */
     protected val translator: UExprTranslator<Type, *>,
     protected val decoder: UModelDecoder<UModelBase<Type>>,
     // TODO this timeout must not exceed time budget for the MUT
-    private val timeout: Duration
+    private val timeout: Duration,
+    /**
+     * Whether translated path constraints are kept asserted in the [smtSolver] between queries.
+     * If so, every constraint is asserted only once, guarded by a tracking literal, and each query
+     * just enables the tracking literals of its constraints via assumptions.
+     */
+    private val incremental: Boolean = false,
+    /**
+     * An optional cache of [check] results. Queries with soft constraints are never cached.
+     */
+    private val queryCache: USolverQueryCache<Type>? = null,
+    /**
+     * Whether [checkSliced] sends to the SMT solver only the constraints which may depend on the new constraint.
+     */
+    private val constraintSlicing: Boolean = false,
+    /**
+     * An optional recorder of the queries passed to the [smtSolver], see [USolverQueryRecorder].
+     */
+    private val queryRecorder: USolverQueryRecorder? = null,
 ) : USolver<UPathConstraints<Type>, UModelBase<Type>>(), AutoCloseable {
 
-    override fun check(query: UPathConstraints<Type>): USolverResult<UModelBase<Type>> =
-        internalCheck(query, softConstraints = emptyList())
+    /**
+     * Translated constraints asserted in the [smtSolver] in the [incremental] mode, mapped to their tracking literals.
+     */
+    private val trackingLiterals = hashMapOf<UBoolExpr, UBoolExpr>()
+    private var trackingScopeOpened = false
+
+    override fun check(query: UPathConstraints<Type>): USolverResult<UModelBase<Type>> {
+        if (queryCache == null) {
+            return internalCheck(query, softConstraints = emptyList())
+        }
+
+        return queryCache.checkOrCompute(query) { internalCheck(query, softConstraints = emptyList()) }
+    }
+
+    private val slicer by lazy { UConstraintSlicer() }
+
+    /**
+     * Checks [query] obtained by adding [newConstraint] to satisfiable path constraints with [knownModels].
+     *
+     * With [constraintSlicing], only the constraints transitively sharing symbols with [newConstraint] are checked
+     * first. If they are unsatisfiable, so is the [query]. Otherwise, a model of the [query] is looked for by
+     * combining the model of the slice with registers from [knownModels]. If none of them satisfies the [query],
+     * the whole [query] is checked.
+     */
+    fun checkSliced(
+        query: UPathConstraints<Type>,
+        newConstraint: UBoolExpr,
+        knownModels: List<UModelBase<Type>>,
+    ): USolverResult<UModelBase<Type>> {
+        if (!constraintSlicing || query.isFalse) {
+            return check(query)
+        }
+
+        val constraints = query.constraintSequence().toList()
+        val slice = slicer.slice(constraints, newConstraint)
+        if (slice.isEmpty() || slice.size == constraints.size) {
+            return check(query)
+        }
+
+        val slicedQuery = UPathConstraints<Type>(ctx, MutabilityOwnership())
+        slice.forEach { slicedQuery += it }
+
+        val sliceModel = when (val sliceResult = check(slicedQuery)) {
+            is UUnsatResult -> return sliceResult
+            is UUnknownResult -> return check(query)
+            is USatResult -> sliceResult.model
+        }
+
+        val sliceRegisters = slice
+            .flatMapTo(hashSetOf()) { slicer.symbols(it) }
+            .filterIsInstance<URegisterReading<*>>()
+            .mapTo(hashSetOf()) { it.idx }
+        val candidates = sequenceOf(sliceModel) + knownModels.asSequence().map { knownModel ->
+            UModelBase(
+                ctx,
+                UCombinedRegistersStackModel(sliceModel.stack, knownModel.stack, sliceRegisters),
+                sliceModel.types,
+                sliceModel.mocker,
+                sliceModel.regions,
+                sliceModel.nullRef
+            )
+        }
+
+        val model = candidates.firstOrNull { candidate -> constraints.all { candidate.eval(it).isTrue } }
+            ?: return check(query)
+
+        return USatResult(model)
+    }
 
     fun checkWithSoftConstraints(
         pc: UPathConstraints<Type>,
@@ -54,94 +149,234 @@ open class USolverBase<Type>(
             return UUnsatResult()
         }
 
+        val assertions = synchronized(translator) { pc.constraints(translator).toList() }
+        if (queryRecorder == null) {
+            return checkAssertions(pc, assertions, softConstraints)
+        }
+
+        val start = TimeSource.Monotonic.markNow()
+        return checkAssertions(pc, assertions, softConstraints).also { result ->
+            queryRecorder.record(ctx, assertions, result, start.elapsedNow())
+        }
+    }
+
+    private fun checkAssertions(
+        pc: UPathConstraints<Type>,
+        assertions: List<UBoolExpr>,
+        softConstraints: Iterable<UBoolExpr>,
+    ): USolverResult<UModelBase<Type>> {
+        val assumptions = if (incremental) trackAssertions(assertions) else emptyList()
+
+        smtSolver.withAssertionsScope {
+            if (!incremental) {
+                smtSolver.assert(assertions)
+            }
+
+            val translatedSoftConstraints = synchronized(translator) {
+                softConstraints
+                    .asSequence()
+                    .map(translator::translate)
+                    .filterNot(UBoolExpr::isFalse)
+                    .toMutableList()
+            }
+
+            return solve(pc, assertions, assumptions, translatedSoftConstraints) { smtSolver.assert(it) }
+        }
+    }
+
+    /**
+     * Checks [queries] obtained by adding disjoint [newConstraints] to the same satisfiable [base] path constraints.
+     *
+     * The [base] is asserted in the [smtSolver] only once. Each query asserts only the constraints which are not in
+     * the [base], guarded by a fresh literal, and is checked under the assumption of this literal. A query satisfied
+     * by one of [knownModels] or by a model of a previous query is not sent to the [smtSolver] at all.
+     *
+     * In the [incremental] mode, or with a [queryCache], the queries are checked one by one via [checkSliced].
+     *
+     * @return the results for each query.
+     */
+    fun checkMulti(
+        base: UPathConstraints<Type>,
+        queries: List<UPathConstraints<Type>>,
+        newConstraints: List<UBoolExpr>,
+        knownModels: List<UModelBase<Type>>,
+    ): List<USolverResult<UModelBase<Type>>> {
+        require(queries.size == newConstraints.size) { "Each query must have its new constraint" }
+
+        if (incremental || queryCache != null || base.isFalse) {
+            return queries.mapIndexed { i, query -> checkSliced(query, newConstraints[i], knownModels) }
+        }
+
+        val baseAssertions = synchronized(translator) { base.constraints(translator).toList() }
+        val baseAssertionsSet = baseAssertions.toHashSet()
+        val models = knownModels.toMutableList()
+
         smtSolver.withAssertionsScope {
-            val assertions = pc.constraints(translator).toList()
-            smtSolver.assert(assertions)
-
-            val translatedSoftConstraints = softConstraints
-                .asSequence()
-                .map(translator::translate)
-                .filterNot(UBoolExpr::isFalse)
-                .toMutableList()
-
-            // DPLL(T)-like solve procedure
-            var iter = 0
-            @Suppress("KotlinConstantConditions")
-            do {
-                iter++
-
-                // first, get a model from the SMT solver
-                val kModel = when (internalCheckWithSoftConstraints(translatedSoftConstraints)) {
-                    KSolverStatus.SAT -> smtSolver.model().detach()
-                    KSolverStatus.UNSAT -> return UUnsatResult()
-                    KSolverStatus.UNKNOWN -> return UUnknownResult()
+            smtSolver.assert(baseAssertions)
+
+            return queries.mapIndexed<UPathConstraints<Type>, USolverResult<UModelBase<Type>>> { i, query ->
+                if (query.isFalse) {
+                    return@mapIndexed UUnsatResult()
                 }
 
-                // second, decode it unto uModel
-                val uModel = decoder.decode(kModel, assertions)
+                val knownModel = models.firstOrNull { model ->
+                    model.eval(newConstraints[i]).isTrue && query.constraintSequence().all { model.eval(it).isTrue }
+                }
+                if (knownModel != null) {
+                    return@mapIndexed USatResult(knownModel)
+                }
+
+                val assertions = synchronized(translator) { query.constraints(translator).toList() }
+                val literal = ctx.mkFreshConst("fork", ctx.boolSort)
+                val assertGuarded = { guarded: List<UBoolExpr> ->
+                    guarded.forEach { smtSolver.assert(ctx.mkImplies(literal, it)) }
+                }
+                assertGuarded(assertions.filterNot { it in baseAssertionsSet })
+
+                val start = TimeSource.Monotonic.markNow()
+                val result = solve(query, assertions, listOf(literal), mutableListOf(), assertGuarded)
+                queryRecorder?.record(ctx, assertions, result, start.elapsedNow())
+
+                if (result is USatResult) {
+                    models += result.model
+                }
+                result
+            }
+        }
+    }
+
+    /**
+     * DPLL(T)-like solve procedure: checks the constraints asserted in the [smtSolver] under the [assumptions],
+     * then checks the type constraints of [pc] with the [typeSolver], and repeats with the conflict lemmas
+     * asserted via [assertLemmas] until both agree.
+     */
+    private fun solve(
+        pc: UPathConstraints<Type>,
+        assertions: List<UBoolExpr>,
+        assumptions: List<UBoolExpr>,
+        softConstraints: MutableList<UBoolExpr>,
+        assertLemmas: (List<UBoolExpr>) -> Unit,
+    ): USolverResult<UModelBase<Type>> {
+        val profilingCounters = ctx.profilingCounters.current
+
+        var iter = 0
+        @Suppress("KotlinConstantConditions")
+        do {
+            iter++
+
+            // first, get a model from the SMT solver
+            val smtStart = System.nanoTime()
+            val status = internalCheckWithSoftConstraints(assumptions, softConstraints)
+            profilingCounters.solverNanos += System.nanoTime() - smtStart
+            profilingCounters.solverQueries++
 
-                // find interpretations of type constraints
+            val kModel = when (status) {
+                KSolverStatus.SAT -> smtSolver.model().detach()
+                KSolverStatus.UNSAT -> return UUnsatResult()
+                KSolverStatus.UNKNOWN -> return UUnknownResult()
+            }
+
+            // second, decode it unto uModel
+            val uModel = synchronized(translator) { decoder.decode(kModel, assertions) }
+
+            // find interpretations of type constraints
 
-                val isExprToInterpretation = kModel.declarations.mapNotNull { decl ->
+            val isExprToInterpretation = synchronized(translator) {
+                kModel.declarations.mapNotNull { decl ->
                     translator.declToIsExpr[decl]?.let { isSubtypeExpr ->
                         val expr = decl.apply(emptyList())
                         isSubtypeExpr to kModel.eval(expr, isComplete = true).asExpr(ctx.boolSort).isTrue
                     }
                 }
+            }
 
-                // third, build a type solver query
-                val typeSolverQuery = TypeSolverQuery(
-                    inputToConcrete = { uModel.eval(it) as UConcreteHeapRef },
-                    inputRefToTypeRegion = pc.typeConstraints.inputRefToTypeRegion,
-                    isExprToInterpretation = isExprToInterpretation,
-                )
+            // third, build a type solver query
+            val typeSolverQuery = TypeSolverQuery(
+                inputToConcrete = { uModel.eval(it) as UConcreteHeapRef },
+                inputRefToTypeRegion = pc.typeConstraints.inputRefToTypeRegion,
+                isExprToInterpretation = isExprToInterpretation,
+            )
 
-                // fourth, check it satisfies typeConstraints
-                when (val typeResult = typeSolver.check(typeSolverQuery)) {
-                    is USatResult -> return USatResult(
-                        UModelBase(
-                            ctx,
-                            uModel.stack,
-                            typeResult.model,
-                            uModel.mocker,
-                            uModel.regions,
-                            uModel.nullRef
-                        )
+            // fourth, check it satisfies typeConstraints
+            val typeSolverStart = System.nanoTime()
+            val typeResult = typeSolver.check(typeSolverQuery)
+            profilingCounters.typeSolverNanos += System.nanoTime() - typeSolverStart
+
+            when (typeResult) {
+                is USatResult -> return USatResult(
+                    UModelBase(
+                        ctx,
+                        uModel.stack,
+                        typeResult.model,
+                        uModel.mocker,
+                        uModel.regions,
+                        uModel.nullRef
                     )
+                )
 
-                    // in case of failure, assert reference disequality expressions
-                    is UTypeUnsatResult<Type> -> typeResult.conflictLemmas
-                        .map(translator::translate)
-                        .let { smtSolver.assert(it) }
+                // in case of failure, assert reference disequality expressions
+                is UTypeUnsatResult<Type> -> synchronized(translator) {
+                    typeResult.conflictLemmas.map(translator::translate)
+                }.let(assertLemmas)
 
-                    is UUnknownResult -> return UUnknownResult()
-                    is UUnsatResult -> return UUnsatResult()
-                }
-            } while (iter < ITERATIONS_THRESHOLD || ITERATIONS_THRESHOLD == INFINITE_ITERATIONS)
+                is UUnknownResult -> return UUnknownResult()
+                is UUnsatResult -> return UUnsatResult()
+            }
+        } while (iter < ITERATIONS_THRESHOLD || ITERATIONS_THRESHOLD == INFINITE_ITERATIONS)
 
-            return UUnsatResult()
-        }
+        return UUnsatResult()
     }
 
     private fun internalCheckWithSoftConstraints(
+        assumptions: List<UBoolExpr>,
         softConstraints: MutableList<UBoolExpr>,
     ): KSolverStatus {
         var status: KSolverStatus
         if (softConstraints.isNotEmpty()) {
-            status = smtSolver.checkWithAssumptions(softConstraints, timeout)
+            status = smtSolver.checkWithAssumptions(assumptions + softConstraints, timeout)
 
             while (status == KSolverStatus.UNSAT) {
                 val unsatCore = smtSolver.unsatCore().toHashSet()
-                if (unsatCore.isEmpty()) break
-                softConstraints.removeAll { it in unsatCore }
-                status = smtSolver.checkWithAssumptions(softConstraints, timeout)
+                // the core may consist of the tracking literals only, then the hard constraints are unsat
+                if (!softConstraints.removeAll { it in unsatCore }) break
+                status = smtSolver.checkWithAssumptions(assumptions + softConstraints, timeout)
             }
+        } else if (assumptions.isNotEmpty()) {
+            status = smtSolver.checkWithAssumptions(assumptions, timeout)
         } else {
             status = smtSolver.check(timeout)
         }
         return status
     }
 
+    /**
+     * Returns tracking literals for the translated [assertions], asserting `literal => assertion` in the outermost
+     * scope of the [smtSolver] for each assertion which has not been asserted yet.
+     *
+     * When the number of tracked assertions exceeds [TRACKED_CONSTRAINTS_THRESHOLD], the outermost scope is
+     * dropped, so the solver doesn't accumulate constraints of states which are long gone.
+     */
+    private fun trackAssertions(assertions: List<UBoolExpr>): List<UBoolExpr> {
+        if (trackingScopeOpened && trackingLiterals.size + assertions.size > TRACKED_CONSTRAINTS_THRESHOLD) {
+            smtSolver.pop()
+            trackingLiterals.clear()
+            trackingScopeOpened = false
+        }
+
+        if (!trackingScopeOpened) {
+            smtSolver.push()
+            trackingScopeOpened = true
+        }
+
+        return assertions.map { assertion ->
+            trackingLiterals.getOrPut(assertion) {
+                val literal = ctx.mkFreshConst("track", ctx.boolSort)
+                smtSolver.assert(ctx.mkImplies(literal, assertion))
+                literal
+            }
+        }
+    }
+
     private inline fun <T> KSolver<*>.withAssertionsScope(block: KSolver<*>.() -> T): T = try {
         push()
         block()
@@ -156,6 +391,24 @@ open class USolverBase<Type>(
         smtSolver.close()
     }
 
+    /**
+     * Reads registers used by a slice of constraints from the [sliceStack], and the others from the [restStack].
+     * Registers of the address sort are always read from the [sliceStack], since addresses of different models
+     * are not related.
+     */
+    private class UCombinedRegistersStackModel(
+        private val sliceStack: UReadOnlyRegistersStack,
+        private val restStack: UReadOnlyRegistersStack,
+        private val sliceRegisters: Set<Int>,
+    ) : UReadOnlyRegistersStack {
+        override fun <Sort : USort> readRegister(index: Int, sort: Sort): KExpr<Sort> =
+            if (index in sliceRegisters || sort == sort.uctx.addressSort) {
+                sliceStack.readRegister(index, sort)
+            } else {
+                restStack.readRegister(index, sort)
+            }
+    }
+
     companion object {
         // TODO: options
         /**
@@ -163,5 +416,10 @@ open class USolverBase<Type>(
          */
         val ITERATIONS_THRESHOLD = -1
         val INFINITE_ITERATIONS = -1
+
+        /**
+         * Maximum number of constraints kept asserted in the incremental mode.
+         */
+        const val TRACKED_CONSTRAINTS_THRESHOLD = 100_000
     }
 }
@@ -0,0 +1,107 @@
+package org.usvm.solver
+
+import io.ksmt.expr.KApp
+import io.ksmt.expr.KExpr
+import org.usvm.UBoolExpr
+import org.usvm.UCollectionReading
+import org.usvm.UConcreteHeapRef
+import org.usvm.UIsExpr
+import org.usvm.UMockSymbol
+import org.usvm.UNullRef
+import org.usvm.URegisterReading
+import org.usvm.algorithms.DisjointSets
+import org.usvm.collection.array.UInputArrayReading
+import org.usvm.collection.array.length.UInputArrayLengthReading
+import org.usvm.collection.field.UInputFieldReading
+import org.usvm.collection.map.length.UInputMapLengthReading
+import org.usvm.collection.map.primitive.UInputMapReading
+import org.usvm.collection.set.primitive.UInputSetReading
+
+/**
+ * Selects constraints which may depend on a given expression, in the style of KLEE's independence solver.
+ *
+ * Constraints are partitioned into groups connected by shared symbols: register readings, mock symbols and
+ * symbolic collections (all the readings of the same collection share a symbol). Addresses and keys of input
+ * readings are considered too, while other dependencies of readings (e.g., values written to collections) are
+ * ignored. Such an approximation is fine, since the slice is only a subset of constraints: its unsatisfiability
+ * implies the unsatisfiability of all the constraints, and its models are checked against all the constraints.
+ *
+ * Symbols of expressions are cached in a [UTranslationCache], so the symbols of constraints which are no longer
+ * queried (e.g., the ones of terminated states) are evicted.
+ *
+ * @param symbolsCacheCapacity the capacity of the generation of the symbols cache, see [UTranslationCacheManager].
+ */
+internal class UConstraintSlicer(symbolsCacheCapacity: Int = DEFAULT_SYMBOLS_CACHE_CAPACITY) {
+    internal val symbolsCaches = UTranslationCacheManager(symbolsCacheCapacity)
+    private val exprSymbols = symbolsCaches.mkCache<Set<Any>>()
+
+    /**
+     * Returns the constraints from [constraints] transitively sharing symbols with [expr].
+     */
+    fun slice(constraints: List<UBoolExpr>, expr: UBoolExpr): List<UBoolExpr> {
+        val seedSymbols = symbols(expr)
+        if (seedSymbols.isEmpty()) {
+            return emptyList()
+        }
+
+        val components = DisjointSets<Any>()
+        val constraintSymbols = constraints.map { constraint ->
+            val symbols = symbols(constraint)
+            val first = symbols.firstOrNull()
+            if (first != null) {
+                symbols.forEach { components.union(first, it) }
+            }
+            symbols
+        }
+
+        val seedComponents = seedSymbols.mapTo(hashSetOf()) { components.find(it) }
+        return constraints.filterIndexed { idx, _ ->
+            constraintSymbols[idx].any { components.find(it) in seedComponents }
+        }
+    }
+
+    /**
+     * Returns the symbols [expr] depends on.
+     */
+    fun symbols(expr: KExpr<*>): Set<Any> = exprSymbols.getOrPut(expr) {
+        val result = hashSetOf<Any>()
+        val visited = hashSetOf<KExpr<*>>()
+        val stack = ArrayDeque<KExpr<*>>()
+        stack.addLast(expr)
+
+        while (stack.isNotEmpty()) {
+            val current = stack.removeLast()
+            if (!visited.add(current)) {
+                continue
+            }
+
+            when (current) {
+                is URegisterReading<*>, is UMockSymbol<*> -> result += current
+                is UCollectionReading<*, *, *> -> {
+                    result += current.collection.collectionId
+                    readingKeys(current).forEach(stack::addLast)
+                }
+
+                is UIsExpr<*> -> stack.addLast(current.ref)
+                is UConcreteHeapRef, is UNullRef -> {}
+                is KApp<*, *> -> current.args.forEach(stack::addLast)
+            }
+        }
+
+        result
+    }
+
+    private fun readingKeys(reading: UCollectionReading<*, *, *>): List<KExpr<*>> = when (reading) {
+        is UInputFieldReading<*, *> -> listOf(reading.address)
+        is UInputArrayReading<*, *, *> -> listOf(reading.address, reading.index)
+        is UInputArrayLengthReading<*, *> -> listOf(reading.address)
+        is UInputMapReading<*, *, *, *> -> listOf(reading.address, reading.key)
+        is UInputMapLengthReading<*, *> -> listOf(reading.address)
+        is UInputSetReading<*, *, *> -> listOf(reading.address, reading.element)
+        else -> emptyList()
+    }
+
+    companion object {
+        const val DEFAULT_SYMBOLS_CACHE_CAPACITY = 100_000
+    }
+}
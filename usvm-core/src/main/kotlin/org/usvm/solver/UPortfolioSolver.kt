@@ -0,0 +1,337 @@
+package org.usvm.solver
+
+import io.ksmt.expr.KApp
+import io.ksmt.expr.KExpr
+import io.ksmt.solver.KModel
+import io.ksmt.solver.KSolver
+import io.ksmt.solver.KSolverConfiguration
+import io.ksmt.solver.KSolverStatus
+import io.ksmt.solver.KTheory
+import io.ksmt.sort.KArraySortBase
+import io.ksmt.sort.KBoolSort
+import io.ksmt.sort.KBvSort
+import io.ksmt.sort.KFpRoundingModeSort
+import io.ksmt.sort.KFpSort
+import java.util.EnumSet
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.time.Duration
+
+/**
+ * A solver running every check on several [backends] concurrently and taking the first SAT or UNSAT answer.
+ * The checks of the other backends are interrupted.
+ *
+ * All the assertions and scopes are mirrored to every backend. Each backend is driven by its own thread,
+ * so assertions are asynchronous and a check returns as soon as the fastest backend answers, while the others
+ * finish their interrupted checks in background.
+ *
+ * Checks are classified by the theories of the asserted expressions (see [theoriesOf]). Once a backend
+ * has been launched on enough checks of some theories and almost never won, it is launched on checks of these
+ * theories only occasionally (see [UPortfolioStatistics.shouldLaunch]).
+ *
+ * @param backends the named solvers to race, their names identify them in the [statistics].
+ * @param statistics the wins of backends, may be shared between portfolio solvers.
+ */
+class UPortfolioSolver(
+    backends: Map<String, KSolver<out KSolverConfiguration>>,
+    val statistics: UPortfolioStatistics = UPortfolioStatistics(),
+) : KSolver<KSolverConfiguration> {
+    init {
+        require(backends.isNotEmpty()) { "Portfolio must contain at least one solver" }
+    }
+
+    private val backends = backends.map { (name, solver) -> Backend(name, solver) }
+
+    // Theories of the assertions of every opened scope, the last one is the current scope
+    private val scopeTheories = mutableListOf(EnumSet.noneOf(KTheory::class.java))
+    private val exprTheories = hashMapOf<KExpr<*>, Set<KTheory>>()
+
+    private var winner: Backend? = null
+    private val races = AtomicLong()
+
+    private val interrupter: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { runnable ->
+        Thread(runnable, "portfolio-interrupter").apply { isDaemon = true }
+    }
+    private var lastReasonOfUnknown = "no checks were made"
+
+    @Suppress("UNCHECKED_CAST")
+    override fun configure(configurator: KSolverConfiguration.() -> Unit) {
+        backends.forEach { backend ->
+            backend.submit { (backend.solver as KSolver<KSolverConfiguration>).configure(configurator) }
+        }
+    }
+
+    override fun assert(expr: KExpr<KBoolSort>) {
+        scopeTheories.last() += theoriesOf(expr)
+        backends.forEach { backend -> backend.submit { backend.solver.assert(expr) } }
+    }
+
+    override fun assert(exprs: List<KExpr<KBoolSort>>) {
+        exprs.forEach { scopeTheories.last() += theoriesOf(it) }
+        backends.forEach { backend -> backend.submit { backend.solver.assert(exprs) } }
+    }
+
+    override fun assertAndTrack(expr: KExpr<KBoolSort>) {
+        scopeTheories.last() += theoriesOf(expr)
+        backends.forEach { backend -> backend.submit { backend.solver.assertAndTrack(expr) } }
+    }
+
+    override fun assertAndTrack(exprs: List<KExpr<KBoolSort>>) {
+        exprs.forEach { scopeTheories.last() += theoriesOf(it) }
+        backends.forEach { backend -> backend.submit { backend.solver.assertAndTrack(exprs) } }
+    }
+
+    override fun push() {
+        scopeTheories += EnumSet.copyOf(scopeTheories.last())
+        backends.forEach { backend -> backend.submit { backend.solver.push() } }
+    }
+
+    override fun pop(n: UInt) {
+        repeat(n.toInt()) { scopeTheories.removeAt(scopeTheories.lastIndex) }
+        backends.forEach { backend -> backend.submit { backend.solver.pop(n) } }
+    }
+
+    override fun check(timeout: Duration): KSolverStatus =
+        race(scopeTheories.last()) { solver.check(timeout) }
+
+    override fun checkWithAssumptions(assumptions: List<KExpr<KBoolSort>>, timeout: Duration): KSolverStatus {
+        val theories = EnumSet.copyOf(scopeTheories.last())
+        assumptions.forEach { theories += theoriesOf(it) }
+        return race(theories) { solver.checkWithAssumptions(assumptions, timeout) }
+    }
+
+    override fun model(): KModel = winnerOrThrow().await { solver.model().detach() }
+
+    override fun unsatCore(): List<KExpr<KBoolSort>> = winnerOrThrow().await { solver.unsatCore() }
+
+    override fun reasonOfUnknown(): String = lastReasonOfUnknown
+
+    override fun interrupt() {
+        backends.forEach { it.solver.interrupt() }
+    }
+
+    override fun close() {
+        backends.forEach { backend ->
+            backend.solver.interrupt()
+            backend.submit { backend.solver.close() }
+            backend.executor.shutdown()
+        }
+        backends.forEach { it.executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS) }
+        interrupter.shutdownNow()
+    }
+
+    private fun race(theories: Set<KTheory>, runCheck: Backend.() -> KSolverStatus): KSolverStatus {
+        winner = null
+        val race = races.incrementAndGet()
+
+        val launched = backends
+            .filter { it.failure == null && statistics.shouldLaunch(theories, it.name) }
+            .ifEmpty { backends.filter { it.failure == null } }
+        check(launched.isNotEmpty()) { "All the portfolio solvers failed" }
+
+        statistics.onLaunched(theories, launched.map { it.name })
+
+        val answers = LinkedBlockingQueue<Pair<Backend, KSolverStatus>>()
+        launched.forEach { backend ->
+            backend.submit(onFailure = { answers += backend to KSolverStatus.UNKNOWN }) {
+                // The race may be already won, if the backend was busy finishing an interrupted check
+                backend.checkingRace = race
+                val status = try {
+                    if (races.get() == race) backend.runCheck() else KSolverStatus.UNKNOWN
+                } finally {
+                    backend.checkingRace = NO_RACE
+                }
+                answers += backend to status
+            }
+        }
+
+        var reasonOfUnknown: String? = null
+        repeat(launched.size) {
+            val (backend, status) = answers.take()
+            if (status != KSolverStatus.UNKNOWN) {
+                races.incrementAndGet()
+                launched.filter { it !== backend }.forEach { interruptRace(it, race) }
+                statistics.onWon(theories, backend.name)
+                winner = backend
+                return status
+            }
+
+            if (reasonOfUnknown == null) {
+                reasonOfUnknown = backend.failure?.message ?: backend.await { solver.reasonOfUnknown() }
+            }
+        }
+
+        lastReasonOfUnknown = reasonOfUnknown ?: "unknown"
+        return KSolverStatus.UNKNOWN
+    }
+
+    /**
+     * Interrupts the check of the [race] by the [backend] until it finishes. A single interrupt may be lost,
+     * as the [backend] may have checked that the [race] is not won yet, but not started its solver.
+     */
+    private fun interruptRace(backend: Backend, race: Long) {
+        if (backend.checkingRace != race) {
+            return
+        }
+        backend.solver.interrupt()
+        interrupter.schedule({ interruptRace(backend, race) }, INTERRUPT_REPEAT_DELAY_MS, TimeUnit.MILLISECONDS)
+    }
+
+    private fun winnerOrThrow(): Backend =
+        winner ?: error("The last check of the portfolio solver was not SAT or UNSAT")
+
+    /**
+     * Returns the theories of [expr] relevant for the backend choice: bit-vectors, floating points and arrays.
+     */
+    private fun theoriesOf(expr: KExpr<*>): Set<KTheory> {
+        exprTheories[expr]?.let { return it }
+        if (exprTheories.size > THEORIES_CACHE_SIZE) {
+            exprTheories.clear()
+        }
+
+        val theories = EnumSet.noneOf(KTheory::class.java)
+        val visited = hashSetOf<KExpr<*>>()
+        val stack = ArrayDeque<KExpr<*>>()
+        stack.addLast(expr)
+
+        while (stack.isNotEmpty()) {
+            val current = stack.removeLast()
+            if (!visited.add(current)) {
+                continue
+            }
+
+            val cached = exprTheories[current]
+            if (cached != null) {
+                theories += cached
+                continue
+            }
+
+            when (current.sort) {
+                is KBvSort -> theories += KTheory.BV
+                is KFpSort, is KFpRoundingModeSort -> theories += KTheory.FP
+                is KArraySortBase<*> -> theories += KTheory.Array
+                else -> {}
+            }
+
+            if (current is KApp<*, *>) {
+                current.args.forEach(stack::addLast)
+            }
+        }
+
+        exprTheories[expr] = theories
+        return theories
+    }
+
+    private class Backend(
+        val name: String,
+        val solver: KSolver<out KSolverConfiguration>,
+    ) {
+        val executor: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
+            Thread(runnable, "portfolio-$name").apply { isDaemon = true }
+        }
+
+        /**
+         * The first exception thrown by the [solver]. A failed backend is never launched again.
+         */
+        @Volatile
+        var failure: Throwable? = null
+
+        /**
+         * The race being checked by the [solver] or [NO_RACE].
+         */
+        @Volatile
+        var checkingRace: Long = NO_RACE
+
+        fun submit(onFailure: () -> Unit = {}, action: () -> Unit): Future<*> = executor.submit(Runnable {
+            if (failure != null) {
+                onFailure()
+                return@Runnable
+            }
+
+            try {
+                action()
+            } catch (e: Throwable) {
+                failure = e
+                onFailure()
+            }
+        })
+
+        fun <T> await(action: Backend.() -> T): T = executor.submit(Callable { action() }).get()
+    }
+
+    companion object {
+        private const val THEORIES_CACHE_SIZE = 100_000
+        private const val CLOSE_TIMEOUT_SECONDS = 10L
+        private const val INTERRUPT_REPEAT_DELAY_MS = 10L
+        private const val NO_RACE = 0L
+    }
+}
+
+/**
+ * Launch and win counters of [UPortfolioSolver] backends grouped by the theories of checks.
+ *
+ * @param warmUpLaunches the number of launches on checks of the same theories before a backend may be skipped.
+ * @param minWinRate the win rate below which a warmed up backend is skipped.
+ * @param explorationPeriod every [explorationPeriod]-th check of the same theories launches all the backends,
+ * so that a skipped backend can prove itself again.
+ */
+class UPortfolioStatistics(
+    private val warmUpLaunches: Long = DEFAULT_WARM_UP_LAUNCHES,
+    private val minWinRate: Double = DEFAULT_MIN_WIN_RATE,
+    private val explorationPeriod: Long = DEFAULT_EXPLORATION_PERIOD,
+) {
+    private class Counters {
+        val launches = AtomicLong()
+        val wins = AtomicLong()
+    }
+
+    private val checks = ConcurrentHashMap<Set<KTheory>, AtomicLong>()
+    private val counters = ConcurrentHashMap<Set<KTheory>, ConcurrentHashMap<String, Counters>>()
+
+    fun launches(theories: Set<KTheory>, backend: String): Long = counters(theories, backend).launches.get()
+
+    fun wins(theories: Set<KTheory>, backend: String): Long = counters(theories, backend).wins.get()
+
+    fun shouldLaunch(theories: Set<KTheory>, backend: String): Boolean {
+        val checksCount = checks[theories]?.get() ?: return true
+        if (checksCount % explorationPeriod == 0L) {
+            return true
+        }
+
+        val counters = counters(theories, backend)
+        val launches = counters.launches.get()
+        return launches < warmUpLaunches || counters.wins.get() >= minWinRate * launches
+    }
+
+    internal fun onLaunched(theories: Set<KTheory>, backends: List<String>) {
+        checks.computeIfAbsent(theories) { AtomicLong() }.incrementAndGet()
+        backends.forEach { counters(theories, it).launches.incrementAndGet() }
+    }
+
+    internal fun onWon(theories: Set<KTheory>, backend: String) {
+        counters(theories, backend).wins.incrementAndGet()
+    }
+
+    private fun counters(theories: Set<KTheory>, backend: String): Counters =
+        counters.computeIfAbsent(theories) { ConcurrentHashMap() }.computeIfAbsent(backend) { Counters() }
+
+    override fun toString(): String = counters.entries.joinToString(separator = "\n") { (theories, backends) ->
+        val wins = backends.entries.joinToString { (name, counters) ->
+            "$name: ${counters.wins}/${counters.launches}"
+        }
+        "${theories.ifEmpty { "core" }}: $wins"
+    }
+
+    companion object {
+        const val DEFAULT_WARM_UP_LAUNCHES = 32L
+        const val DEFAULT_MIN_WIN_RATE = 0.05
+        const val DEFAULT_EXPLORATION_PERIOD = 64L
+    }
+}
@@ -59,13 +59,15 @@ import org.usvm.mkSizeExpr
 import org.usvm.mkSizeLeExpr
 import org.usvm.regions.Region
 import org.usvm.uctx
+import java.util.concurrent.ConcurrentHashMap
 
 open class USoftConstraintsProvider<Type, USizeSort : USort>(
     override val ctx: UContext<USizeSort>
 ) : UTransformer<Type, USizeSort> {
     // We have a list here since sometimes we want to add several soft constraints
-    // to make it possible to drop only a part of them, not the whole soft constraint
-    protected val caches = hashMapOf<UExpr<*>, Set<UBoolExpr>>()
+    // to make it possible to drop only a part of them, not the whole soft constraint.
+    // The provider is shared by the workers of a parallel machine, so the caches are concurrent
+    protected val caches = ConcurrentHashMap<UExpr<*>, Set<UBoolExpr>>()
     private val sortPreferredValuesProvider = SortPreferredValuesProvider()
 
     fun makeSoftConstraints(pathConstraints: UPathConstraints<Type>): Set<UBoolExpr> {
@@ -262,7 +264,7 @@ open class USoftConstraintsProvider<Type, USizeSort : USort>(
 }
 
 private class SortPreferredValuesProvider : KSortVisitor<(KExpr<*>) -> KExpr<KBoolSort>> {
-    private val caches: MutableMap<USort, (KExpr<*>) -> KExpr<KBoolSort>> = mutableMapOf()
+    private val caches: MutableMap<USort, (KExpr<*>) -> KExpr<KBoolSort>> = ConcurrentHashMap()
 
     override fun <S : KBvSort> visit(sort: S): (KExpr<*>) -> KExpr<KBoolSort> = caches.getOrPut(sort) {
         with(sort.ctx) {
@@ -0,0 +1,177 @@
+package org.usvm.solver
+
+import org.usvm.UBoolExpr
+import org.usvm.constraints.UPathConstraints
+import org.usvm.isTrue
+import org.usvm.model.UModelBase
+import java.util.IdentityHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Cache of [USolverBase.check] results in the style of KLEE's counterexample cache.
+ *
+ * A query is normalized to the set of its hash-consed constraints (see [UPathConstraints.constraintSequence]),
+ * so the order in which constraints were added doesn't matter. Besides exact hits, the cache answers:
+ * - UNSAT, if some cached unsatisfiable query is a subset of the query;
+ * - SAT, if a model of some cached satisfiable query satisfies all the constraints of the query.
+ *
+ * At most [capacity] queries are kept, the least recently used ones are evicted first.
+ * Unsatisfiable queries are indexed by one of their constraints, so only the ones indexed by a constraint of
+ * the query are checked for being its subset, and only the models of the [modelsToTry] most recently cached
+ * satisfiable queries are evaluated. So a miss costs much less than a scan of the whole cache.
+ * The cache is not thread-safe, it is owned by a single solver.
+ *
+ * @param modelsToTry the maximum number of cached models evaluated on a query before giving up.
+ */
+class USolverQueryCache<Type>(
+    private val capacity: Int,
+    val statistics: USolverQueryCacheStatistics = USolverQueryCacheStatistics(),
+    private val modelsToTry: Int = DEFAULT_MODELS_TO_TRY,
+) {
+    init {
+        require(capacity > 0) { "Query cache capacity must be positive: $capacity" }
+    }
+
+    private val entries = object : LinkedHashMap<Set<UBoolExpr>, USolverResult<UModelBase<Type>>>(
+        /* initialCapacity = */ 16,
+        /* loadFactor = */ 0.75f,
+        /* accessOrder = */ true
+    ) {
+        override fun removeEldestEntry(
+            eldest: MutableMap.MutableEntry<Set<UBoolExpr>, USolverResult<UModelBase<Type>>>?,
+        ): Boolean {
+            if (size <= capacity) {
+                return false
+            }
+            if (eldest != null && eldest.value is UUnsatResult) {
+                unindexUnsat(eldest.key)
+            }
+            return true
+        }
+    }
+
+    /**
+     * Keys of unsatisfiable queries by the constraint they are indexed by.
+     */
+    private val unsatIndex = hashMapOf<UBoolExpr, MutableList<Set<UBoolExpr>>>()
+    private val unsatIndexConstraints = IdentityHashMap<Set<UBoolExpr>, UBoolExpr>()
+
+    /**
+     * The [modelsToTry] most recently cached satisfiable queries, the latest is the last.
+     */
+    private val recentSatResults = ArrayDeque<Pair<Set<UBoolExpr>, USatResult<UModelBase<Type>>>>()
+
+    /**
+     * Returns a cached result for the [query] if there is one, otherwise runs [check] and caches its result.
+     * [UUnknownResult]s are never cached.
+     */
+    fun checkOrCompute(
+        query: UPathConstraints<Type>,
+        check: () -> USolverResult<UModelBase<Type>>,
+    ): USolverResult<UModelBase<Type>> {
+        val key = query.constraintSequence().toHashSet()
+
+        entries[key]?.let {
+            statistics.exactHits.incrementAndGet()
+            return it
+        }
+
+        findSubsumingResult(key)?.let { return it }
+
+        statistics.misses.incrementAndGet()
+        val result = check()
+        when (result) {
+            is USatResult -> {
+                entries[key] = result
+                recentSatResults.addLast(key to result)
+                if (recentSatResults.size > modelsToTry) {
+                    recentSatResults.removeFirst()
+                }
+            }
+
+            is UUnsatResult -> {
+                entries[key] = result
+                indexUnsat(key)
+            }
+
+            is UUnknownResult -> {}
+        }
+        return result
+    }
+
+    private fun findSubsumingResult(key: Set<UBoolExpr>): USolverResult<UModelBase<Type>>? {
+        for (constraint in key) {
+            val candidates = unsatIndex[constraint] ?: continue
+            for (cachedKey in candidates) {
+                if (cachedKey.size <= key.size && key.containsAll(cachedKey)) {
+                    statistics.unsatSubsetHits.incrementAndGet()
+                    return entries.getValue(cachedKey)
+                }
+            }
+        }
+
+        for (i in recentSatResults.indices.reversed()) {
+            val (cachedKey, cachedResult) = recentSatResults[i]
+            val model = cachedResult.model
+            if (key.all { it in cachedKey || model.eval(it).isTrue }) {
+                statistics.modelHits.incrementAndGet()
+                return cachedResult
+            }
+        }
+
+        return null
+    }
+
+    /**
+     * Indexes the [key] by its constraint with the fewest indexed queries, so that the lists stay short
+     * even when most of the queries share a common prefix of constraints.
+     */
+    private fun indexUnsat(key: Set<UBoolExpr>) {
+        val indexConstraint = key.minByOrNull { unsatIndex[it]?.size ?: 0 } ?: return
+        unsatIndex.getOrPut(indexConstraint) { mutableListOf() }.add(key)
+        unsatIndexConstraints[key] = indexConstraint
+    }
+
+    private fun unindexUnsat(key: Set<UBoolExpr>) {
+        val indexConstraint = unsatIndexConstraints.remove(key) ?: return
+        val indexed = unsatIndex[indexConstraint] ?: return
+        indexed.removeIf { it === key }
+        if (indexed.isEmpty()) {
+            unsatIndex.remove(indexConstraint)
+        }
+    }
+
+    companion object {
+        const val DEFAULT_MODELS_TO_TRY = 16
+    }
+}
+
+/**
+ * Hit and miss counters of [USolverQueryCache]s. May be shared between caches of different solvers.
+ */
+class USolverQueryCacheStatistics {
+    /**
+     * Number of queries found in the cache as is.
+     */
+    val exactHits = AtomicLong()
+
+    /**
+     * Number of queries answered UNSAT, because they contain a cached unsatisfiable query.
+     */
+    val unsatSubsetHits = AtomicLong()
+
+    /**
+     * Number of queries answered SAT with a cached model.
+     */
+    val modelHits = AtomicLong()
+
+    /**
+     * Number of queries passed to the solver.
+     */
+    val misses = AtomicLong()
+
+    val hits: Long get() = exactHits.get() + unsatSubsetHits.get() + modelHits.get()
+
+    override fun toString(): String =
+        "hits: $hits (exact: $exactHits, unsat subset: $unsatSubsetHits, model: $modelHits), misses: $misses"
+}
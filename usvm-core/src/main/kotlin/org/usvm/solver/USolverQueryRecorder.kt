@@ -0,0 +1,124 @@
+package org.usvm.solver
+
+import io.ksmt.KContext
+import io.ksmt.decl.KDecl
+import io.ksmt.expr.KConst
+import io.ksmt.expr.KExpr
+import io.ksmt.expr.KUninterpretedSortValue
+import io.ksmt.expr.transformer.KNonRecursiveTransformer
+import io.ksmt.solver.KSolverStatus
+import io.ksmt.sort.KArraySortBase
+import io.ksmt.sort.KSort
+import io.ksmt.sort.KUninterpretedSort
+import io.ksmt.utils.uncheckedCast
+import org.usvm.UBoolExpr
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.io.path.bufferedWriter
+import kotlin.time.Duration
+
+/**
+ * Writes the queries checked by [USolverBase]s to the [directory], one SMT-LIB2 file per query, so that they can
+ * be replayed later with other solvers and timeouts (see [USolverQueryReplayer]).
+ *
+ * A query is the translated path constraints, so the type solver iterations and soft constraints are not
+ * recorded, though the recorded time includes them. Each file starts with comments holding the result
+ * of the query, the time it took and the statement it was made on (see [origin]).
+ *
+ * May be shared by the solvers of different threads.
+ */
+class USolverQueryRecorder(private val directory: Path) {
+    private val queriesCount = AtomicInteger()
+    private val currentOrigin = ThreadLocal<Any?>()
+
+    init {
+        Files.createDirectories(directory)
+    }
+
+    /**
+     * Number of queries recorded so far.
+     */
+    val recordedQueries: Int get() = queriesCount.get()
+
+    /**
+     * The statement the queries of the current thread are made on.
+     */
+    var origin: Any?
+        get() = currentOrigin.get()
+        set(value) = currentOrigin.set(value)
+
+    fun record(ctx: KContext, assertions: List<UBoolExpr>, result: USolverResult<*>, time: Duration) {
+        val status = when (result) {
+            is USatResult -> KSolverStatus.SAT
+            is UUnsatResult -> KSolverStatus.UNSAT
+            is UUnknownResult -> KSolverStatus.UNKNOWN
+        }
+        val query = SmtLibPrinter(ctx).print(assertions)
+        val originLine = origin.toString().lineSequence().joinToString(separator = " ")
+
+        val file = directory.resolve("query-%08d$QUERY_FILE_EXTENSION".format(queriesCount.getAndIncrement()))
+        file.bufferedWriter().use { writer ->
+            writer.appendLine("$STATUS_HEADER$status")
+            writer.appendLine("$TIME_HEADER${time.inWholeMicroseconds}")
+            writer.appendLine("$ORIGIN_HEADER$originLine")
+            writer.append(query)
+        }
+    }
+
+    /**
+     * Prints assertions as an SMT-LIB2 script. Constants are renamed, since their names made by the translator
+     * are not valid SMT-LIB2 symbols, and values of uninterpreted sorts are replaced with distinct constants.
+     */
+    private class SmtLibPrinter(ctx: KContext) : KNonRecursiveTransformer(ctx) {
+        private val constants = linkedMapOf<KDecl<*>, KExpr<*>>()
+        private val sortValues = linkedMapOf<KUninterpretedSortValue, KExpr<KUninterpretedSort>>()
+        private val uninterpretedSorts = linkedSetOf<KUninterpretedSort>()
+
+        fun print(assertions: List<UBoolExpr>): String {
+            val renamedAssertions = assertions.map { apply(it) }
+
+            return buildString {
+                uninterpretedSorts.forEach { appendLine("(declare-sort ${it.name} 0)") }
+                (constants.values + sortValues.values).forEach { appendLine("(declare-fun $it () ${it.sort})") }
+
+                sortValues.values.groupBy { it.sort }.values.filter { it.size > 1 }.forEach { values ->
+                    appendLine("(assert (distinct ${values.joinToString(separator = " ")}))")
+                }
+                renamedAssertions.forEach { appendLine("(assert $it)") }
+                appendLine("(check-sat)")
+            }
+        }
+
+        override fun <T : KSort> transform(expr: KConst<T>): KExpr<T> =
+            constants.getOrPut(expr.decl) {
+                collectUninterpretedSorts(expr.sort)
+                ctx.mkConst("c${constants.size}", expr.sort)
+            }.uncheckedCast()
+
+        override fun transform(expr: KUninterpretedSortValue): KExpr<KUninterpretedSort> =
+            sortValues.getOrPut(expr) {
+                uninterpretedSorts += expr.sort
+                ctx.mkConst("v${expr.valueIdx}_${expr.sort.name}", expr.sort)
+            }
+
+        private fun collectUninterpretedSorts(sort: KSort) {
+            when (sort) {
+                is KUninterpretedSort -> uninterpretedSorts += sort
+                is KArraySortBase<*> -> {
+                    sort.domainSorts.forEach(::collectUninterpretedSorts)
+                    collectUninterpretedSorts(sort.range)
+                }
+                else -> {}
+            }
+        }
+    }
+
+    companion object {
+        const val QUERY_FILE_EXTENSION = ".smt2"
+
+        internal const val STATUS_HEADER = "; status: "
+        internal const val TIME_HEADER = "; time-us: "
+        internal const val ORIGIN_HEADER = "; origin: "
+    }
+}
@@ -0,0 +1,84 @@
+package org.usvm.solver
+
+import io.ksmt.KContext
+import io.ksmt.solver.KSolver
+import io.ksmt.solver.KSolverStatus
+import io.ksmt.solver.z3.KZ3SMTLibParser
+import java.nio.file.Path
+import kotlin.io.path.listDirectoryEntries
+import kotlin.io.path.readText
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.microseconds
+import kotlin.time.TimeSource
+
+/**
+ * Re-runs the queries written by [USolverQueryRecorder] on the [solver] with the [timeout], e.g. to compare
+ * solvers and their configurations on the queries of real analyses.
+ *
+ * @param ctx the context of the [solver], the queries are parsed into.
+ */
+class USolverQueryReplayer(
+    private val ctx: KContext,
+    private val solver: KSolver<*>,
+    private val timeout: Duration,
+) {
+    private val parser = KZ3SMTLibParser(ctx)
+
+    fun replay(directory: Path): List<UReplayedQuery> = queryFiles(directory).map(::replayFile)
+
+    fun replayFile(file: Path): UReplayedQuery {
+        val text = file.readText()
+        val headers = text.lineSequence().takeWhile { it.startsWith(";") }.toList()
+        fun header(prefix: String): String? = headers.firstOrNull { it.startsWith(prefix) }?.removePrefix(prefix)
+
+        val assertions = parser.parse(text)
+
+        solver.push()
+        try {
+            solver.assert(assertions)
+
+            val start = TimeSource.Monotonic.markNow()
+            val status = solver.check(timeout)
+            val time = start.elapsedNow()
+
+            return UReplayedQuery(
+                file,
+                origin = header(USolverQueryRecorder.ORIGIN_HEADER),
+                recordedStatus = header(USolverQueryRecorder.STATUS_HEADER)?.let(KSolverStatus::valueOf),
+                recordedTime = header(USolverQueryRecorder.TIME_HEADER)?.toLongOrNull()?.microseconds,
+                status = status,
+                time = time,
+            )
+        } finally {
+            solver.pop()
+        }
+    }
+
+    companion object {
+        fun queryFiles(directory: Path): List<Path> =
+            directory.listDirectoryEntries("*${USolverQueryRecorder.QUERY_FILE_EXTENSION}").sorted()
+    }
+}
+
+/**
+ * A query recorded by [USolverQueryRecorder] and replayed by [USolverQueryReplayer].
+ * The recorded values are null if the query file misses them.
+ */
+data class UReplayedQuery(
+    val file: Path,
+    val origin: String?,
+    val recordedStatus: KSolverStatus?,
+    val recordedTime: Duration?,
+    val status: KSolverStatus,
+    val time: Duration,
+) {
+    /**
+     * Whether the replayed status is SAT or UNSAT, while the recorded one differs,
+     * e.g. the query was recorded as UNKNOWN.
+     */
+    val isStatusChanged: Boolean
+        get() = status != KSolverStatus.UNKNOWN && recordedStatus != null && status != recordedStatus
+
+    override fun toString(): String =
+        "${file.fileName}: $recordedStatus in $recordedTime -> $status in $time ($origin)"
+}
@@ -0,0 +1,177 @@
+package org.usvm.solver
+
+import org.usvm.memory.USymbolicCollectionUpdates
+import java.util.IdentityHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Identity lookup cache of translated memory updates, see [USymbolicCollectionUpdates.accept].
+ *
+ * Entries are split into two generations. New and looked up entries go to the current generation,
+ * when [manager] starts a new generation, the current one becomes the previous and the previous one is evicted.
+ * So an entry is evicted only if it isn't looked up during a whole generation, e.g., the updates of states
+ * which are no longer alive. Evicted entries are translated again on demand, as the translation is deterministic.
+ *
+ * The cache is not thread-safe, it is owned by a single translator.
+ */
+class UTranslationCache<Value : Any> internal constructor(
+    private val manager: UTranslationCacheManager,
+) : AbstractMutableMap<Any?, Value>() {
+    private var current = IdentityHashMap<Any?, Value>()
+    private var previous = IdentityHashMap<Any?, Value>()
+
+    override val size: Int get() = current.size + previous.size
+
+    override fun containsKey(key: Any?): Boolean = current.containsKey(key) || previous.containsKey(key)
+
+    override fun get(key: Any?): Value? {
+        current[key]?.let {
+            manager.statistics.hits.incrementAndGet()
+            return it
+        }
+
+        val value = previous.remove(key)
+        if (value == null) {
+            manager.statistics.misses.incrementAndGet()
+            return null
+        }
+
+        manager.statistics.hits.incrementAndGet()
+        current[key] = value
+        manager.onMovedToCurrentGeneration()
+        return value
+    }
+
+    override fun put(key: Any?, value: Value): Value? {
+        val previousValue = current.put(key, value) ?: previous.remove(key)?.also {
+            manager.onMovedToCurrentGeneration()
+        }
+        if (previousValue == null) {
+            manager.statistics.retainedEntries.incrementAndGet()
+            manager.onMovedToCurrentGeneration()
+        }
+        return previousValue
+    }
+
+    override fun remove(key: Any?): Value? {
+        val value = current.remove(key) ?: previous.remove(key)
+        if (value != null) {
+            manager.statistics.retainedEntries.decrementAndGet()
+        }
+        return value
+    }
+
+    override fun clear() {
+        manager.statistics.retainedEntries.addAndGet(-size.toLong())
+        current.clear()
+        previous.clear()
+    }
+
+    /**
+     * Entries of both generations. As iterating over the entries touches all of them,
+     * the previous generation is moved to the current one first.
+     */
+    override val entries: MutableSet<MutableMap.MutableEntry<Any?, Value>>
+        get() {
+            if (previous.isNotEmpty()) {
+                current.putAll(previous)
+                previous = IdentityHashMap()
+            }
+            return current.entries
+        }
+
+    internal fun startGeneration() {
+        manager.statistics.evictedEntries.addAndGet(previous.size.toLong())
+        manager.statistics.retainedEntries.addAndGet(-previous.size.toLong())
+        previous = current
+        current = IdentityHashMap()
+    }
+}
+
+/**
+ * Creates [UTranslationCache]s of a translator and bounds the number of entries they retain.
+ *
+ * A new generation of all the caches starts when [capacity] entries have been added to or looked up in
+ * the current generation, so the caches retain at most twice [capacity] entries.
+ *
+ * @param capacity the maximum number of entries in the current generation of all the caches.
+ * Zero means the caches are unbounded.
+ * @param statistics hit and eviction counters, may be shared between managers of different translators.
+ */
+class UTranslationCacheManager(
+    private val capacity: Int = 0,
+    val statistics: UTranslationCacheStatistics = UTranslationCacheStatistics(),
+) {
+    init {
+        require(capacity >= 0) { "Translation cache capacity must be non-negative: $capacity" }
+    }
+
+    private val caches = mutableListOf<UTranslationCache<*>>()
+    private val generationListeners = mutableListOf<() -> Unit>()
+    private var currentGenerationSize = 0
+
+    fun <Value : Any> mkCache(): UTranslationCache<Value> = UTranslationCache<Value>(this).also { caches += it }
+
+    /**
+     * Adds a [listener] called when a new generation starts, e.g., to evict other caches of the translator.
+     */
+    fun addGenerationListener(listener: () -> Unit) {
+        generationListeners += listener
+    }
+
+    /**
+     * Starts a new generation of all the caches. Entries not looked up since the previous call are evicted.
+     */
+    fun startGeneration() {
+        caches.forEach { it.startGeneration() }
+        generationListeners.forEach { it() }
+        currentGenerationSize = 0
+        statistics.generations.incrementAndGet()
+    }
+
+    internal fun onMovedToCurrentGeneration() {
+        if (capacity > 0 && ++currentGenerationSize >= capacity) {
+            startGeneration()
+        }
+    }
+}
+
+/**
+ * Counters of [UTranslationCache]s. May be shared between caches of different translators.
+ */
+class UTranslationCacheStatistics {
+    /**
+     * Number of lookups of already translated updates.
+     */
+    val hits = AtomicLong()
+
+    /**
+     * Number of lookups of updates not translated yet or evicted.
+     */
+    val misses = AtomicLong()
+
+    /**
+     * Number of entries currently kept by the caches.
+     */
+    val retainedEntries = AtomicLong()
+
+    /**
+     * Number of entries evicted from the caches.
+     */
+    val evictedEntries = AtomicLong()
+
+    /**
+     * Number of generations started by the caches.
+     */
+    val generations = AtomicLong()
+
+    val hitRate: Double
+        get() {
+            val lookups = hits.get() + misses.get()
+            return if (lookups == 0L) 0.0 else hits.get().toDouble() / lookups
+        }
+
+    override fun toString(): String =
+        "hits: $hits, misses: $misses (hit rate: ${"%.2f".format(hitRate)}), " +
+            "retained: $retainedEntries, evicted: $evictedEntries, generations: $generations"
+}
@@ -0,0 +1,85 @@
+package org.usvm.statistics
+
+import org.usvm.algorithms.bfsTraversal
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Assigns dense int ids to the methods of [applicationGraph] and to the statements of each method, so that
+ * statistics can keep their data in primitive arrays and bitsets instead of hash maps keyed by statements.
+ *
+ * Methods are indexed on the first request, ids never change. Operations are thread-safe.
+ */
+class ApplicationGraphIndex<Method, Statement>(
+    private val applicationGraph: ApplicationGraph<Method, Statement>,
+) {
+    private val methodIds = ConcurrentHashMap<Method, Int>()
+    private val methodIndices = ConcurrentHashMap<Method, MethodIndex<Statement>>()
+    private val methodsCount = AtomicInteger()
+
+    /**
+     * Number of methods with ids assigned so far.
+     */
+    val indexedMethods: Int get() = methodsCount.get()
+
+    /**
+     * Returns the dense id of the [method]. Unlike [methodIndex], doesn't index the statements of the [method].
+     */
+    fun methodId(method: Method): Int = methodIds.computeIfAbsent(method) { methodsCount.getAndIncrement() }
+
+    fun methodIndex(method: Method): MethodIndex<Statement> =
+        methodIndices.computeIfAbsent(method) { mkMethodIndex(it) }
+
+    private fun mkMethodIndex(method: Method): MethodIndex<Statement> {
+        val statements = LinkedHashSet<Statement>()
+        applicationGraph.statementsOf(method).forEach { statements += it }
+        // Statements reachable in CFG are indexed even if the graph doesn't list them
+        bfsTraversal(applicationGraph.entryPoints(method).toList(), applicationGraph::successors)
+            .forEach { statements += it }
+
+        val statementsList = statements.toList()
+        val statementIds = HashMap<Statement, Int>(statementsList.size * 2)
+        statementsList.forEachIndexed { id, statement -> statementIds[statement] = id }
+
+        val successors = Array(statementsList.size) { id ->
+            applicationGraph.successors(statementsList[id])
+                .mapNotNull { statementIds[it] }
+                .toList()
+                .toIntArray()
+        }
+        val exits = applicationGraph.exitPoints(method).mapNotNull { statementIds[it] }.toList().toIntArray()
+
+        return MethodIndex(methodId(method), statementsList, statementIds, successors, exits)
+    }
+
+    /**
+     * Dense ids of the statements of a method and its CFG in terms of these ids.
+     *
+     * @property id the dense id of the method.
+     * @property statements the statements of the method by their ids.
+     * @property exits the ids of the exit points of the method.
+     */
+    class MethodIndex<Statement> internal constructor(
+        val id: Int,
+        val statements: List<Statement>,
+        private val statementIds: Map<Statement, Int>,
+        private val successors: Array<IntArray>,
+        val exits: IntArray,
+    ) {
+        val size: Int get() = statements.size
+
+        /**
+         * Returns the id of the [statement] or [NO_ID] if it doesn't belong to the method.
+         */
+        fun statementId(statement: Statement): Int = statementIds[statement] ?: NO_ID
+
+        /**
+         * Returns the ids of the CFG successors of the statement with the [id].
+         */
+        fun successors(id: Int): IntArray = successors[id]
+    }
+
+    companion object {
+        const val NO_ID = -1
+    }
+}
@@ -1,5 +1,6 @@
 package org.usvm.statistics
 
+import org.usvm.PathNode
 import org.usvm.UState
 import org.usvm.algorithms.bfsTraversal
 import java.util.concurrent.ConcurrentHashMap
@@ -8,6 +9,10 @@ import java.util.concurrent.ConcurrentHashMap
  * [UMachineObserver] which tracks coverage of specified methods. Statements are
  * considered covered when state visited them is terminated.
  *
+ * Coverage is updated incrementally: a terminated state walks its path only up to the first node
+ * walked by a previously terminated state, so the cost of termination is proportional to the number
+ * of statements visited since the state diverged from the states terminated before.
+ *
  * Operations are thread-safe.
  *
  * @param methods methods to track coverage of.
@@ -24,6 +29,14 @@ class CoverageStatistics<Method, Statement, State : UState<*, Method, Statement,
     private val uncoveredStatements = HashMap<Method, MutableSet<Statement>>()
     private val coveredStatements = HashMap<Method, HashSet<Statement>>()
 
+    /**
+     * Marks the path nodes whose statements have been covered (see [PathNode.isProcessedBy]), so that
+     * a terminated state walks only the part of its path no terminated state has walked before.
+     * Each instance has its own marker, so statistics sharing a path tree don't reset the marks of each other.
+     * Replaced when the coverage zone grows, since the walked paths may contain statements of the new methods.
+     */
+    private var pathMarker = Any()
+
     private var totalUncoveredStatements = 0
     private var totalCoveredStatements = 0
 
@@ -54,6 +67,7 @@ class CoverageStatistics<Method, Statement, State : UState<*, Method, Statement,
         }
 
         uncoveredStatements[method] = methodStatements
+        pathMarker = Any()
         totalUncoveredStatements += methodStatements.size
         coveredStatements[method] = hashSetOf()
     }
@@ -123,18 +137,27 @@ class CoverageStatistics<Method, Statement, State : UState<*, Method, Statement,
     override fun onStateTerminated(state: State, stateReachable: Boolean) {
         if (!stateReachable) return
 
-        val statements = state.pathNode.allStatements
-        for (statement in statements) {
-            val method = applicationGraph.methodOf(statement)
+        val marker = pathMarker
+        var node = state.pathNode
+        // The root node has no statement
+        while (!node.isProcessedBy(marker)) {
+            val parent = node.parent ?: break
+            coverStatement(state, node.statement)
+            node.markProcessedBy(marker)
+            node = parent
+        }
+    }
 
-            if (uncoveredStatements[method]?.remove(statement) != true) {
-                continue
-            }
+    private fun coverStatement(state: State, statement: Statement) {
+        val method = applicationGraph.methodOf(statement)
 
-            totalUncoveredStatements--
-            totalCoveredStatements++
-            coveredStatements.getValue(method).add(statement)
-            onStatementCoveredObservers.forEach { it(state, method, statement) }
+        if (uncoveredStatements[method]?.remove(statement) != true) {
+            return
         }
+
+        totalUncoveredStatements--
+        totalCoveredStatements++
+        coveredStatements.getValue(method).add(statement)
+        onStatementCoveredObservers.forEach { it(state, method, statement) }
     }
 }
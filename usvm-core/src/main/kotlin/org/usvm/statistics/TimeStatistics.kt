@@ -9,7 +9,9 @@ import kotlin.time.Duration
  */
 class TimeStatistics<Method, State : UState<*, Method, *, *, *, State>> : UMachineObserver<State> {
     private val stopwatch = RealTimeStopwatch()
-    private val methodStopwatch = RealTimeStopwatch()
+    // Steps of a parallel machine are measured by their worker threads independently
+    private val methodStopwatches = ThreadLocal.withInitial { RealTimeStopwatch() }
+    private val methodStopwatch get() = methodStopwatches.get()
 
     private val methodTimes = mutableMapOf<Method, Duration>()
 
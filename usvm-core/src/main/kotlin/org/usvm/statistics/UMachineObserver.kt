@@ -2,6 +2,9 @@ package org.usvm.statistics
 
 /**
  * Symbolic machine events observer.
+ *
+ * The machine never notifies an observer concurrently, even if it steps states in several threads
+ * (see [org.usvm.UMachineOptions.workersCount]), though consecutive notifications may come from different threads.
  */
 interface UMachineObserver<State> {
 
@@ -17,6 +20,8 @@ interface UMachineObserver<State> {
 
     /**
      * Called when the execution of the state is terminated (by exception or return).
+     * Also called with [stateReachable] set to false for states killed by the machine, e.g., the ones whose step
+     * failed or which were forked without a solver check and turned out to be infeasible.
      */
     fun onStateTerminated(state: State, stateReachable: Boolean) { }
 
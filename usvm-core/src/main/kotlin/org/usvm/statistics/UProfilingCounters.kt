@@ -0,0 +1,44 @@
+package org.usvm.statistics
+
+/**
+ * Counters of the work done by the engine in the current thread, cheap enough to be always maintained.
+ * [UProfilingObserver] attributes their increments during a step to the stepped statement.
+ */
+class UProfilingCounters {
+    class Counters {
+        /**
+         * Number of SMT solver checks, a check relaxing soft constraints is counted once.
+         */
+        var solverQueries: Long = 0L
+            internal set
+
+        /**
+         * Time spent in the SMT solvers checks, in nanoseconds.
+         */
+        var solverNanos: Long = 0L
+            internal set
+
+        /**
+         * Time spent in the type solvers checks, in nanoseconds.
+         */
+        var typeSolverNanos: Long = 0L
+            internal set
+
+        /**
+         * Number of created states, that is, the initial states and clones.
+         */
+        var createdStates: Long = 0L
+            internal set
+    }
+
+    private val counters = ThreadLocal.withInitial { Counters() }
+
+    /**
+     * The counters of the current thread.
+     */
+    val current: Counters get() = counters.get()
+
+    internal fun onStateCreated() {
+        current.createdStates++
+    }
+}
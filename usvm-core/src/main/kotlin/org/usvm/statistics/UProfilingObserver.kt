@@ -0,0 +1,300 @@
+package org.usvm.statistics
+
+import org.usvm.UState
+import org.usvm.algorithms.TrieNode
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.io.path.writeText
+
+/**
+ * Low-overhead profiler attributing the wall time of steps, the SMT and type solvers time and queries
+ * (see [UProfilingCounters]), forks and created states to statements, methods and call stacks.
+ *
+ * Unlike [UDebugProfileObserver], it is cheap enough to be always on: a step costs a few hash map lookups
+ * per call stack frame. The time not spent in the solvers is spent on interpretation, e.g. memory reads.
+ *
+ * The profile can be exported as collapsed stacks for flame graphs ([collapsedStacks]) and as JSON ([toJson]).
+ * If [outputDirectory] is set, both are written there when the machine stops.
+ *
+ * Call stacks are kept in a trie, which is bounded not to grow with the number of explored paths: only the
+ * innermost [maxStackDepth] frames of a call stack are kept, and once the trie has [maxStackNodes] nodes, steps
+ * in new call stacks are attributed to their statements and methods only.
+ *
+ * @param printStatement the statement representation in the reports, must not contain line breaks.
+ * @param printMethod the method representation in the reports, must not contain line breaks.
+ */
+class UProfilingObserver<Method, Statement, State : UState<*, Method, Statement, *, *, State>>(
+    private val outputDirectory: Path? = null,
+    private val printStatement: (Statement) -> String = { it.toString() },
+    private val printMethod: (Method) -> String = { it.toString() },
+    private val print: (String) -> Unit = { },
+    private val maxStackDepth: Int = DEFAULT_MAX_STACK_DEPTH,
+    private val maxStackNodes: Int = DEFAULT_MAX_STACK_NODES,
+) : UMachineObserver<State> {
+    init {
+        require(maxStackDepth > 0) { "Profiled stack depth must be positive: $maxStackDepth" }
+    }
+
+    /**
+     * Counters of a statement, method or call stack, time is in nanoseconds.
+     */
+    class Profile {
+        var steps: Long = 0L
+            private set
+        var wallNanos: Long = 0L
+            private set
+        var solverQueries: Long = 0L
+            private set
+        var solverNanos: Long = 0L
+            private set
+        var typeSolverNanos: Long = 0L
+            private set
+        var forks: Long = 0L
+            private set
+        var createdStates: Long = 0L
+            private set
+
+        /**
+         * Time spent neither in the SMT solver nor in the type solver.
+         */
+        val interpretationNanos: Long get() = wallNanos - solverNanos - typeSolverNanos
+
+        internal fun add(step: StepStart, counters: UProfilingCounters.Counters, now: Long, forksCount: Int) {
+            steps++
+            wallNanos += now - step.startNanos
+            solverQueries += counters.solverQueries - step.solverQueries
+            solverNanos += counters.solverNanos - step.solverNanos
+            typeSolverNanos += counters.typeSolverNanos - step.typeSolverNanos
+            forks += forksCount
+            createdStates += counters.createdStates - step.createdStates
+        }
+
+        internal fun add(other: Profile) {
+            steps += other.steps
+            wallNanos += other.wallNanos
+            solverQueries += other.solverQueries
+            solverNanos += other.solverNanos
+            typeSolverNanos += other.typeSolverNanos
+            forks += other.forks
+            createdStates += other.createdStates
+        }
+
+        fun toJson(): String =
+            "\"steps\": $steps, \"wallNanos\": $wallNanos, \"solverQueries\": $solverQueries, " +
+                "\"solverNanos\": $solverNanos, \"typeSolverNanos\": $typeSolverNanos, " +
+                "\"interpretationNanos\": $interpretationNanos, \"forks\": $forks, \"createdStates\": $createdStates"
+    }
+
+    internal class StepStart {
+        var started = false
+        var startNanos = 0L
+        var solverQueries = 0L
+        var solverNanos = 0L
+        var typeSolverNanos = 0L
+        var createdStates = 0L
+        var statement: Any? = null
+        var method: Any? = null
+        var stack: TrieNode<Any?, Profile?>? = null
+    }
+
+    // Steps of a parallel machine are measured by their worker threads independently
+    private val stepStarts = ThreadLocal.withInitial { StepStart() }
+    private var counters: UProfilingCounters? = null
+
+    private val statementProfiles = hashMapOf<Statement, Profile>()
+    private val methodProfiles = hashMapOf<Method, Profile>()
+
+    // Inner nodes are methods of the call stack frames, leaves are statements
+    private val stacks = TrieNode.root<Any?, Profile?> { null }
+    private var stackNodes = 0
+
+    /**
+     * Profiles of the stepped statements.
+     */
+    val statements: Map<Statement, Profile> get() = statementProfiles
+
+    /**
+     * Profiles of the methods the stepped statements belong to.
+     */
+    val methods: Map<Method, Profile> get() = methodProfiles
+
+    /**
+     * The sum of all the statement profiles.
+     */
+    val total: Profile get() = Profile().apply { statementProfiles.values.forEach { add(it) } }
+
+    override fun onStatePeeked(state: State) {
+        val counters = counters ?: state.ctx.profilingCounters.also { counters = it }
+        val current = counters.current
+        val step = stepStarts.get()
+
+        step.started = true
+        step.statement = state.currentStatement
+        step.method = state.lastEnteredMethod
+        step.stack = stackOf(state)
+        step.solverQueries = current.solverQueries
+        step.solverNanos = current.solverNanos
+        step.typeSolverNanos = current.typeSolverNanos
+        step.createdStates = current.createdStates
+        step.startNanos = System.nanoTime()
+    }
+
+    override fun onState(parent: State, forks: Sequence<State>) {
+        val now = System.nanoTime()
+        val step = stepStarts.get()
+        if (!step.started) {
+            return
+        }
+        val current = counters?.current ?: return
+        val forksCount = forks.count()
+
+        @Suppress("UNCHECKED_CAST")
+        val statement = step.statement as Statement
+        @Suppress("UNCHECKED_CAST")
+        val method = step.method as Method
+
+        statementProfiles.getOrPut(statement) { Profile() }.add(step, current, now, forksCount)
+        methodProfiles.getOrPut(method) { Profile() }.add(step, current, now, forksCount)
+        step.stack?.value?.add(step, current, now, forksCount)
+        step.stack = null
+        step.started = false
+    }
+
+    /**
+     * Returns the trie node of the [state] call stack and statement, or null if there is no such node
+     * and the trie is full.
+     */
+    private fun stackOf(state: State): TrieNode<Any?, Profile?>? {
+        val callStack = state.callStack
+        val firstFrame = (callStack.size - maxStackDepth).coerceAtLeast(0)
+
+        var stack = stacks
+        if (firstFrame > 0) {
+            stack = addStackNode(stack, TruncatedFrames) { null } ?: return null
+        }
+        for (idx in firstFrame until callStack.size) {
+            stack = addStackNode(stack, callStack[idx].method) { null } ?: return null
+        }
+        return addStackNode(stack, state.currentStatement) { Profile() }
+    }
+
+    private fun addStackNode(
+        node: TrieNode<Any?, Profile?>,
+        edge: Any?,
+        defaultValue: () -> Profile?,
+    ): TrieNode<Any?, Profile?>? {
+        node.children[edge]?.let { return it }
+        if (stackNodes >= maxStackNodes) {
+            return null
+        }
+        stackNodes++
+        return node.add(edge, defaultValue)
+    }
+
+    override fun onMachineStopped() {
+        val profile = total
+        print(
+            "Profile: ${profile.steps} steps in ${profile.wallNanos / NANOS_IN_MILLI} ms, " +
+                "SMT solver ${profile.solverNanos / NANOS_IN_MILLI} ms (${profile.solverQueries} queries), " +
+                "type solver ${profile.typeSolverNanos / NANOS_IN_MILLI} ms, " +
+                "interpretation ${profile.interpretationNanos / NANOS_IN_MILLI} ms, " +
+                "${profile.forks} forks, ${profile.createdStates} states"
+        )
+
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory)
+            val stacks = collapsedStacks { it.wallNanos / NANOS_IN_MICRO }
+            outputDirectory.resolve(COLLAPSED_STACKS_FILE).writeText(stacks)
+            outputDirectory.resolve(JSON_FILE).writeText(toJson())
+        }
+    }
+
+    /**
+     * Returns the profile of call stacks in the collapsed stacks format of flame graph tools:
+     * a line per call stack and statement, with frames separated by `;` and followed by the [weight].
+     *
+     * @param weight the weight of a statement in a call stack, e.g. wall time in microseconds or solver queries.
+     */
+    fun collapsedStacks(weight: (Profile) -> Long): String = buildString {
+        fun visit(node: TrieNode<Any?, Profile?>, frames: List<String>) {
+            for ((edge, child) in node.children) {
+                val profile = child.value
+                if (profile == null) {
+                    @Suppress("UNCHECKED_CAST")
+                    val frame = when {
+                        edge === TruncatedFrames -> TRUNCATED_FRAMES
+                        else -> printMethod(edge as Method).toFrame()
+                    }
+                    visit(child, frames + frame)
+                    continue
+                }
+
+                val value = weight(profile)
+                if (value > 0) {
+                    @Suppress("UNCHECKED_CAST")
+                    val statement = printStatement(edge as Statement).toFrame()
+                    (frames + statement).joinTo(this, separator = ";")
+                    append(' ')
+                    appendLine(value)
+                }
+            }
+        }
+
+        visit(stacks, emptyList())
+    }
+
+    /**
+     * Returns the profiles of methods and statements as JSON, each sorted by wall time descending.
+     */
+    fun toJson(): String = buildString {
+        appendLine("{")
+        appendLine("  \"total\": {${total.toJson()}},")
+
+        appendLine("  \"methods\": [")
+        methodProfiles.entries.sortedByDescending { it.value.wallNanos }.joinTo(this, separator = ",\n") {
+            "    {\"method\": ${printMethod(it.key).toJsonString()}, ${it.value.toJson()}}"
+        }
+        appendLine()
+        appendLine("  ],")
+
+        appendLine("  \"statements\": [")
+        statementProfiles.entries.sortedByDescending { it.value.wallNanos }.joinTo(this, separator = ",\n") {
+            "    {\"statement\": ${printStatement(it.key).toJsonString()}, ${it.value.toJson()}}"
+        }
+        appendLine()
+        appendLine("  ]")
+        appendLine("}")
+    }
+
+    private fun String.toFrame(): String = replace(';', ',').replace('\n', ' ')
+
+    private fun String.toJsonString(): String = buildString {
+        append('"')
+        for (char in this@toJsonString) {
+            when {
+                char == '"' -> append("\\\"")
+                char == '\\' -> append("\\\\")
+                char == '\n' -> append("\\n")
+                char < ' ' -> append("\\u%04x".format(char.code))
+                else -> append(char)
+            }
+        }
+        append('"')
+    }
+
+    // The edge standing for the outermost frames of call stacks deeper than maxStackDepth
+    private object TruncatedFrames
+
+    companion object {
+        const val COLLAPSED_STACKS_FILE = "profile.collapsed"
+        const val JSON_FILE = "profile.json"
+
+        const val DEFAULT_MAX_STACK_DEPTH = 64
+        const val DEFAULT_MAX_STACK_NODES = 100_000
+
+        private const val TRUNCATED_FRAMES = "..."
+
+        private const val NANOS_IN_MICRO = 1_000L
+        private const val NANOS_IN_MILLI = 1_000_000L
+    }
+}
@@ -0,0 +1,28 @@
+package org.usvm.statistics.constraints
+
+import org.usvm.solver.USolverQueryCache
+import org.usvm.solver.USolverQueryCacheStatistics
+import org.usvm.statistics.UMachineObserver
+
+/**
+ * [UMachineObserver] exposing hit and miss counters of [USolverQueryCache]s sharing the [statistics].
+ * Reports them using [print] when the machine stops.
+ */
+class SolverQueryCacheObserver<State>(
+    val statistics: USolverQueryCacheStatistics,
+    private val print: (String) -> Unit,
+) : UMachineObserver<State> {
+    /**
+     * Number of queries answered by the caches.
+     */
+    val hits: Long get() = statistics.hits
+
+    /**
+     * Number of queries passed to the solvers.
+     */
+    val misses: Long get() = statistics.misses.get()
+
+    override fun onMachineStopped() {
+        print("Solver query cache: $statistics")
+    }
+}
@@ -0,0 +1,23 @@
+package org.usvm.statistics.constraints
+
+import org.usvm.UState
+import org.usvm.solver.USolverQueryRecorder
+import org.usvm.statistics.UMachineObserver
+
+/**
+ * [UMachineObserver] marking the queries recorded by the [recorder] with the statements of peeked states.
+ * Reports the number of recorded queries using [print] when the machine stops.
+ */
+class SolverQueryRecorderObserver<State : UState<*, *, *, *, *, State>>(
+    private val recorder: USolverQueryRecorder,
+    private val print: (String) -> Unit,
+) : UMachineObserver<State> {
+    override fun onStatePeeked(state: State) {
+        // The peeked state is stepped by the current thread, so its queries are made in this thread
+        recorder.origin = state.currentStatement
+    }
+
+    override fun onMachineStopped() {
+        print("Solver queries recorded: ${recorder.recordedQueries}")
+    }
+}
@@ -0,0 +1,23 @@
+package org.usvm.statistics.constraints
+
+import org.usvm.solver.UTranslationCache
+import org.usvm.solver.UTranslationCacheStatistics
+import org.usvm.statistics.UMachineObserver
+
+/**
+ * [UMachineObserver] exposing hit rate and retained size of [UTranslationCache]s sharing the [statistics].
+ * Reports them using [print] when the machine stops.
+ */
+class TranslationCacheObserver<State>(
+    val statistics: UTranslationCacheStatistics,
+    private val print: (String) -> Unit,
+) : UMachineObserver<State> {
+    /**
+     * Number of entries currently kept by the caches.
+     */
+    val retainedEntries: Long get() = statistics.retainedEntries.get()
+
+    override fun onMachineStopped() {
+        print("Translation cache: $statistics")
+    }
+}
@@ -2,22 +2,28 @@ package org.usvm.statistics.distances
 
 import org.usvm.algorithms.limitedBfsTraversal
 import org.usvm.statistics.ApplicationGraph
+import org.usvm.statistics.ApplicationGraphIndex
+import java.util.BitSet
 import java.util.concurrent.ConcurrentHashMap
 
 /**
  * [CallGraphStatistics] common implementation with thread-safe results caching. As it is language-agnostic,
  * it uses only [applicationGraph] info and **doesn't** consider potential virtual calls.
  *
+ * Sets of reachable methods are kept as bitsets of the method ids of [index].
+ *
  * @param depthLimit depthLimit methods which are reachable via paths longer than this value are
  * not considered (i.e. 1 means that the target method should be directly called from source method).
  * @param applicationGraph [ApplicationGraph] used to get callees info.
+ * @param index the dense ids of methods of [applicationGraph], may be shared with other statistics.
  */
 class CallGraphStatisticsImpl<Method, Statement>(
     private val depthLimit: UInt,
-    private val applicationGraph: ApplicationGraph<Method, Statement>
+    private val applicationGraph: ApplicationGraph<Method, Statement>,
+    private val index: ApplicationGraphIndex<Method, Statement> = ApplicationGraphIndex(applicationGraph),
 ) : CallGraphStatistics<Method> {
 
-    private val cache = ConcurrentHashMap<Method, Set<Method>>()
+    private val cache = ConcurrentHashMap<Method, BitSet>()
 
     private fun getCallees(method: Method): Sequence<Method> =
         applicationGraph.statementsOf(method).flatMap(applicationGraph::callees)
@@ -25,6 +31,9 @@ class CallGraphStatisticsImpl<Method, Statement>(
     override fun checkReachability(methodFrom: Method, methodTo: Method): Boolean =
         cache.computeIfAbsent(methodFrom) {
             // TODO: stop traversal on reaching methodTo and cache remaining elements
-            limitedBfsTraversal(listOf(methodFrom), depthLimit, adjacentVertices = ::getCallees).toSet()
-        }.contains(methodTo)
+            val reachable = BitSet()
+            limitedBfsTraversal(listOf(methodFrom), depthLimit, adjacentVertices = ::getCallees)
+                .forEach { reachable.set(index.methodId(it)) }
+            reachable
+        }.get(index.methodId(methodTo))
 }
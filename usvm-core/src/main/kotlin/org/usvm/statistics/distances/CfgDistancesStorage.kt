@@ -0,0 +1,32 @@
+package org.usvm.statistics.distances
+
+/**
+ * Distances between the statements of a method computed by [CfgStatisticsImpl], indexed by the dense statement ids
+ * of [org.usvm.statistics.ApplicationGraphIndex]. Unreachable statements are at -1, i.e. [UInt.MAX_VALUE]
+ * stored in an int.
+ *
+ * @property rows the distances from each statement, null for the rows which have not been computed.
+ * @property distancesToExit the distances from each statement to the exit points of the method.
+ */
+class CfgDistances(
+    val rows: Array<IntArray?>,
+    val distancesToExit: IntArray,
+) {
+    val size: Int get() = distancesToExit.size
+}
+
+/**
+ * Storage of [CfgDistances] which keeps them between runs, so that they are not computed again
+ * for the methods which have not changed.
+ */
+interface CfgDistancesStorage<Method> {
+    /**
+     * Returns the distances stored for the [method], or null if there are none or the [method] has changed since.
+     */
+    fun load(method: Method): CfgDistances?
+
+    /**
+     * Stores the [distances] of methods, replacing the ones stored earlier.
+     */
+    fun store(distances: Map<Method, CfgDistances>)
+}
@@ -1,41 +1,204 @@
 package org.usvm.statistics.distances
 
-import org.usvm.algorithms.findMinDistancesInUnweightedGraph
+import org.usvm.algorithms.limitedBfsTraversal
 import org.usvm.statistics.ApplicationGraph
+import org.usvm.statistics.ApplicationGraphIndex
+import java.util.concurrent.Callable
 import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicReferenceArray
 
 /**
  * Common [CfgStatistics] implementation with thread-safe results caching.
  *
+ * Distances are kept in int arrays indexed by the dense statement ids of [index], a row of distances
+ * from a statement is computed on the first request.
+ *
  * @param applicationGraph [ApplicationGraph] instance to get CFG from.
+ * @param index the dense ids of methods and statements of [applicationGraph], may be shared with other statistics.
+ * @param storage an optional storage to load the distances computed in previous runs from, see [storeDistances].
  */
 class CfgStatisticsImpl<Method, Statement>(
     private val applicationGraph: ApplicationGraph<Method, Statement>,
+    private val index: ApplicationGraphIndex<Method, Statement> = ApplicationGraphIndex(applicationGraph),
+    private val storage: CfgDistancesStorage<Method>? = null,
 ) : CfgStatistics<Method, Statement> {
 
-    private val allToAllShortestDistanceCache = ConcurrentHashMap<Method, ConcurrentHashMap<Statement, Map<Statement, UInt>>>()
-    private val shortestDistanceToExitCache = ConcurrentHashMap<Method, ConcurrentHashMap<Statement, UInt>>()
+    private val methodDistances = ConcurrentHashMap<Method, MethodDistances<Statement>>()
+
+    private fun distances(method: Method): MethodDistances<Statement> =
+        methodDistances.computeIfAbsent(method) {
+            val methodIndex = index.methodIndex(it)
+            // The statements are indexed the same way while the method is unchanged
+            val stored = storage?.load(it)?.takeIf { distances -> distances.size == methodIndex.size }
+            MethodDistances(methodIndex, stored)
+        }
 
-    private fun getAllShortestCfgDistances(method: Method, stmtFrom: Statement): Map<Statement, UInt> {
-        val methodCache = allToAllShortestDistanceCache.computeIfAbsent(method) { ConcurrentHashMap() }
-        return methodCache.computeIfAbsent(stmtFrom) {
-            findMinDistancesInUnweightedGraph(stmtFrom, applicationGraph::successors, methodCache)
+    /**
+     * Puts the distances computed since they were loaded from the [storage] or stored last time into it.
+     */
+    fun storeDistances() {
+        val storage = storage ?: return
+        val modified = hashMapOf<Method, CfgDistances>()
+        for ((method, distances) in methodDistances) {
+            distances.modifiedSnapshot()?.let { modified[method] = it }
+        }
+        if (modified.isNotEmpty()) {
+            storage.store(modified)
         }
     }
 
+    /**
+     * Computes the distances between all the statements and to the exit points in the [methods] and the methods
+     * transitively called from them up to [callDepth] calls, on the [pool]. Returns when all the distances
+     * are computed. Methods with more than [maxMethodSize] statements are skipped, as their distances
+     * take quadratic memory, they are still computed on demand.
+     *
+     * @return the number of methods with precomputed distances.
+     */
+    fun precompute(
+        methods: Collection<Method>,
+        callDepth: UInt,
+        pool: ForkJoinPool = ForkJoinPool.commonPool(),
+        maxMethodSize: Int = PRECOMPUTED_METHOD_SIZE_LIMIT,
+    ): Int {
+        val methodsToPrecompute = limitedBfsTraversal(methods, callDepth) { method ->
+            applicationGraph.statementsOf(method).flatMap(applicationGraph::callees)
+        }.toList()
+
+        val tasks = methodsToPrecompute.map { method ->
+            Callable {
+                val distances = distances(method)
+                if (distances.methodIndex.size > maxMethodSize) {
+                    return@Callable false
+                }
+                distances.computeAll()
+                true
+            }
+        }
+
+        return pool.invokeAll(tasks).count { it.get() }
+    }
+
     override fun getShortestDistance(method: Method, stmtFrom: Statement, stmtTo: Statement): UInt {
-        return getAllShortestCfgDistances(method, stmtFrom)[stmtTo] ?: UInt.MAX_VALUE
+        val distances = distances(method)
+        val from = distances.methodIndex.statementId(stmtFrom)
+        val to = distances.methodIndex.statementId(stmtTo)
+        if (from == ApplicationGraphIndex.NO_ID || to == ApplicationGraphIndex.NO_ID) {
+            return UInt.MAX_VALUE
+        }
+
+        return distances.distancesFrom(from)[to].toUInt()
     }
 
     override fun getShortestDistanceToExit(method: Method, stmtFrom: Statement): UInt {
-        return shortestDistanceToExitCache
-            .computeIfAbsent(method) { ConcurrentHashMap() }
-            .computeIfAbsent(stmtFrom) {
-                val exitPoints = applicationGraph.exitPoints(method).toHashSet()
-                getAllShortestCfgDistances(method, stmtFrom)
-                    .filterKeys(exitPoints::contains)
-                    .minByOrNull { it.value }
-                    ?.value ?: UInt.MAX_VALUE
+        val distances = distances(method)
+        val from = distances.methodIndex.statementId(stmtFrom)
+        if (from == ApplicationGraphIndex.NO_ID) {
+            return UInt.MAX_VALUE
+        }
+
+        return distances.distancesToExit()[from].toUInt()
+    }
+
+    /**
+     * Distances between the statements of a method. Unreachable statements are at [UNREACHABLE] distance,
+     * which is [UInt.MAX_VALUE] stored in an int.
+     */
+    private class MethodDistances<Statement>(
+        val methodIndex: ApplicationGraphIndex.MethodIndex<Statement>,
+        stored: CfgDistances?,
+    ) {
+        private val rows = AtomicReferenceArray<IntArray?>(stored?.rows ?: arrayOfNulls(methodIndex.size))
+
+        @Volatile
+        private var exitDistances: IntArray? = stored?.distancesToExit
+
+        /**
+         * Whether any distances have been computed since they were loaded or the last [modifiedSnapshot].
+         */
+        @Volatile
+        private var isModified: Boolean = false
+
+        fun distancesToExit(): IntArray = exitDistances ?: computeDistancesToExit().also {
+            exitDistances = it
+            isModified = true
+        }
+
+        fun distancesFrom(from: Int): IntArray {
+            rows.get(from)?.let { return it }
+
+            // Rows computed concurrently are equal, so any of them may be kept
+            val row = bfs(intArrayOf(from), methodIndex::successors)
+            rows.compareAndSet(from, null, row)
+            isModified = true
+            return rows.get(from) ?: row
+        }
+
+        fun computeAll() {
+            for (from in 0 until methodIndex.size) {
+                distancesFrom(from)
+            }
+            distancesToExit()
+        }
+
+        /**
+         * Returns a snapshot of the distances if any of them have been computed since they were loaded
+         * or the last snapshot, null otherwise.
+         */
+        fun modifiedSnapshot(): CfgDistances? {
+            if (!isModified) {
+                return null
             }
+
+            val distancesToExit = distancesToExit()
+            // Reset before taking the rows, so that the rows computed concurrently are stored the next time
+            isModified = false
+            return CfgDistances(Array(methodIndex.size) { rows.get(it) }, distancesToExit)
+        }
+
+        private fun computeDistancesToExit(): IntArray {
+            val predecessors = Array(methodIndex.size) { mutableListOf<Int>() }
+            for (id in 0 until methodIndex.size) {
+                methodIndex.successors(id).forEach { predecessors[it] += id }
+            }
+            val predecessorIds = Array(methodIndex.size) { predecessors[it].toIntArray() }
+
+            return bfs(methodIndex.exits) { predecessorIds[it] }
+        }
+
+        private inline fun bfs(starts: IntArray, adjacent: (Int) -> IntArray): IntArray {
+            val distances = IntArray(methodIndex.size) { UNREACHABLE }
+            val queue = IntArray(methodIndex.size)
+            var head = 0
+            var tail = 0
+
+            for (start in starts) {
+                if (distances[start] == UNREACHABLE) {
+                    distances[start] = 0
+                    queue[tail++] = start
+                }
+            }
+
+            while (head < tail) {
+                val current = queue[head++]
+                val next = distances[current] + 1
+                for (vertex in adjacent(current)) {
+                    if (distances[vertex] == UNREACHABLE) {
+                        distances[vertex] = next
+                        queue[tail++] = vertex
+                    }
+                }
+            }
+
+            return distances
+        }
+    }
+
+    companion object {
+        // UInt.MAX_VALUE stored in an int
+        private const val UNREACHABLE = -1
+
+        const val PRECOMPUTED_METHOD_SIZE_LIMIT = 2048
     }
 }
@@ -2,6 +2,7 @@ package org.usvm.utils
 
 import org.usvm.StepScope
 import org.usvm.UBoolExpr
+import org.usvm.UContext
 import org.usvm.UState
 import org.usvm.isTrue
 import org.usvm.logger
@@ -13,8 +14,11 @@ import org.usvm.solver.UUnknownResult
 import org.usvm.solver.UUnsatResult
 
 /**
- * If this **terminated** [UState] is definitely sat (its [UState.models] are not empty), returns `true`.
+ * If this [UState] is definitely sat (its [UState.models] are not empty), returns `true`.
  * Otherwise, runs [verify] with this [UState], and returns whether the solver result is [USatResult].
+ *
+ * Used for terminated states and for states forked without a solver check before they are stepped
+ * (see [org.usvm.UMachineOptions.deferForkChecks]).
  */
 internal fun <Type> UState<Type, *, *, *, *, *>.isSat(): Boolean {
     if (models.isNotEmpty()) {
@@ -44,11 +48,11 @@ internal fun <Type, State : UState<Type, *, *, *, *, State>> State.checkSat(cond
 
     return when (solverResult) {
         is USatResult -> {
-            conditionalState.models += solverResult.model
+            conditionalState.models = ctx.retainModels(conditionalState.models + solverResult.model)
 
             // If state with the added condition is satisfiable, it means that the original state is satisfiable too,
             // and we can save a model from the solver
-            models += solverResult.model
+            models = ctx.retainModels(models + solverResult.model)
 
             conditionalState
         }
@@ -72,6 +76,12 @@ private fun <Type> UState<Type, *, *, *, *, *>.verify(): USolverResult<UModelBas
     return solverResult
 }
 
+/**
+ * Returns at most [UContext.maxModelsPerState] last [models].
+ */
+fun <Type> UContext<*>.retainModels(models: List<UModelBase<Type>>): List<UModelBase<Type>> =
+    if (models.size <= maxModelsPerState) models else models.takeLast(maxModelsPerState)
+
 @Suppress("MoveVariableDeclarationIntoWhen")
 fun <T : UState<Type, *, *, *, *, T>, Type> T.applySoftConstraints() {
     val softConstraints = ctx.softConstraintsProvider<Type>().makeSoftConstraints(pathConstraints)
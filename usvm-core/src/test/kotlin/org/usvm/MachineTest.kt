@@ -0,0 +1,64 @@
+package org.usvm
+
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.ps.BfsPathSelector
+import org.usvm.solver.USolverBase
+import org.usvm.solver.UUnsatResult
+import org.usvm.statistics.UMachineObserver
+import org.usvm.statistics.UProfilingCounters
+import kotlin.test.assertEquals
+
+class MachineTest {
+    private class TestMachine(override val options: UMachineOptions) : UMachine<TestState>() {
+        fun run(state: TestState, observer: UMachineObserver<TestState>) {
+            val pathSelector = BfsPathSelector<TestState>()
+            pathSelector.add(listOf(state))
+            // Infeasible states must not be stepped, so the interpreter throws on any step
+            run(mockk<UInterpreter<TestState>>(), pathSelector, observer, isStateTerminated = { false })
+        }
+
+        override fun close() {}
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = [1, 2])
+    fun testInfeasibleDeferredStateIsTerminated(workersCount: Int) {
+        val options = UMachineOptions(
+            deferForkChecks = true,
+            workersCount = workersCount,
+            throwExceptionOnStepFailure = true,
+        )
+        val state = infeasibleState()
+
+        val terminatedStates = mutableListOf<Pair<TestState, Boolean>>()
+        val observer = object : UMachineObserver<TestState> {
+            override fun onStateTerminated(state: TestState, stateReachable: Boolean) {
+                terminatedStates += state to stateReachable
+            }
+        }
+        TestMachine(options).use { it.run(state, observer) }
+
+        assertEquals(listOf(state to false), terminatedStates)
+    }
+
+    private fun infeasibleState(): TestState {
+        val solver = mockk<USolverBase<Any>>()
+        every { solver.check(any()) } returns UUnsatResult()
+
+        val ctx = mockk<UContext<*>>()
+        every { ctx.getNextStateId() } returns 0u
+        every { ctx.profilingCounters } returns UProfilingCounters()
+        every { ctx.solver<Any>() } returns solver
+        every { ctx.useThreadSolver() } just runs
+
+        return TestState(
+            ctx, MutabilityOwnership(), UCallStack("method"), mockk(), mockk(), models = emptyList(), mockk()
+        )
+    }
+}
@@ -0,0 +1,41 @@
+package org.usvm
+
+import org.junit.jupiter.api.Test
+import org.usvm.api.collections.SymbolicCollectionTestBase
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class StateForkerTest : SymbolicCollectionTestBase() {
+    @Test
+    fun testForkOfStateWithoutModels() = with(ctx) {
+        val x = mkRegisterReading(0, bv32Sort)
+        pathConstraints += mkBvSignedGreaterExpr(x, mkBv(0))
+        val state = StateStub(ctx, ownership, pathConstraints, memory)
+
+        val queriesBefore = profilingCounters.current.solverQueries
+        val (posState, negState) = WithSolverStateForker.fork(state, mkBvSignedGreaterExpr(x, mkBv(10)))
+
+        // The positive branch is checked first, and its model is used to check the negative one
+        assertSame(state, posState)
+        assertNotNull(negState)
+        assertTrue(state.models.isNotEmpty())
+        assertTrue(negState.models.isNotEmpty())
+        assertTrue(profilingCounters.current.solverQueries - queriesBefore <= 2)
+    }
+
+    @Test
+    fun testForkOfStateWithoutModelsToNegativeBranch() = with(ctx) {
+        val x = mkRegisterReading(0, bv32Sort)
+        pathConstraints += mkBvSignedGreaterExpr(x, mkBv(0))
+        val state = StateStub(ctx, ownership, pathConstraints, memory)
+
+        val queriesBefore = profilingCounters.current.solverQueries
+        val (posState, negState) = WithSolverStateForker.fork(state, mkBvSignedLessExpr(x, mkBv(0)))
+
+        assertNull(posState)
+        assertSame(state, negState)
+        assertTrue(profilingCounters.current.solverQueries - queriesBefore <= 1)
+    }
+}
@@ -9,6 +9,7 @@ import org.usvm.memory.UMemory
 import org.usvm.memory.USymbolicCollectionKeyInfo
 import org.usvm.model.UModelBase
 import org.usvm.regions.Region
+import org.usvm.statistics.UProfilingCounters
 import org.usvm.targets.UTarget
 import org.usvm.targets.UTargetsSet
 
@@ -73,6 +74,7 @@ interface TestKeyInfo<T, Reg : Region<Reg>> : USymbolicCollectionKeyInfo<T, Reg>
 internal fun mockState(id: StateId, startMethod: TestMethod, startInstruction: Int = 0, targets: List<TestTarget> = emptyList()): TestState {
     val ctxMock = mockk<UContext<*>>()
     every { ctxMock.getNextStateId() } returns id
+    every { ctxMock.profilingCounters } returns UProfilingCounters()
     val callStack = UCallStack<TestMethod, TestInstruction>(startMethod)
     val spyk = spyk(
         TestState(
@@ -11,6 +11,7 @@ import org.usvm.UContext
 import org.usvm.collections.immutable.internal.MutabilityOwnership
 import org.usvm.ps.ExecutionTreeTracker
 import org.usvm.statistics.ApplicationGraph
+import org.usvm.statistics.UProfilingCounters
 import org.usvm.statistics.distances.CfgStatisticsImpl
 import kotlin.test.Test
 import kotlin.test.assertEquals
@@ -164,6 +165,7 @@ class CloseStatesSearcherTest {
             val pathNode = statePath.fold(rootNode) { path, stmt -> path + TestInstruction("", stmt) }
             val ctxMock = mockk<UContext<*>>()
             every { ctxMock.getNextStateId() } returns 0u
+            every { ctxMock.profilingCounters } returns UProfilingCounters()
             val callStack = UCallStack<String, TestInstruction>("")
             val spyk = spyk(
                 TestState(ctxMock, MutabilityOwnership(), callStack, mockk(), mockk(), emptyList(), pathNode, mockk())
@@ -0,0 +1,134 @@
+package org.usvm.ps
+
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import org.usvm.PathNode
+import org.usvm.TestInstruction
+import org.usvm.TestState
+import org.usvm.UCallStack
+import org.usvm.UContext
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UPathConstraints
+import org.usvm.memory.UMemory
+import org.usvm.statistics.UProfilingCounters
+import org.usvm.targets.UTargetsSet
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+internal class DeduplicatingPathSelectorTests {
+    private val ctxMock = mockk<UContext<*>> {
+        every { getNextStateId() } returns 0u
+        every { profilingCounters } returns UProfilingCounters()
+    }
+    private val pathConstraints = mockk<UPathConstraints<Any>> {
+        every { constraintSequence() } returns emptySequence()
+    }
+    private val memory = mockk<UMemory<Any, String>> {
+        every { structuralSnapshot() } returns emptyList()
+    }
+    private val rootNode = PathNode.root<TestInstruction>()
+
+    private fun mkState(vararg path: Int, memory: UMemory<Any, String> = this.memory): TestState {
+        val pathNode = path.fold(rootNode) { node, stmt -> node + TestInstruction("", stmt) }
+        return TestState(
+            ctxMock,
+            MutabilityOwnership(),
+            UCallStack(""),
+            pathConstraints,
+            memory,
+            emptyList(),
+            pathNode,
+            UTargetsSet.empty(),
+        )
+    }
+
+    @Test
+    fun convergedStatesAreDroppedTest() {
+        val pathSelector = DeduplicatingPathSelector(BfsPathSelector<TestState>(), languageKey = { null })
+        val state = mkState(1, 2)
+        val convergedState = mkState(1, 2)
+        val otherState = mkState(1, 3)
+
+        pathSelector.add(listOf(state, convergedState, otherState))
+
+        assertEquals(1, pathSelector.droppedStates)
+        assertEquals(state, pathSelector.peek())
+        pathSelector.remove(state)
+        assertEquals(otherState, pathSelector.peek())
+        pathSelector.remove(otherState)
+        assertTrue(pathSelector.isEmpty())
+    }
+
+    @Test
+    fun updatedStateConvergedWithAnotherIsDroppedTest() {
+        val pathSelector = DeduplicatingPathSelector(BfsPathSelector<TestState>(), languageKey = { null })
+        val state = mkState(1, 2)
+        val otherState = mkState(1, 2, 3)
+
+        pathSelector.add(listOf(state, otherState))
+        val peeked = pathSelector.peek()
+        assertEquals(state, peeked)
+
+        // The peeked state reaches the statement of the other state
+        peeked.pathNode += TestInstruction("", 3)
+        pathSelector.update(peeked)
+
+        assertEquals(1, pathSelector.droppedStates)
+        assertEquals(otherState, pathSelector.peek())
+        pathSelector.remove(otherState)
+        assertTrue(pathSelector.isEmpty())
+    }
+
+    @Test
+    fun fingerprintsAreTakenForStatesWithEqualKeysOnlyTest() {
+        val pathSelector = DeduplicatingPathSelector(BfsPathSelector<TestState>(), languageKey = { null })
+        val state = mkState(1, 2)
+        val otherState = mkState(1, 3)
+
+        pathSelector.add(listOf(state, otherState))
+        verify(exactly = 0) { memory.structuralSnapshot() }
+
+        // Both the added state and the state with the same key are fingerprinted
+        val stateWithSameKey = mkState(2, 3)
+        pathSelector.add(listOf(stateWithSameKey))
+        verify(exactly = 2) { memory.structuralSnapshot() }
+        assertEquals(1, pathSelector.droppedStates)
+    }
+
+    @Test
+    fun stateLeftAloneWithItsKeyIsDeduplicatedTest() {
+        val pathSelector = DeduplicatingPathSelector(BfsPathSelector<TestState>(), languageKey = { null })
+        val otherMemory = mockk<UMemory<Any, String>> {
+            every { structuralSnapshot() } returns listOf(1)
+        }
+        val state = mkState(1, 2)
+        val otherState = mkState(3, 2, memory = otherMemory)
+
+        // The states have the same key, but different fingerprints
+        pathSelector.add(listOf(state, otherState))
+        assertEquals(0, pathSelector.droppedStates)
+        pathSelector.remove(pathSelector.peek())
+
+        pathSelector.add(listOf(mkState(4, 2, memory = otherMemory)))
+        assertEquals(1, pathSelector.droppedStates)
+        assertEquals(otherState, pathSelector.peek())
+        pathSelector.remove(otherState)
+        assertTrue(pathSelector.isEmpty())
+    }
+
+    @Test
+    fun removedStateIsForgottenTest() {
+        val pathSelector = DeduplicatingPathSelector(BfsPathSelector<TestState>(), languageKey = { null })
+        val state = mkState(1, 2)
+
+        pathSelector.add(listOf(state))
+        pathSelector.remove(pathSelector.peek())
+        pathSelector.add(listOf(mkState(1, 2)))
+
+        assertEquals(0, pathSelector.droppedStates)
+        assertFalse(pathSelector.isEmpty())
+    }
+}
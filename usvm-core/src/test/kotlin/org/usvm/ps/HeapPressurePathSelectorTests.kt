@@ -0,0 +1,79 @@
+package org.usvm.ps
+
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class HeapPressurePathSelectorTests {
+    @Test
+    fun leastRecentlyPeekedStatesAreDroppedTest() {
+        var heapUsage: Double? = null
+        val underlyingPs = BfsPathSelector<String>()
+        val pathSelector = HeapPressurePathSelector(
+            underlyingPs,
+            heapUsageThreshold = 0.9,
+            dropFraction = 0.5,
+            heapUsageAfterGc = { heapUsage.also { heapUsage = null } },
+        )
+
+        pathSelector.add(listOf("s1", "s2", "s3", "s4"))
+        assertEquals("s1", pathSelector.peek())
+        pathSelector.update("s1")
+
+        heapUsage = 0.95
+        pathSelector.add(listOf("s5", "s6"))
+
+        assertEquals(3, pathSelector.droppedStates)
+        val left = generateSequence { if (underlyingPs.isEmpty()) null else underlyingPs.peek().also(underlyingPs::remove) }
+        assertEquals(listOf("s1", "s5", "s6"), left.toList())
+    }
+
+    @Test
+    fun noStatesAreDroppedBelowThresholdTest() {
+        val underlyingPs = BfsPathSelector<String>()
+        val pathSelector = HeapPressurePathSelector(
+            underlyingPs,
+            heapUsageThreshold = 0.9,
+            heapUsageAfterGc = { 0.5 },
+        )
+
+        pathSelector.add(listOf("s1", "s2", "s3", "s4"))
+        repeat(10) { pathSelector.update(pathSelector.peek()) }
+        assertEquals(0, pathSelector.droppedStates)
+    }
+
+    @Test
+    fun lastPeekedStateIsNeverDroppedTest() {
+        var heapUsage: Double? = 0.5
+        val underlyingPs = BfsPathSelector<String>()
+        val pathSelector = HeapPressurePathSelector(
+            underlyingPs,
+            heapUsageThreshold = 0.9,
+            heapUsageAfterGc = { heapUsage },
+        )
+
+        pathSelector.add(listOf("s1", "s2", "s3", "s4"))
+        val peeked = pathSelector.peek()
+        heapUsage = 1.0
+        repeat(10) { pathSelector.update(peeked) }
+
+        // A quarter of four states is dropped once, then fewer than four states are left to drop a quarter of
+        assertEquals(1, pathSelector.droppedStates)
+        val left = generateSequence { if (underlyingPs.isEmpty()) null else underlyingPs.peek().also(underlyingPs::remove) }
+        assertTrue(peeked in left.toList())
+    }
+
+    @Test
+    fun nothingIsDroppedWhenFractionRoundsToZeroTest() {
+        val underlyingPs = BfsPathSelector<String>()
+        val pathSelector = HeapPressurePathSelector(
+            underlyingPs,
+            heapUsageThreshold = 0.9,
+            heapUsageAfterGc = { 1.0 },
+        )
+
+        pathSelector.add(listOf("s1", "s2", "s3"))
+        assertEquals(0, pathSelector.droppedStates)
+        assertEquals("s1", pathSelector.peek())
+    }
+}
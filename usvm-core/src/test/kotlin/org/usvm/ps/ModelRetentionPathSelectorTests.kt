@@ -0,0 +1,25 @@
+package org.usvm.ps
+
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import org.usvm.TestState
+
+internal class ModelRetentionPathSelectorTests {
+    @Test
+    fun leastRecentlyPeekedStatesDropModelsTest() {
+        val states = List(4) { mockk<TestState>(relaxed = true) }
+        val pathSelector = ModelRetentionPathSelector(BfsPathSelector(), maxStatesWithModels = 2)
+
+        pathSelector.add(states.take(2))
+        val peeked = pathSelector.peek()
+        pathSelector.update(peeked)
+        pathSelector.add(states.drop(2))
+
+        // Only the two states added last keep their models
+        verify(exactly = 1) { states[1].models = emptyList() }
+        verify(exactly = 1) { states[0].models = emptyList() }
+        verify(exactly = 0) { states[2].models = any() }
+        verify(exactly = 0) { states[3].models = any() }
+    }
+}
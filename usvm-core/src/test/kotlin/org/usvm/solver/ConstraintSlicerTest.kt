@@ -0,0 +1,71 @@
+package org.usvm.solver
+
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.usvm.UBv32SizeExprProvider
+import org.usvm.UComponents
+import org.usvm.UContext
+import org.usvm.USizeSort
+import org.usvm.types.single.SingleTypeSystem
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+private typealias Type = SingleTypeSystem.SingleType
+
+class ConstraintSlicerTest {
+    private lateinit var ctx: UContext<USizeSort>
+
+    @BeforeEach
+    fun initialize() {
+        val components: UComponents<Type, USizeSort> = mockk()
+        every { components.mkTypeSystem(any()) } returns SingleTypeSystem
+
+        ctx = UContext(components)
+        every { components.mkSizeExprProvider(any()) } answers { UBv32SizeExprProvider(ctx) }
+    }
+
+    @Test
+    fun testIndependentRegisters() = with(ctx) {
+        val registers = List(4) { mkRegisterReading(idx = it, bv32Sort) }
+        val fstConstraint = mkBvSignedLessExpr(registers[0], mkBv(10))
+        val sndConstraint = mkBvSignedLessExpr(registers[1], registers[2])
+        val thirdConstraint = mkBvSignedLessExpr(registers[3], mkBv(5))
+
+        val slice = UConstraintSlicer().slice(
+            listOf(fstConstraint, sndConstraint, thirdConstraint),
+            mkEq(registers[2], mkBv(0))
+        )
+
+        assertEquals(listOf(sndConstraint), slice)
+    }
+
+    @Test
+    fun testTransitiveDependencies() = with(ctx) {
+        val registers = List(4) { mkRegisterReading(idx = it, bv32Sort) }
+        val fstConstraint = mkBvSignedLessExpr(registers[0], registers[1])
+        val sndConstraint = mkBvSignedLessExpr(registers[1], registers[2])
+        val thirdConstraint = mkBvSignedLessExpr(registers[3], mkBv(5))
+
+        val slice = UConstraintSlicer().slice(
+            listOf(fstConstraint, sndConstraint, thirdConstraint),
+            mkEq(registers[0], mkBv(0))
+        )
+
+        assertEquals(listOf(fstConstraint, sndConstraint), slice)
+    }
+
+    @Test
+    fun testSymbolsCacheIsBounded() = with(ctx) {
+        val capacity = 4
+        val slicer = UConstraintSlicer(capacity)
+        val register = mkRegisterReading(idx = 0, bv32Sort)
+
+        repeat(10 * capacity) {
+            slicer.symbols(mkBvSignedLessExpr(register, mkBv(it)))
+            assertTrue(slicer.symbolsCaches.statistics.retainedEntries.get() <= 2 * capacity)
+        }
+        assertTrue(slicer.symbolsCaches.statistics.evictedEntries.get() > 0)
+    }
+}
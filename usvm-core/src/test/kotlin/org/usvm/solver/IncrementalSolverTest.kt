@@ -0,0 +1,89 @@
+package org.usvm.solver
+
+import io.ksmt.solver.z3.KZ3Solver
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.usvm.UBv32SizeExprProvider
+import org.usvm.UComponents
+import org.usvm.UContext
+import org.usvm.USizeSort
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UPathConstraints
+import org.usvm.isTrue
+import org.usvm.model.ULazyModelDecoder
+import org.usvm.types.single.SingleTypeSystem
+import org.usvm.utils.ensureSat
+import kotlin.test.assertIs
+import kotlin.test.assertTrue
+import kotlin.time.Duration.Companion.INFINITE
+
+private typealias Type = SingleTypeSystem.SingleType
+
+class IncrementalSolverTest {
+    private lateinit var ctx: UContext<USizeSort>
+    private lateinit var ownership: MutabilityOwnership
+    private lateinit var solver: USolverBase<Type>
+
+    @BeforeEach
+    fun initialize() {
+        val components: UComponents<Type, USizeSort> = mockk()
+        every { components.mkTypeSystem(any()) } returns SingleTypeSystem
+
+        ctx = UContext(components)
+        ownership = MutabilityOwnership()
+        every { components.mkSizeExprProvider(any()) } answers { UBv32SizeExprProvider(ctx) }
+
+        val translator = UExprTranslator<Type, USizeSort>(ctx)
+        val decoder = ULazyModelDecoder(translator)
+        val typeSolver = UTypeSolver(SingleTypeSystem)
+        solver = USolverBase(
+            ctx,
+            KZ3Solver(ctx),
+            typeSolver,
+            translator,
+            decoder,
+            timeout = INFINITE,
+            incremental = true,
+        )
+    }
+
+    @Test
+    fun testSiblingQueries() = with(ctx) {
+        val fstRegister = mkRegisterReading(idx = 0, bv32Sort)
+        val sndRegister = mkRegisterReading(idx = 1, bv32Sort)
+
+        val pc = UPathConstraints<Type>(ctx, ownership)
+        pc += mkBvSignedLessExpr(fstRegister, sndRegister)
+        solver.check(pc).ensureSat()
+
+        val positive = pc.clone()
+        positive += mkEq(fstRegister, mkBv(5))
+        val positiveModel = solver.check(positive).ensureSat().model
+        assertTrue(positiveModel.eval(mkEq(fstRegister, mkBv(5))).isTrue)
+
+        // the constraint of the sibling query must not leak into this one
+        val negative = pc.clone()
+        negative += mkEq(fstRegister, mkBv(7))
+        val negativeModel = solver.check(negative).ensureSat().model
+        assertTrue(negativeModel.eval(mkEq(fstRegister, mkBv(7))).isTrue)
+    }
+
+    @Test
+    fun testUnsatWithSoftConstraints() = with(ctx) {
+        val fstRegister = mkRegisterReading(idx = 0, bv32Sort)
+        val sndRegister = mkRegisterReading(idx = 1, bv32Sort)
+
+        val pc = UPathConstraints<Type>(ctx, ownership)
+        pc += mkBvSignedLessExpr(fstRegister, sndRegister)
+        pc += mkBvSignedLessExpr(sndRegister, fstRegister)
+
+        val softConstraints = listOf(mkEq(fstRegister, mkBv(0)))
+        assertIs<UUnsatResult<*>>(solver.checkWithSoftConstraints(pc, softConstraints))
+
+        val satPc = UPathConstraints<Type>(ctx, ownership)
+        satPc += mkBvSignedLessExpr(fstRegister, sndRegister)
+        solver.checkWithSoftConstraints(satPc, softConstraints).ensureSat()
+    }
+}
@@ -0,0 +1,91 @@
+package org.usvm.solver
+
+import io.ksmt.solver.z3.KZ3Solver
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.usvm.UBv32SizeExprProvider
+import org.usvm.UComponents
+import org.usvm.UContext
+import org.usvm.USizeSort
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UPathConstraints
+import org.usvm.isTrue
+import org.usvm.model.ULazyModelDecoder
+import org.usvm.types.single.SingleTypeSystem
+import org.usvm.utils.ensureSat
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+import kotlin.time.Duration.Companion.INFINITE
+
+private typealias Type = SingleTypeSystem.SingleType
+
+class MultiCheckSolverTest {
+    private lateinit var ctx: UContext<USizeSort>
+    private lateinit var ownership: MutabilityOwnership
+    private lateinit var solver: USolverBase<Type>
+
+    @BeforeEach
+    fun initialize() {
+        val components: UComponents<Type, USizeSort> = mockk()
+        every { components.mkTypeSystem(any()) } returns SingleTypeSystem
+
+        ctx = UContext(components)
+        ownership = MutabilityOwnership()
+        every { components.mkSizeExprProvider(any()) } answers { UBv32SizeExprProvider(ctx) }
+
+        val translator = UExprTranslator<Type, USizeSort>(ctx)
+        val decoder = ULazyModelDecoder(translator)
+        val typeSolver = UTypeSolver(SingleTypeSystem)
+        solver = USolverBase(ctx, KZ3Solver(ctx), typeSolver, translator, decoder, timeout = INFINITE)
+    }
+
+    @Test
+    fun testDisjointConditions() = with(ctx) {
+        val fstRegister = mkRegisterReading(idx = 0, bv32Sort)
+        val sndRegister = mkRegisterReading(idx = 1, bv32Sort)
+
+        val pc = UPathConstraints<Type>(ctx, ownership)
+        pc += mkBvSignedLessExpr(fstRegister, sndRegister)
+        solver.check(pc).ensureSat()
+
+        val conditions = listOf(
+            mkEq(fstRegister, mkBv(1)),
+            mkEq(fstRegister, mkBv(2)),
+            mkEq(sndRegister, mkBv(Int.MIN_VALUE)),
+        )
+        val queries = conditions.map { condition -> pc.clone().also { it += condition } }
+        val results = solver.checkMulti(pc, queries, conditions, knownModels = emptyList())
+
+        assertEquals(conditions.size, results.size)
+        assertTrue(results[0].ensureSat().model.eval(conditions[0]).isTrue)
+        assertTrue(results[1].ensureSat().model.eval(conditions[1]).isTrue)
+        assertIs<UUnsatResult<*>>(results[2])
+
+        // the constraints of the checked queries must not leak into the next ones
+        val next = pc.clone()
+        next += mkEq(fstRegister, mkBv(3))
+        solver.check(next).ensureSat()
+    }
+
+    @Test
+    fun testConditionSatisfiedByFoundModel() = with(ctx) {
+        val register = mkRegisterReading(idx = 0, bv32Sort)
+
+        val pc = UPathConstraints<Type>(ctx, ownership)
+        pc += mkBvSignedLessExpr(register, mkBv(10))
+
+        val conditions = listOf(
+            mkEq(register, mkBv(5)),
+            mkBvSignedGreaterExpr(register, mkBv(4)),
+        )
+        val queries = conditions.map { condition -> pc.clone().also { it += condition } }
+        val results = solver.checkMulti(pc, queries, conditions, knownModels = emptyList())
+
+        val model = results[0].ensureSat().model
+        assertSame(model, results[1].ensureSat().model)
+    }
+}
@@ -0,0 +1,117 @@
+package org.usvm.solver
+
+import io.ksmt.KContext
+import io.ksmt.solver.KSolver
+import io.ksmt.solver.KSolverConfiguration
+import io.ksmt.solver.KSolverStatus
+import io.ksmt.solver.KTheory
+import io.ksmt.solver.yices.KYicesSolver
+import io.ksmt.solver.z3.KZ3Solver
+import io.ksmt.utils.getValue
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+import kotlin.time.Duration.Companion.seconds
+
+class PortfolioSolverTest {
+    private val ctx = KContext()
+
+    @Test
+    fun testScopesAreMirrored() = with(ctx) {
+        UPortfolioSolver(mapOf("z3" to KZ3Solver(ctx), "yices" to KYicesSolver(ctx))).use { solver ->
+            val x by bv32Sort
+
+            solver.assert(mkBvSignedLessExpr(x, mkBv(10)))
+            solver.push()
+            solver.assert(mkBvSignedGreaterExpr(x, mkBv(20)))
+            assertEquals(KSolverStatus.UNSAT, solver.check(timeout = 1.seconds))
+
+            solver.pop()
+            solver.assert(mkEq(x, mkBv(5)))
+            assertEquals(KSolverStatus.SAT, solver.check(timeout = 1.seconds))
+            assertEquals(mkBv(5), solver.model().eval(x))
+        }
+    }
+
+    @Test
+    fun testUnsatCore() = with(ctx) {
+        UPortfolioSolver(mapOf("z3" to KZ3Solver(ctx), "yices" to KYicesSolver(ctx))).use { solver ->
+            val a by boolSort
+            val b by boolSort
+
+            solver.assert(mkOr(a, b))
+            val status = solver.checkWithAssumptions(listOf(mkNot(a), mkNot(b)), timeout = 1.seconds)
+
+            assertEquals(KSolverStatus.UNSAT, status)
+            assertEquals(setOf(mkNot(a), mkNot(b)), solver.unsatCore().toSet())
+        }
+    }
+
+    @Test
+    fun testStatistics() = with(ctx) {
+        val statistics = UPortfolioStatistics()
+        UPortfolioSolver(mapOf("z3" to KZ3Solver(ctx), "yices" to KYicesSolver(ctx)), statistics).use { solver ->
+            val x by bv32Sort
+            solver.assert(mkBvSignedLessExpr(x, mkBv(10)))
+            solver.check(timeout = 1.seconds)
+        }
+
+        val theories = setOf(KTheory.BV)
+        assertEquals(1, statistics.launches(theories, "z3"))
+        assertEquals(1, statistics.launches(theories, "yices"))
+        assertEquals(1, statistics.wins(theories, "z3") + statistics.wins(theories, "yices"))
+    }
+
+    @Test
+    fun testInterruptBeforeCheckStartIsNotLost() {
+        val fast = mockk<KSolver<KSolverConfiguration>>(relaxed = true)
+        every { fast.check(any()) } returns KSolverStatus.SAT
+
+        // Interrupts of the slow solver are ignored until its check starts, like the ones of a solver process
+        val slow = mockk<KSolver<KSolverConfiguration>>(relaxed = true)
+        val entered = AtomicBoolean()
+        val started = AtomicBoolean()
+        val interrupted = CountDownLatch(1)
+        val finished = CountDownLatch(1)
+        every { slow.check(any()) } answers {
+            entered.set(true)
+            Thread.sleep(100)
+            started.set(true)
+            interrupted.await(10, TimeUnit.SECONDS)
+            finished.countDown()
+            KSolverStatus.UNKNOWN
+        }
+        every { slow.interrupt() } answers {
+            if (started.get()) {
+                interrupted.countDown()
+            }
+        }
+
+        UPortfolioSolver(mapOf("fast" to fast, "slow" to slow)).use { solver ->
+            assertEquals(KSolverStatus.SAT, solver.check(timeout = 10.seconds))
+            // The slow check may be skipped, if it is launched after the race is won
+            assertTrue(finished.await(5, TimeUnit.SECONDS) || !entered.get())
+        }
+    }
+
+    @Test
+    fun testLosingBackendIsSkipped() {
+        val statistics = UPortfolioStatistics(warmUpLaunches = 2, minWinRate = 0.5, explorationPeriod = 100)
+        val theories = setOf(KTheory.BV)
+
+        repeat(2) {
+            statistics.onLaunched(theories, listOf("fast", "slow"))
+            statistics.onWon(theories, "fast")
+        }
+
+        assertTrue(statistics.shouldLaunch(theories, "fast"))
+        assertFalse(statistics.shouldLaunch(theories, "slow"))
+        assertTrue(statistics.shouldLaunch(setOf(KTheory.FP), "slow"))
+    }
+}
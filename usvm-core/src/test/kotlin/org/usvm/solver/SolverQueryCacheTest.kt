@@ -0,0 +1,109 @@
+package org.usvm.solver
+
+import io.ksmt.solver.z3.KZ3Solver
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.usvm.UBv32SizeExprProvider
+import org.usvm.UComponents
+import org.usvm.UComposer
+import org.usvm.UContext
+import org.usvm.USizeSort
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.constraints.UPathConstraints
+import org.usvm.memory.UReadOnlyMemory
+import org.usvm.model.ULazyModelDecoder
+import org.usvm.types.single.SingleTypeSystem
+import org.usvm.utils.ensureSat
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
+import kotlin.test.assertSame
+import kotlin.time.Duration.Companion.INFINITE
+
+private typealias Type = SingleTypeSystem.SingleType
+
+class SolverQueryCacheTest {
+    private lateinit var ctx: UContext<USizeSort>
+    private lateinit var ownership: MutabilityOwnership
+    private lateinit var cache: USolverQueryCache<Type>
+    private lateinit var solver: USolverBase<Type>
+
+    @BeforeEach
+    fun initialize() {
+        val components: UComponents<Type, USizeSort> = mockk()
+        every { components.mkTypeSystem(any()) } returns SingleTypeSystem
+
+        ctx = UContext(components)
+        ownership = MutabilityOwnership()
+        every { components.mkSizeExprProvider(any()) } answers { UBv32SizeExprProvider(ctx) }
+        every { components.mkComposer(any()) } answers { { memory: UReadOnlyMemory<Type>, ownership: MutabilityOwnership -> UComposer(ctx, memory, ownership) } }
+
+        val translator = UExprTranslator<Type, USizeSort>(ctx)
+        val decoder = ULazyModelDecoder(translator)
+        val typeSolver = UTypeSolver(SingleTypeSystem)
+        cache = USolverQueryCache(capacity = 16)
+        solver = USolverBase(
+            ctx,
+            KZ3Solver(ctx),
+            typeSolver,
+            translator,
+            decoder,
+            timeout = INFINITE,
+            queryCache = cache,
+        )
+    }
+
+    @Test
+    fun testExactHit() = with(ctx) {
+        val register = mkRegisterReading(idx = 0, bv32Sort)
+
+        val fstPc = UPathConstraints<Type>(ctx, ownership)
+        fstPc += mkBvSignedLessExpr(register, mkBv(10))
+        val fstResult = solver.check(fstPc).ensureSat()
+
+        val sndPc = UPathConstraints<Type>(ctx, MutabilityOwnership())
+        sndPc += mkBvSignedLessExpr(register, mkBv(10))
+        val sndResult = solver.check(sndPc).ensureSat()
+
+        assertSame(fstResult, sndResult)
+        assertEquals(1, cache.statistics.exactHits.get())
+        assertEquals(1, cache.statistics.misses.get())
+    }
+
+    @Test
+    fun testUnsatSubsetHit() = with(ctx) {
+        val fstRegister = mkRegisterReading(idx = 0, boolSort)
+        val sndRegister = mkRegisterReading(idx = 1, boolSort)
+        val thirdRegister = mkRegisterReading(idx = 2, bv32Sort)
+
+        val unsatPc = UPathConstraints<Type>(ctx, ownership)
+        unsatPc += mkOr(fstRegister, sndRegister)
+        unsatPc += mkNot(fstRegister)
+        unsatPc += mkNot(sndRegister)
+        assertIs<UUnsatResult<*>>(solver.check(unsatPc))
+
+        val pc = unsatPc.clone()
+        pc += mkBvSignedLessExpr(thirdRegister, mkBv(10))
+        assertIs<UUnsatResult<*>>(solver.check(pc))
+
+        assertEquals(1, cache.statistics.unsatSubsetHits.get())
+        assertEquals(1, cache.statistics.misses.get())
+    }
+
+    @Test
+    fun testModelHit() = with(ctx) {
+        val register = mkRegisterReading(idx = 0, bv32Sort)
+
+        val pc = UPathConstraints<Type>(ctx, ownership)
+        pc += mkEq(register, mkBv(5))
+        val result = solver.check(pc).ensureSat()
+
+        val weakerPc = UPathConstraints<Type>(ctx, MutabilityOwnership())
+        weakerPc += mkBvSignedLessExpr(register, mkBv(10))
+        assertSame(result, solver.check(weakerPc).ensureSat())
+
+        assertEquals(1, cache.statistics.modelHits.get())
+        assertEquals(1, cache.statistics.misses.get())
+    }
+}
@@ -0,0 +1,56 @@
+package org.usvm.solver
+
+import io.ksmt.KContext
+import io.ksmt.solver.KSolverStatus
+import io.ksmt.solver.z3.KZ3Solver
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+class SolverQueryRecorderTest {
+    private val ctx = KContext()
+
+    @Test
+    fun testRecordedQueriesAreReplayed(@TempDir directory: Path) = with(ctx) {
+        val recorder = USolverQueryRecorder(directory)
+        val addressSort = mkUninterpretedSort("Address")
+
+        // Names like the ones made by the translator, which are not valid SMT-LIB2 symbols
+        val register = mkConst("r0_(_ BitVec 32)", bv32Sort)
+        val ref = mkConst("r1_Address", addressSort)
+        val firstAddress = mkUninterpretedSortValue(addressSort, 1)
+        val secondAddress = mkUninterpretedSortValue(addressSort, 2)
+
+        recorder.origin = "first statement"
+        recorder.record(
+            ctx,
+            listOf(mkBvSignedLessExpr(register, mkBv(10)), mkEq(ref, firstAddress)),
+            USatResult(Unit),
+            5.milliseconds
+        )
+
+        recorder.origin = "second statement"
+        recorder.record(
+            ctx,
+            listOf(mkEq(ref, firstAddress), mkEq(ref, secondAddress)),
+            UUnsatResult<Unit>(),
+            7.milliseconds
+        )
+
+        assertEquals(2, recorder.recordedQueries)
+
+        val replayed = KZ3Solver(ctx).use { solver ->
+            USolverQueryReplayer(ctx, solver, 1.seconds).replay(directory)
+        }
+
+        assertEquals(listOf(KSolverStatus.SAT, KSolverStatus.UNSAT), replayed.map { it.status })
+        assertEquals(listOf(KSolverStatus.SAT, KSolverStatus.UNSAT), replayed.map { it.recordedStatus })
+        assertEquals(listOf(5.milliseconds, 7.milliseconds), replayed.map { it.recordedTime })
+        assertEquals(listOf("first statement", "second statement"), replayed.map { it.origin })
+        replayed.forEach { assertFalse(it.isStatusChanged) }
+    }
+}
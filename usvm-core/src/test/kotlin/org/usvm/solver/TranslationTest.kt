@@ -39,6 +39,7 @@ import org.usvm.memory.key.USizeExprKeyInfo
 import org.usvm.sizeSort
 import kotlin.test.assertEquals
 import kotlin.test.assertSame
+import kotlin.test.assertTrue
 
 class TranslationTest {
     private lateinit var ctx: RecordingCtx
@@ -479,4 +480,63 @@ class TranslationTest {
 
         assertEquals(4, ctx.storeCallCounter)
     }
+
+    @Test
+    fun testEvictionOfTranslatedMemoryUpdates() = with(ctx) {
+        val translationCaches = UTranslationCacheManager()
+        val translator = UExprTranslator<Type, USizeSort>(ctx, translationCaches)
+        val region = UAllocatedArrayId<_, _, USizeSort>(valueArrayDescr, sizeSort, 0)
+            .emptyRegion()
+            .write(mkRegisterReading(0, sizeSort), mkBv(0), trueExpr, ownership)
+            .write(mkRegisterReading(1, sizeSort), mkBv(1), trueExpr, ownership)
+
+        translator.translate(region.read(mkRegisterReading(2, sizeSort)))
+        assertEquals(2, ctx.storeCallCounter)
+
+        // Updates looked up in the previous generation are kept
+        translationCaches.startGeneration()
+        translator.translate(region.read(mkRegisterReading(3, sizeSort)))
+        assertEquals(2, ctx.storeCallCounter)
+
+        // Updates not looked up during a whole generation are evicted and translated again
+        translationCaches.startGeneration()
+        translationCaches.startGeneration()
+        assertEquals(0, translationCaches.statistics.retainedEntries.get())
+        translator.translate(region.read(mkRegisterReading(4, sizeSort)))
+        assertEquals(4, ctx.storeCallCounter)
+    }
+
+    @Test
+    fun testTranslationAfterExpressionCacheReset() = with(ctx) {
+        val translationCaches = UTranslationCacheManager()
+        val translator = UExprTranslator<Type, USizeSort>(ctx, translationCaches)
+        val region = UAllocatedArrayId<_, _, USizeSort>(valueArrayDescr, sizeSort, 0)
+            .emptyRegion()
+            .write(mkRegisterReading(0, sizeSort), mkBv(0), trueExpr, ownership)
+        val expr = mkEq(region.read(mkRegisterReading(1, sizeSort)), mkBv(0))
+
+        val translated = translator.translate(expr)
+        // The expression cache of the translator is reset on the next translation
+        translationCaches.startGeneration()
+        translationCaches.startGeneration()
+        assertSame(translated, translator.translate(expr))
+    }
+
+    @Test
+    fun testTranslationCacheCapacity() = with(ctx) {
+        val capacity = 2
+        val translationCaches = UTranslationCacheManager(capacity)
+        val translator = UExprTranslator<Type, USizeSort>(ctx, translationCaches)
+        var region = UAllocatedArrayId<_, _, USizeSort>(valueArrayDescr, sizeSort, 0).emptyRegion()
+
+        for (i in 0 until 10) {
+            region = region.write(mkRegisterReading(i, sizeSort), mkBv(i), trueExpr, ownership)
+            translator.translate(region.read(mkRegisterReading(100 + i, sizeSort)))
+
+            val retainedEntries = translationCaches.statistics.retainedEntries.get()
+            assertTrue(retainedEntries <= 2 * capacity, "Retained $retainedEntries entries")
+        }
+
+        assertTrue(translationCaches.statistics.evictedEntries.get() > 0)
+    }
 }
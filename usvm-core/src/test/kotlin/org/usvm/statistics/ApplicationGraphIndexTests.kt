@@ -0,0 +1,123 @@
+package org.usvm.statistics
+
+import org.junit.jupiter.api.Test
+import org.usvm.TestInstruction
+import org.usvm.appGraph
+import org.usvm.statistics.distances.CallGraphStatisticsImpl
+import org.usvm.statistics.distances.CfgStatisticsImpl
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotEquals
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class ApplicationGraphIndexTests {
+    private val graph = appGraph {
+        method("A", 4) {
+            entryPoint(0)
+            edge(0, 1)
+            edge(0, 2)
+            edge(1, 3)
+            edge(2, 3)
+            call(1, "B")
+            exitPoint(3)
+        }
+
+        method("B", 6) {
+            entryPoint(0)
+            edge(0, 1)
+            edge(1, 2)
+            edge(2, 3)
+            edge(3, 4)
+            edge(0, 3)
+            // Statement 5 never reaches the exit
+            edge(5, 5)
+            call(2, "C")
+            exitPoint(4)
+        }
+
+        method("C", 2) {
+            entryPoint(0)
+            edge(0, 1)
+            exitPoint(1)
+        }
+    }
+
+    @Test
+    fun testStatementIdsAreStable() {
+        val index = ApplicationGraphIndex(graph)
+        val methodIndex = index.methodIndex("B")
+        assertSame(methodIndex, index.methodIndex("B"))
+
+        val statements = graph.statementsOf("B").toList()
+        assertEquals(statements, methodIndex.statements)
+        statements.forEachIndexed { id, statement -> assertEquals(id, methodIndex.statementId(statement)) }
+
+        // Another index of the same graph assigns the same statement ids
+        val otherMethodIndex = ApplicationGraphIndex(graph).methodIndex("B")
+        statements.forEach { assertEquals(methodIndex.statementId(it), otherMethodIndex.statementId(it)) }
+    }
+
+    @Test
+    fun testMethodIdsAreDense() {
+        val index = ApplicationGraphIndex(graph)
+        val ids = listOf("C", "A", "B", "A").map(index::methodId)
+
+        assertEquals(listOf(0, 1, 2, 1), ids)
+        assertEquals(ids[1], index.methodIndex("A").id)
+        assertEquals(3, index.indexedMethods)
+    }
+
+    @Test
+    fun testStatementsReachableOnlyThroughCfgAreIndexed() {
+        // The graph doesn't list statement 3 of A, which is still reachable from the entry point
+        val partialGraph = object : ApplicationGraph<String, TestInstruction> by graph {
+            override fun statementsOf(method: String): Sequence<TestInstruction> =
+                graph.statementsOf(method).filter { it.offset != 3 }
+        }
+        val methodIndex = ApplicationGraphIndex(partialGraph).methodIndex("A")
+
+        val exit = TestInstruction("A", 3)
+        assertNotEquals(ApplicationGraphIndex.NO_ID, methodIndex.statementId(exit))
+        assertEquals(4, methodIndex.size)
+        assertEquals(listOf(methodIndex.statementId(exit)), methodIndex.exits.toList())
+
+        val cfgStatistics = CfgStatisticsImpl(partialGraph)
+        assertEquals(2u, cfgStatistics.getShortestDistance("A", TestInstruction("A", 0), exit))
+        assertEquals(2u, cfgStatistics.getShortestDistanceToExit("A", TestInstruction("A", 0)))
+    }
+
+    @Test
+    fun testForeignStatementsHaveNoId() {
+        val index = ApplicationGraphIndex(graph)
+        val foreign = TestInstruction("C", 0)
+
+        assertEquals(ApplicationGraphIndex.NO_ID, index.methodIndex("A").statementId(foreign))
+
+        val cfgStatistics = CfgStatisticsImpl(graph, index)
+        assertEquals(UInt.MAX_VALUE, cfgStatistics.getShortestDistance("A", TestInstruction("A", 0), foreign))
+        assertEquals(UInt.MAX_VALUE, cfgStatistics.getShortestDistance("A", foreign, TestInstruction("A", 3)))
+        assertEquals(UInt.MAX_VALUE, cfgStatistics.getShortestDistanceToExit("A", foreign))
+    }
+
+    @Test
+    fun testDistancesToExit() {
+        val cfgStatistics = CfgStatisticsImpl(graph)
+
+        val distances = (0..5).map { cfgStatistics.getShortestDistanceToExit("B", TestInstruction("B", it)) }
+        assertEquals(listOf(2u, 3u, 2u, 1u, 0u, UInt.MAX_VALUE), distances)
+    }
+
+    @Test
+    fun testReachabilityOfMethods() {
+        val index = ApplicationGraphIndex(graph)
+        val directCalls = CallGraphStatisticsImpl(depthLimit = 1u, graph, index)
+        val transitiveCalls = CallGraphStatisticsImpl(depthLimit = 2u, graph, index)
+
+        assertTrue(directCalls.checkReachability("A", "B"))
+        assertFalse(directCalls.checkReachability("A", "C"))
+        assertTrue(transitiveCalls.checkReachability("A", "C"))
+        assertFalse(transitiveCalls.checkReachability("C", "A"))
+        assertFalse(transitiveCalls.checkReachability("B", "A"))
+    }
+}
@@ -0,0 +1,116 @@
+package org.usvm.statistics
+
+import org.junit.jupiter.api.Test
+import org.usvm.TestInstruction
+import org.usvm.appGraph
+import org.usvm.statistics.distances.CfgDistances
+import org.usvm.statistics.distances.CfgDistancesStorage
+import org.usvm.statistics.distances.CfgStatisticsImpl
+import kotlin.test.assertEquals
+
+class CfgStatisticsImplTests {
+    private val graph = appGraph {
+        method("A", 4) {
+            entryPoint(0)
+            edge(0, 1)
+            edge(0, 2)
+            edge(1, 3)
+            edge(2, 3)
+            call(1, "B")
+            exitPoint(3)
+        }
+
+        method("B", 5) {
+            entryPoint(0)
+            edge(0, 1)
+            edge(1, 2)
+            edge(2, 1)
+            edge(2, 3)
+            call(2, "C")
+            exitPoint(3)
+        }
+
+        method("C", 2) {
+            entryPoint(0)
+            edge(0, 1)
+            exitPoint(1)
+        }
+    }
+
+    @Test
+    fun testPrecomputedDistancesOfCallees() {
+        val cfgStatistics = CfgStatisticsImpl(graph)
+
+        assertEquals(2, cfgStatistics.precompute(listOf("A"), callDepth = 1u))
+        assertEquals(3, cfgStatistics.precompute(listOf("A"), callDepth = 2u))
+    }
+
+    @Test
+    fun testPrecomputedDistancesAreEqualToComputedOnDemand() {
+        val precomputed = CfgStatisticsImpl(graph)
+        precomputed.precompute(listOf("A"), callDepth = UInt.MAX_VALUE)
+        val onDemand = CfgStatisticsImpl(graph)
+
+        for (method in listOf("A", "B", "C")) {
+            val statements = graph.statementsOf(method).toList()
+            for (from in statements) {
+                for (to in statements) {
+                    assertEquals(
+                        onDemand.getShortestDistance(method, from, to),
+                        precomputed.getShortestDistance(method, from, to),
+                    )
+                }
+                assertEquals(
+                    onDemand.getShortestDistanceToExit(method, from),
+                    precomputed.getShortestDistanceToExit(method, from),
+                )
+            }
+        }
+
+        // Statement 4 of B is unreachable
+        val distance = precomputed.getShortestDistance("B", TestInstruction("B", 0), TestInstruction("B", 4))
+        assertEquals(UInt.MAX_VALUE, distance)
+    }
+
+    @Test
+    fun testLargeMethodsAreSkipped() {
+        val cfgStatistics = CfgStatisticsImpl(graph)
+
+        assertEquals(1, cfgStatistics.precompute(listOf("A"), callDepth = 2u, maxMethodSize = 3))
+    }
+
+    @Test
+    fun testDistancesAreLoadedFromStorage() {
+        val storage = object : CfgDistancesStorage<String> {
+            val stored = hashMapOf<String, CfgDistances>()
+            var stores = 0
+
+            override fun load(method: String): CfgDistances? = stored[method]
+
+            override fun store(distances: Map<String, CfgDistances>) {
+                stored += distances
+                stores++
+            }
+        }
+
+        val first = CfgStatisticsImpl(graph, storage = storage)
+        val distance = first.getShortestDistance("B", TestInstruction("B", 0), TestInstruction("B", 3))
+        first.storeDistances()
+        assertEquals(setOf("B"), storage.stored.keys)
+
+        val second = CfgStatisticsImpl(graph, storage = storage)
+        assertEquals(distance, second.getShortestDistance("B", TestInstruction("B", 0), TestInstruction("B", 3)))
+        // Nothing new is computed, so nothing is stored
+        second.storeDistances()
+        assertEquals(1, storage.stores)
+
+        // A row which wasn't stored is computed and stored
+        second.getShortestDistance("B", TestInstruction("B", 1), TestInstruction("B", 3))
+        second.storeDistances()
+        assertEquals(2, storage.stores)
+
+        // The stored distances are not stored again
+        second.storeDistances()
+        assertEquals(2, storage.stores)
+    }
+}
@@ -0,0 +1,69 @@
+package org.usvm.statistics
+
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.Test
+import org.usvm.PathNode
+import org.usvm.TestInstruction
+import org.usvm.TestMethod
+import org.usvm.TestState
+import org.usvm.UCallStack
+import org.usvm.UContext
+import org.usvm.appGraph
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+internal class CoverageStatisticsTests {
+    private val ctx = mockk<UContext<*>>().also {
+        every { it.getNextStateId() } returns 0u
+        every { it.profilingCounters } returns UProfilingCounters()
+    }
+
+    private val graph = appGraph {
+        method("A", 4) {
+            entryPoint(0)
+            edge(0, 1)
+            edge(1, 2)
+            edge(1, 3)
+            exitPoint(2)
+            exitPoint(3)
+        }
+    }
+
+    @Test
+    fun `statistics sharing a path tree keep their marks`() {
+        val prefix = PathNode.root<TestInstruction>() + TestInstruction("A", 0) + TestInstruction("A", 1)
+        val fstState = state(prefix + TestInstruction("A", 2))
+        val sndState = state(prefix + TestInstruction("A", 3))
+
+        val fstStatistics = CoverageStatistics<TestMethod, TestInstruction, TestState>(setOf("A"), graph)
+        val sndStatistics = CoverageStatistics<TestMethod, TestInstruction, TestState>(setOf("A"), graph)
+        for (state in listOf(fstState, sndState)) {
+            fstStatistics.onStateTerminated(state, stateReachable = true)
+            sndStatistics.onStateTerminated(state, stateReachable = true)
+        }
+
+        assertEquals(100f, fstStatistics.getTotalCoverage())
+        assertEquals(100f, sndStatistics.getTotalCoverage())
+    }
+
+    @Test
+    fun `path node keeps the latest processors`() {
+        val node = PathNode.root<TestInstruction>() + TestInstruction("A", 0)
+        val processors = List(5) { Any() }
+
+        node.markProcessedBy(processors[0])
+        node.markProcessedBy(processors[1])
+        assertTrue(node.isProcessedBy(processors[0]))
+        assertTrue(node.isProcessedBy(processors[1]))
+
+        processors.drop(2).forEach(node::markProcessedBy)
+        assertFalse(node.isProcessedBy(processors[0]))
+        assertTrue(processors.drop(1).all(node::isProcessedBy))
+    }
+
+    private fun state(pathNode: PathNode<TestInstruction>): TestState =
+        TestState(ctx, MutabilityOwnership(), UCallStack("A"), mockk(), mockk(), emptyList(), pathNode)
+}
@@ -0,0 +1,57 @@
+package org.usvm.statistics
+
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.Test
+import org.usvm.PathNode
+import org.usvm.TestInstruction
+import org.usvm.TestMethod
+import org.usvm.TestState
+import org.usvm.UCallStack
+import org.usvm.UContext
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+internal class UProfilingObserverTests {
+    private val ctx = mockk<UContext<*>>().also {
+        every { it.getNextStateId() } returns 0u
+        every { it.profilingCounters } returns UProfilingCounters()
+    }
+
+    @Test
+    fun `deep call stacks are truncated`() {
+        val observer = UProfilingObserver<TestMethod, TestInstruction, TestState>(maxStackDepth = 2)
+
+        step(observer, state(depth = 5, statementOffset = 0))
+
+        val stacks = observer.collapsedStacks { it.steps }.lines().filter { it.isNotEmpty() }
+        assertEquals(listOf("...;m3;m4;TestInstruction(method=m4, offset=0) 1"), stacks)
+    }
+
+    @Test
+    fun `stacks stop growing when full`() {
+        val observer = UProfilingObserver<TestMethod, TestInstruction, TestState>(maxStackNodes = 8)
+
+        repeat(10) { depth ->
+            step(observer, state(depth, statementOffset = depth))
+        }
+
+        // Steps in the stacks which didn't fit are still profiled by statements and methods
+        assertEquals(10, observer.total.steps)
+        val stacks = observer.collapsedStacks { it.steps }.lines().filter { it.isNotEmpty() }
+        assertTrue(stacks.size in 1 until 10)
+    }
+
+    private fun step(observer: UProfilingObserver<TestMethod, TestInstruction, TestState>, state: TestState) {
+        observer.onStatePeeked(state)
+        observer.onState(state, emptySequence())
+    }
+
+    private fun state(depth: Int, statementOffset: Int): TestState {
+        val callStack = UCallStack<TestMethod, TestInstruction>("entry")
+        repeat(depth) { callStack.push("m$it", returnSite = null) }
+        val pathNode = PathNode.root<TestInstruction>() + TestInstruction(callStack.lastMethod(), statementOffset)
+        return TestState(ctx, MutabilityOwnership(), callStack, mockk(), mockk(), emptyList(), pathNode)
+    }
+}
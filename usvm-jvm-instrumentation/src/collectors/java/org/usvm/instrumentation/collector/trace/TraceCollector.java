@@ -5,10 +5,14 @@ package org.usvm.instrumentation.collector.trace;
 public class TraceCollector {
     public static LongCollection trace = new LongHashSet();
     public static LongArrayWrapper statics = new LongArrayWrapper();
+    public static MethodProbes probes = new MethodProbes();
 
     public static void jcInstructionCovered(long jcInstructionId) {
         trace.add(jcInstructionId);
     }
+    public static boolean[] jcMethodProbes(long methodProbesId) {
+        return probes.get((int) methodProbesId);
+    }
     public static void jcStaticFieldAccessed(long jcStaticFieldAccessId) {
         statics.add(jcStaticFieldAccessId);
     }
@@ -92,6 +96,72 @@ public class TraceCollector {
         }
     }
 
+    /**
+     * Probe arrays of methods instrumented in coverage mode, an element of the array of a method
+     * is set when the corresponding instruction is executed.
+     */
+    public static class MethodProbes {
+        public boolean[][] probes;
+        public int size;
+        // Ids of methods whose probes were requested since the last clear
+        public int[] touched;
+        public int touchedSize;
+        private boolean[] isTouched;
+
+        public MethodProbes() {
+            probes = new boolean[64][];
+            touched = new int[64];
+            isTouched = new boolean[64];
+            size = 0;
+            touchedSize = 0;
+        }
+
+        public int register(int probesCount) {
+            if (size >= probes.length) {
+                resize();
+            }
+            probes[size] = new boolean[probesCount];
+            return size++;
+        }
+
+        public boolean[] get(int methodProbesId) {
+            if (!isTouched[methodProbesId]) {
+                isTouched[methodProbesId] = true;
+                touched[touchedSize++] = methodProbesId;
+            }
+            return probes[methodProbesId];
+        }
+
+        public void clear() {
+            for (int i = 0; i < touchedSize; i++) {
+                int methodProbesId = touched[i];
+                boolean[] methodProbes = probes[methodProbesId];
+                for (int j = 0; j < methodProbes.length; j++) {
+                    methodProbes[j] = false;
+                }
+                isTouched[methodProbesId] = false;
+            }
+            touchedSize = 0;
+        }
+
+        private void resize() {
+            int newSize = probes.length * 2;
+            boolean[][] newProbes = new boolean[newSize][];
+            int[] newTouched = new int[newSize];
+            boolean[] newIsTouched = new boolean[newSize];
+            for (int i = 0; i < probes.length; i++) {
+                newProbes[i] = probes[i];
+                newIsTouched[i] = isTouched[i];
+            }
+            for (int i = 0; i < touchedSize; i++) {
+                newTouched[i] = touched[i];
+            }
+            probes = newProbes;
+            touched = newTouched;
+            isTouched = newIsTouched;
+        }
+    }
+
     public static class LongHashSet implements LongCollection {
         private static final int DEFAULT_CAPACITY = 1024;
         private static final double DEFAULT_LOAD_FACTOR = 0.75;
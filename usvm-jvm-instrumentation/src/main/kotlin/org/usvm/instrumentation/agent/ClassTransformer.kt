@@ -3,10 +3,12 @@ package org.usvm.instrumentation.agent
 import org.objectweb.asm.Opcodes
 import org.usvm.instrumentation.classloader.WorkerClassLoader
 import org.usvm.instrumentation.instrumentation.JcInstrumenterFactory
+import org.usvm.instrumentation.util.InstrumentationModuleConstants
 import org.usvm.jvm.util.toByteArray
 import org.usvm.jvm.util.toClassNode
 import java.lang.instrument.ClassFileTransformer
 import java.lang.instrument.Instrumentation
+import java.nio.file.Paths
 import java.security.ProtectionDomain
 
 class ClassTransformer(
@@ -17,6 +19,10 @@ class ClassTransformer(
     private val instrumenterFactoryInstance =
         Class.forName(instrumenterFactoryClassName).constructors.first().newInstance() as JcInstrumenterFactory<*>
     private val instrumenterCache = HashMap<String, ByteArray>()
+    //Shared by executor processes, so that restarted processes don't instrument the same classes again
+    private val instrumentedClassesCache =
+        System.getProperty(InstrumentationModuleConstants.instrumentedClassesCacheDirectoryProperty)
+            ?.let { InstrumentedClassesCache(Paths.get(it), instrumenterFactoryClassName) }
 
     override fun transform(
         loader: ClassLoader?,
@@ -31,6 +37,7 @@ class ClassTransformer(
         loader.regInstrumentation(instrumentation)
         if (!loader.shouldInstrumentCurrentClass) return classfileBuffer
         return instrumenterCache.getOrPut(className) {
+            instrumentedClassesCache?.load(classfileBuffer, loader.jcClasspath)?.let { return@getOrPut it }
             val instrumenter = instrumenterFactoryInstance.create(loader.jcClasspath)
 
             // JacoDB may produce incorrect IR/bytecode for earlier Java versions
@@ -40,7 +47,9 @@ class ClassTransformer(
                 return classfileBuffer
 
             val instrumentedClassNode = instrumenter.instrumentClass(classfileBuffer.toClassNode())
-            instrumentedClassNode.toByteArray(loader.jcClasspath, checkClass = true)
+            val instrumentedClass = instrumentedClassNode.toByteArray(loader.jcClasspath, checkClass = true)
+            instrumentedClassesCache?.store(classfileBuffer, instrumentedClass, loader.jcClasspath)
+            instrumentedClass
         }
     }
 
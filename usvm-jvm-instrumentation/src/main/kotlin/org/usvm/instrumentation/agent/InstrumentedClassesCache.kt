@@ -0,0 +1,294 @@
+package org.usvm.instrumentation.agent
+
+import org.jacodb.api.jvm.JcClassOrInterface
+import org.jacodb.api.jvm.JcClasspath
+import org.objectweb.asm.Opcodes
+import org.objectweb.asm.Type
+import org.objectweb.asm.tree.AbstractInsnNode
+import org.objectweb.asm.tree.ClassNode
+import org.objectweb.asm.tree.InsnNode
+import org.objectweb.asm.tree.LdcInsnNode
+import org.objectweb.asm.tree.MethodInsnNode
+import org.objectweb.asm.tree.MethodNode
+import org.usvm.instrumentation.collector.trace.TraceCollector
+import org.usvm.instrumentation.instrumentation.JcInstructionTracer
+import org.usvm.instrumentation.instrumentation.JcInstructionTracer.StaticFieldAccessType
+import org.usvm.instrumentation.instrumentation.methodsInEncodingOrder
+import org.usvm.jvm.util.Flags
+import org.usvm.jvm.util.toByteArray
+import org.usvm.jvm.util.toClassNode
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.logging.Level
+import java.util.logging.Logger
+import kotlin.io.path.createDirectories
+import kotlin.io.path.exists
+import kotlin.io.path.inputStream
+import kotlin.io.path.isRegularFile
+import kotlin.io.path.outputStream
+
+/**
+ * Keeps instrumented classes in files in the [directory], shared by all the instrumented processes,
+ * so that a restarted process doesn't instrument the classes again.
+ *
+ * A file is named after the hash of the original class bytes, the instrumenter and the [instrumentationVersion],
+ * the hash of the instrumentation jar by default, so a changed class or instrumentation never loads a stale file.
+ * Classes are not cached if the instrumentation is not loaded from a jar and has no version.
+ * Instrumented bytecode passes ids of [JcInstructionTracer] to [TraceCollector], and class ids are assigned
+ * per process. So the class ids are stored as indices in a table of class names, which are replaced with the ids
+ * of the loading process, and the probes and static field accesses are registered in its [JcInstructionTracer].
+ * Failures to read or write files are logged and otherwise ignored, as the classes can always be instrumented again.
+ */
+class InstrumentedClassesCache(
+    private val directory: Path,
+    private val instrumenterFactoryClassName: String,
+    private val instrumentationVersion: ByteArray? = currentInstrumentationVersion,
+) {
+    // Hashes of the classes referenced by the instrumented classes to check that they are not changed
+    private val classHashes = HashMap<String, ByteArray?>()
+
+    /**
+     * Number of classes loaded from the cache.
+     */
+    var hits: Int = 0
+        private set
+
+    /**
+     * @return the instrumented class for the [classfileBuffer] or null if it is not cached.
+     */
+    fun load(classfileBuffer: ByteArray, jcClasspath: JcClasspath): ByteArray? {
+        val file = file(classfileBuffer) ?: return null
+        if (!file.exists()) {
+            return null
+        }
+
+        return try {
+            loadFile(file, jcClasspath)?.also { hits++ }
+        } catch (e: Exception) {
+            logger.log(Level.WARNING, e) { "Failed to load the instrumented class from $file" }
+            null
+        }
+    }
+
+    private fun loadFile(file: Path, jcClasspath: JcClasspath): ByteArray? {
+        val (classNames, bytes) = readFile(file) ?: return null
+
+        val jcClasses = classNames.map { (className, classHash) ->
+            if (!classHash.contentEquals(classHash(className, jcClasspath))) {
+                return null
+            }
+            jcClasspath.findClassOrNull(className) ?: return null
+        }
+        val classNode = bytes.toClassNode()
+        val traceIds = traceIds(classNode) ?: return null
+        // Checked before anything is registered in the tracer, so that a corrupted file doesn't leave it half updated
+        if (!traceIds.all { isDecodable(it, jcClasses) }) {
+            logger.warning { "Instrumented class in $file has ids of unknown instructions" }
+            return null
+        }
+
+        val classIds = jcClasses.map { JcInstructionTracer.encodeClass(it).id }
+        for (traceId in traceIds) {
+            val processId = traceId.id.withClassId(classIds[(traceId.id ushr CLASS_ID_SHIFT).toInt()])
+            val newId = when (traceId.methodName) {
+                STATIC_FIELD_ACCESSED_METHOD_NAME -> {
+                    JcInstructionTracer.registerStaticFieldAccess(processId)
+                    processId
+                }
+                METHOD_PROBES_METHOD_NAME -> JcInstructionTracer.registerProbes(processId)
+                else -> processId
+            }
+            traceId.replace(newId)
+        }
+        return classNode.toByteArray(jcClasspath, Flags.writeComputeNone)
+    }
+
+    private fun readFile(file: Path): Pair<List<Pair<String, ByteArray>>, ByteArray>? =
+        DataInputStream(file.inputStream().buffered()).use { input ->
+            if (input.readInt() != FORMAT_VERSION) {
+                return null
+            }
+
+            val classNames = List(input.readInt()) {
+                val className = input.readUTF()
+                className to input.readByteArray()
+            }
+            classNames to input.readByteArray()
+        }
+
+    /**
+     * Whether the [traceId] with a class id replaced with an index in [jcClasses] can be decoded
+     * by [JcInstructionTracer].
+     */
+    private fun isDecodable(traceId: TraceId, jcClasses: List<JcClassOrInterface>): Boolean {
+        val jcClass = jcClasses.getOrNull((traceId.id ushr CLASS_ID_SHIFT).toInt()) ?: return false
+        val memberId = ((traceId.id ushr MEMBER_ID_SHIFT) and MEMBER_ID_MASK).toInt()
+        val index = (traceId.id and INDEX_MASK).toInt()
+        return when (traceId.methodName) {
+            STATIC_FIELD_ACCESSED_METHOD_NAME -> {
+                val jcField = jcClass.declaredFields.getOrNull(memberId)
+                jcField != null && jcField.isStatic && index < StaticFieldAccessType.entries.size
+            }
+            METHOD_PROBES_METHOD_NAME -> memberId < jcClass.methodsInEncodingOrder().size
+            else -> {
+                val jcMethod = jcClass.methodsInEncodingOrder().getOrNull(memberId)
+                jcMethod != null && index < jcMethod.instList.instructions.size
+            }
+        }
+    }
+
+    /**
+     * Stores the [instrumentedClass] instrumented in this process from the [classfileBuffer].
+     */
+    fun store(classfileBuffer: ByteArray, instrumentedClass: ByteArray, jcClasspath: JcClasspath) {
+        val file = file(classfileBuffer) ?: return
+        try {
+            storeFile(file, instrumentedClass, jcClasspath)
+        } catch (e: Exception) {
+            // The class is instrumented again by the next process
+            logger.log(Level.WARNING, e) { "Failed to store the instrumented class to $file" }
+        }
+    }
+
+    private fun storeFile(file: Path, instrumentedClass: ByteArray, jcClasspath: JcClasspath) {
+        val classNode = instrumentedClass.toClassNode()
+        val traceIds = traceIds(classNode) ?: return
+        val classNames = LinkedHashMap<String, Long>()
+        for (traceId in traceIds) {
+            val processId = when (traceId.methodName) {
+                METHOD_PROBES_METHOD_NAME -> JcInstructionTracer.probedMethodId(traceId.id)
+                else -> traceId.id
+            }
+            val className = JcInstructionTracer.decodeClass(processId).jcClass.name
+            traceId.replace(processId.withClassId(classNames.getOrPut(className) { classNames.size.toLong() }))
+        }
+        val classHashes = classNames.keys.map { className -> classHash(className, jcClasspath) ?: return }
+
+        directory.createDirectories()
+        // Written to a temporary file first, so that concurrent processes never read a partially written file
+        val tmpFile = Files.createTempFile(directory, file.fileName.toString(), ".tmp")
+        try {
+            DataOutputStream(tmpFile.outputStream().buffered()).use { output ->
+                output.writeInt(FORMAT_VERSION)
+                output.writeInt(classNames.size)
+                classNames.keys.zip(classHashes).forEach { (className, classHash) ->
+                    output.writeUTF(className)
+                    output.writeByteArray(classHash)
+                }
+                output.writeByteArray(classNode.toByteArray(jcClasspath, Flags.writeComputeNone))
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+        } finally {
+            Files.deleteIfExists(tmpFile)
+        }
+    }
+
+    /**
+     * An [id] passed to the [TraceCollector] method with the [methodName] by the [idInsn].
+     */
+    private class TraceId(
+        private val methodNode: MethodNode,
+        private val idInsn: AbstractInsnNode,
+        val methodName: String,
+        val id: Long,
+    ) {
+        fun replace(newId: Long) {
+            methodNode.instructions.set(idInsn, LdcInsnNode(newId))
+        }
+    }
+
+    /**
+     * Finds the ids passed to [TraceCollector].
+     *
+     * @return null if some id is not a constant loaded right before the call, so it can't be replaced.
+     */
+    private fun traceIds(classNode: ClassNode): List<TraceId>? {
+        val traceIds = mutableListOf<TraceId>()
+        for (methodNode in classNode.methods) {
+            for (insn in methodNode.instructions.toArray()) {
+                if (insn !is MethodInsnNode || insn.opcode != Opcodes.INVOKESTATIC) continue
+                if (insn.owner != traceCollectorName) continue
+                val idInsn = insn.previous
+                val id = idInsn?.longConstant() ?: return null
+                traceIds += TraceId(methodNode, idInsn, insn.name, id)
+            }
+        }
+        return traceIds
+    }
+
+    private fun AbstractInsnNode.longConstant(): Long? = when {
+        this is LdcInsnNode -> cst as? Long
+        this is InsnNode && opcode == Opcodes.LCONST_0 -> 0L
+        this is InsnNode && opcode == Opcodes.LCONST_1 -> 1L
+        else -> null
+    }
+
+    private fun Long.withClassId(classId: Long): Long = (classId shl CLASS_ID_SHIFT) or (this and CLASS_ID_MASK.inv())
+
+    private fun classHash(className: String, jcClasspath: JcClasspath): ByteArray? =
+        classHashes.getOrPut(className) {
+            val jcClass = jcClasspath.findClassOrNull(className) ?: return@getOrPut null
+            MessageDigest.getInstance("SHA-256").digest(jcClass.bytecode())
+        }
+
+    private fun DataInputStream.readByteArray(): ByteArray = ByteArray(readInt()).also { readFully(it) }
+
+    private fun DataOutputStream.writeByteArray(array: ByteArray) {
+        writeInt(array.size)
+        write(array)
+    }
+
+    /**
+     * @return the file of the instrumented [classfileBuffer], or null if the [instrumentationVersion] is unknown.
+     */
+    private fun file(classfileBuffer: ByteArray): Path? {
+        val instrumentationVersion = instrumentationVersion ?: return null
+        val digest = MessageDigest.getInstance("SHA-256")
+        digest.update(instrumentationVersion)
+        digest.update(instrumenterFactoryClassName.toByteArray())
+        digest.update(classfileBuffer)
+        val hash = digest.digest().joinToString(separator = "") { "%02x".format(it) }
+        return directory.resolve("$hash.class")
+    }
+
+    private companion object {
+        // Should be increased on any change of the file layout, changes of the instrumentation change the jar hash
+        const val FORMAT_VERSION = 2
+
+        const val CLASS_ID_SHIFT = Byte.SIZE_BITS * 5
+        const val CLASS_ID_MASK = -1L shl CLASS_ID_SHIFT
+        const val MEMBER_ID_SHIFT = Byte.SIZE_BITS * 3
+        const val MEMBER_ID_MASK = (1L shl Byte.SIZE_BITS * 2) - 1
+        const val INDEX_MASK = (1L shl MEMBER_ID_SHIFT) - 1
+
+        const val STATIC_FIELD_ACCESSED_METHOD_NAME = "jcStaticFieldAccessed"
+        const val METHOD_PROBES_METHOD_NAME = "jcMethodProbes"
+
+        val traceCollectorName: String = Type.getInternalName(TraceCollector::class.java)
+
+        val logger: Logger = Logger.getLogger(InstrumentedClassesCache::class.java.name)
+
+        /**
+         * Hash of the instrumentation jar, or its implementation version if it is not loaded from a jar.
+         */
+        val currentInstrumentationVersion: ByteArray? by lazy {
+            try {
+                val codeSource = InstrumentedClassesCache::class.java.protectionDomain?.codeSource?.location
+                val jar = codeSource?.let { Paths.get(it.toURI()) }
+                if (jar != null && jar.isRegularFile()) {
+                    MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(jar))
+                } else {
+                    InstrumentedClassesCache::class.java.`package`?.implementationVersion?.toByteArray()
+                }
+            } catch (e: Exception) {
+                logger.log(Level.WARNING, e) { "Failed to get the instrumentation version, classes are not cached" }
+                null
+            }
+        }
+    }
+}
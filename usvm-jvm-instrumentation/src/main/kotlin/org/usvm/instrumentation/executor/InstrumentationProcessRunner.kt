@@ -14,6 +14,7 @@ import org.usvm.instrumentation.util.OpenModulesContainer
 import org.usvm.instrumentation.util.osSpecificJavaExecutable
 import org.usvm.test.api.UTest
 import java.io.File
+import java.nio.file.Path
 import java.nio.file.Paths
 import kotlin.reflect.KClass
 import kotlin.time.Duration
@@ -22,7 +23,11 @@ import kotlin.time.Duration
 class InstrumentationProcessRunner(
     private val testingProjectClasspath: String,
     private val jcClasspath: JcClasspath,
-    private val instrumentationClassFactory: KClass<out JcInstrumenterFactory<out JcInstrumenter>>
+    private val instrumentationClassFactory: KClass<out JcInstrumenterFactory<out JcInstrumenter>>,
+    // Max heap size of the instrumented process in the -Xmx format, e.g. 1g
+    private val processHeapSize: String = InstrumentationModuleConstants.instrumentedProcessHeapSize,
+    // Directory of instrumented classes shared by the instrumented processes, null to instrument classes in each one
+    private val instrumentedClassesCacheDirectory: Path? = null,
 ) {
 
     private lateinit var rdProcessRunner: RdProcessRunner
@@ -38,7 +43,10 @@ class InstrumentationProcessRunner(
 
     private val jvmArgs: List<String> by lazy {
         val instrumentationClassNameFactoryName = instrumentationClassFactory.java.name
-        val memoryLimit = listOf("-Xmx1g")
+        val memoryLimit = listOf("-Xmx$processHeapSize")
+        val instrumentedClassesCache = listOfNotNull(instrumentedClassesCacheDirectory?.let {
+            "-D${InstrumentationModuleConstants.instrumentedClassesCacheDirectoryProperty}=${it.toAbsolutePath()}"
+        })
         val pathToJava = Paths.get(InstrumentationModuleConstants.pathToJava)
         val usvmClasspath = System.getProperty("java.class.path")
         val javaVersionSpecificArguments = OpenModulesContainer.javaVersionSpecificArguments
@@ -48,6 +56,7 @@ class InstrumentationProcessRunner(
                 listOf("-ea") +
                 listOf("-javaagent:${InstrumentationModuleConstants.pathToUsvmInstrumentationJar}=$instrumentationClassNameFactoryName") +
                 memoryLimit +
+                instrumentedClassesCache +
                 javaVersionSpecificArguments +
                 listOf("-classpath", usvmClasspath) +
                 listOf(instrumentedProcessClassName)
@@ -75,5 +84,8 @@ class InstrumentationProcessRunner(
 
     suspend fun executeUTestAsync(uTest: UTest): UTestExecutionResult = rdProcessRunner.callUTestAsync(uTest)
 
+    suspend fun executeUTestBatchAsync(uTests: List<UTest>, timeout: Duration): List<UTestExecutionResult> =
+        rdProcessRunner.callUTestBatchAsync(uTests, timeout)
+
     fun destroy() = rdProcessRunner.destroy()
 }
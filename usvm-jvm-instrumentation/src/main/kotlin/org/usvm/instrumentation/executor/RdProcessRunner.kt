@@ -134,16 +134,35 @@ class RdProcessRunner(
             serializationContext.reset()
         }
 
-    private fun deserializeExecutionResult(executionResult: ExecutionResult): UTestExecutionResult {
-        val coveredClasses = executionResult.classes ?: listOf()
+    /**
+     * Executes the [uTests] in one call, so that the serialization context is shared by all the tests and
+     * the encoded classes are deserialized once for the whole batch. Each test is given the [timeout],
+     * the batch ends with the first timed out test.
+     *
+     * @return the results of a prefix of [uTests] in their order.
+     */
+    suspend fun callUTestBatchAsync(uTests: List<UTest>, timeout: Duration): List<UTestExecutionResult> =
+        try {
+            val serializedUTests = uTests.map { SerializedUTest(it.initStatements, it.callMethodExpression) }
+            val batch = SerializedUTestBatch(serializedUTests, timeout.inWholeMilliseconds)
+            val serializedResults = rdProcess.model.callUTestBatch.execute(batch)
+            serializedResults.results.map { deserializeExecutionResult(it, serializedResults.classes) }
+        } finally {
+            serializationContext.reset()
+        }
+
+    private fun deserializeExecutionResult(
+        executionResult: ExecutionResult,
+        coveredClasses: List<ClassToId> = executionResult.classes ?: listOf()
+    ): UTestExecutionResult {
         return when (executionResult.type) {
             ExecutionResultType.UTestExecutionInitFailedResult -> UTestExecutionInitFailedResult(
                 cause = executionResult.cause as? UTestExceptionDescriptor ?: error("deserialization failed"),
-                trace = executionResult.trace?.let { deserializeTrace(it, coveredClasses) }
+                trace = deserializeTrace(executionResult, coveredClasses)
             )
 
             ExecutionResultType.UTestExecutionSuccessResult -> UTestExecutionSuccessResult(
-                trace = executionResult.trace?.let { deserializeTrace(it, coveredClasses) },
+                trace = deserializeTrace(executionResult, coveredClasses),
                 result = executionResult.result,
                 initialState = executionResult.initialState?.let { deserializeExecutionState(it) }
                     ?: error("deserialization failed"),
@@ -153,9 +172,7 @@ class RdProcessRunner(
 
             ExecutionResultType.UTestExecutionExceptionResult -> UTestExecutionExceptionResult(
                 cause = executionResult.cause as? UTestExceptionDescriptor ?: error("deserialization failed"),
-                trace = executionResult.trace?.let {
-                    deserializeTrace(it, coveredClasses)
-                },
+                trace = deserializeTrace(executionResult, coveredClasses),
                 initialState = executionResult.initialState?.let { deserializeExecutionState(it) }
                     ?: error("deserialization failed"),
                 resultState = executionResult.resultState?.let { deserializeExecutionState(it) }
@@ -181,8 +198,15 @@ class RdProcessRunner(
         return UTestExecutionState(state.instanceDescriptor, state.argsDescriptors, statics.toMutableMap())
     }
 
-    private fun deserializeTrace(trace: List<Long>, coveredClasses: List<ClassToId>): List<JcInst> =
-        traceDeserializer.deserializeTrace(trace, coveredClasses)
+    private fun deserializeTrace(executionResult: ExecutionResult, coveredClasses: List<ClassToId>): List<JcInst>? {
+        val trace = executionResult.trace?.let { traceDeserializer.deserializeTrace(it, coveredClasses) }
+        val coverage = executionResult.coverage?.let { traceDeserializer.deserializeCoverage(it, coveredClasses) }
+        return when {
+            trace == null -> coverage
+            coverage.isNullOrEmpty() -> trace
+            else -> trace + coverage
+        }
+    }
 
     fun destroy() {
         lifetime.terminate()
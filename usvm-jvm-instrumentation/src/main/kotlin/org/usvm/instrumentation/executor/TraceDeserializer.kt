@@ -1,33 +1,66 @@
 package org.usvm.instrumentation.executor
 
-import org.jacodb.api.jvm.JcClassOrInterface
 import org.jacodb.api.jvm.JcClasspath
+import org.jacodb.api.jvm.JcMethod
 import org.jacodb.api.jvm.cfg.JcInst
 import org.usvm.instrumentation.generated.models.ClassToId
+import org.usvm.instrumentation.generated.models.MethodCoverage
+import org.usvm.instrumentation.instrumentation.methodsInEncodingOrder
 import kotlin.math.pow
 
 class TraceDeserializer(private val jcClasspath: JcClasspath) {
     private val deserializedInstructionsCache = HashMap<Long, JcInst>()
-    private val deserializedClassesCache = HashMap<Long, JcClassOrInterface>()
+    private val deserializedMethodsCache = HashMap<Long, JcMethod>()
+    // Methods of classes in the order of their ids
+    private val deserializedClassesCache = HashMap<Long, List<JcMethod>>()
 
     fun deserializeTrace(trace: List<Long>, coveredClasses: List<ClassToId>): List<JcInst> =
         trace.map { encodedInst ->
             deserializedInstructionsCache.getOrPut(encodedInst) {
-                val classIdOffset = (2.0.pow(Byte.SIZE_BITS * 3).toLong() - 1) shl (Byte.SIZE_BITS * 5 - 1)
-                val classId = encodedInst and classIdOffset shr (Byte.SIZE_BITS * 5)
-                val methodIdOffset = (2.0.pow(Byte.SIZE_BITS * 2).toLong() - 1) shl (Byte.SIZE_BITS * 3 - 1)
-                val methodId = encodedInst and methodIdOffset shr (Byte.SIZE_BITS * 3)
                 val instructionId = (encodedInst and (2.0.pow(Byte.SIZE_BITS * 3).toLong() - 1)).toInt()
-                val jcClass =
-                    deserializedClassesCache.getOrPut(classId) {
-                        val className = coveredClasses.find { it.classId == classId }
-                            ?: error("Deserialization error")
-                        jcClasspath.findClassOrNull(className.className) ?: error("Deserialization error")
-                    }
-                val jcMethod = jcClass.declaredMethods.sortedBy { it.description }[methodId.toInt()]
-                jcMethod.instList
-                    .find { it.location.index == instructionId }
+                val jcMethod = deserializeMethod(encodedInst, coveredClasses)
+                jcMethod.instList.instructions.getOrNull(instructionId)
+                    ?.takeIf { it.location.index == instructionId }
                     ?: error("Deserialization error")
             }
         }
-}
\ No newline at end of file
+
+    /**
+     * Decodes instructions from bitmaps of [coverage], bit i of a bitmap is set if the instruction
+     * with index i of the method is covered.
+     */
+    fun deserializeCoverage(coverage: List<MethodCoverage>, coveredClasses: List<ClassToId>): List<JcInst> {
+        val coveredInstructions = mutableListOf<JcInst>()
+        for (methodCoverage in coverage) {
+            val instructions = deserializeMethod(methodCoverage.methodId, coveredClasses).instList.instructions
+            methodCoverage.probes.forEachIndexed { wordIndex, word ->
+                var bits = word
+                while (bits != 0L) {
+                    val bit = bits.countTrailingZeroBits()
+                    coveredInstructions += instructions.getOrNull(wordIndex * Long.SIZE_BITS + bit)
+                        ?: error("Deserialization error")
+                    bits = bits and (bits - 1)
+                }
+            }
+        }
+        return coveredInstructions
+    }
+
+    private fun deserializeMethod(encodedId: Long, coveredClasses: List<ClassToId>): JcMethod {
+        val encodedMethod = encodedId and (2.0.pow(Byte.SIZE_BITS * 3).toLong() - 1).inv()
+        return deserializedMethodsCache.getOrPut(encodedMethod) {
+            val classIdOffset = (2.0.pow(Byte.SIZE_BITS * 3).toLong() - 1) shl (Byte.SIZE_BITS * 5 - 1)
+            val classId = encodedId and classIdOffset shr (Byte.SIZE_BITS * 5)
+            val methodIdOffset = (2.0.pow(Byte.SIZE_BITS * 2).toLong() - 1) shl (Byte.SIZE_BITS * 3 - 1)
+            val methodId = encodedId and methodIdOffset shr (Byte.SIZE_BITS * 3)
+            val jcClassMethods =
+                deserializedClassesCache.getOrPut(classId) {
+                    val className = coveredClasses.find { it.classId == classId }
+                        ?: error("Deserialization error")
+                    val jcClass = jcClasspath.findClassOrNull(className.className) ?: error("Deserialization error")
+                    jcClass.methodsInEncodingOrder()
+                }
+            jcClassMethods.getOrNull(methodId.toInt()) ?: error("Deserialization error")
+        }
+    }
+}
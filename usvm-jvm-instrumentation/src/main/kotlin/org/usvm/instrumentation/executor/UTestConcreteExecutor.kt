@@ -2,15 +2,19 @@ package org.usvm.instrumentation.executor
 
 import com.jetbrains.rd.util.lifetime.LifetimeDefinition
 import com.jetbrains.rd.util.lifetime.isAlive
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
 import kotlinx.coroutines.withTimeout
 import org.jacodb.api.jvm.JcClasspath
 import org.usvm.instrumentation.instrumentation.JcInstrumenterFactory
 import org.usvm.instrumentation.testcase.api.UTestExecutionResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionTimedOutResult
 import org.usvm.instrumentation.testcase.descriptor.UTestUnexpectedExecutionBuilder
 import org.usvm.instrumentation.util.InstrumentationModuleConstants
 import org.usvm.instrumentation.util.UTestExecutorInitException
 import org.usvm.test.api.UTest
 import java.io.File
+import java.nio.file.Path
 import kotlin.reflect.KClass
 import kotlin.time.Duration
 
@@ -18,7 +22,9 @@ class UTestConcreteExecutor(
     instrumentationClassFactory: KClass<out JcInstrumenterFactory<*>>,
     testingProjectClasspath: String,
     private val jcClasspath: JcClasspath,
-    private val timeout: Duration
+    private val timeout: Duration,
+    processHeapSize: String = InstrumentationModuleConstants.instrumentedProcessHeapSize,
+    instrumentedClassesCacheDirectory: Path? = null,
 ) : AutoCloseable {
 
     constructor(
@@ -30,8 +36,13 @@ class UTestConcreteExecutor(
 
     private val lifetime = LifetimeDefinition()
 
-    private val instrumentationProcessRunner =
-        InstrumentationProcessRunner(testingProjectClasspath, jcClasspath, instrumentationClassFactory)
+    private val instrumentationProcessRunner = InstrumentationProcessRunner(
+        testingProjectClasspath,
+        jcClasspath,
+        instrumentationClassFactory,
+        processHeapSize,
+        instrumentedClassesCacheDirectory
+    )
     private val uTestUnexpectedExecutionBuilder = UTestUnexpectedExecutionBuilder(jcClasspath)
 
     suspend fun ensureRunnerAlive() {
@@ -70,6 +81,49 @@ class UTestConcreteExecutor(
         }
     }
 
+    /**
+     * Executes the [uTests] in one call to the instrumented process, which is cheaper than executing them
+     * one by one for small tests. The process gives each test [timeout] and ends the batch with the first
+     * timed out test, then the process is restarted and only the tests without results are executed again.
+     * If the batch fails, its first test is executed alone, and the rest of the tests are batched again.
+     *
+     * @return the results in the order of [uTests].
+     */
+    suspend fun executeBatchAsync(uTests: List<UTest>): List<UTestExecutionResult> {
+        val results = mutableListOf<UTestExecutionResult>()
+        while (results.size < uTests.size) {
+            ensureRunnerAlive()
+            val restTests = uTests.subList(results.size, uTests.size)
+            val batchResults = try {
+                // The process never waits for a test longer than [timeout], unless it hangs itself
+                withTimeout(timeout * (restTests.size + 1)) {
+                    instrumentationProcessRunner.executeUTestBatchAsync(restTests, timeout)
+                }.also { check(it.isNotEmpty()) { "No results of the batch" } }
+            } catch (e: Exception) {
+                currentCoroutineContext().ensureActive()
+                restartRunner()
+                results += executeAsync(restTests.first())
+                continue
+            }
+
+            results += batchResults
+            if (batchResults.last() is UTestExecutionTimedOutResult) {
+                // The timed out test is still running in the process
+                restartRunner()
+            }
+        }
+        return results
+    }
+
+    /**
+     * Destroys the instrumented process, a new one is started on the next [executeAsync].
+     */
+    fun restartRunner() {
+        if (instrumentationProcessRunner.isAlive()) {
+            instrumentationProcessRunner.destroy()
+        }
+    }
+
     override fun close() {
         lifetime.terminate()
     }
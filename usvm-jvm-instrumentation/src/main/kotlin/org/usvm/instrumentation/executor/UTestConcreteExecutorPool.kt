@@ -0,0 +1,128 @@
+package org.usvm.instrumentation.executor
+
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import org.jacodb.api.jvm.JcClasspath
+import org.jacodb.api.jvm.cfg.JcInst
+import org.usvm.instrumentation.instrumentation.JcInstrumenterFactory
+import org.usvm.instrumentation.testcase.api.UTestExecutionExceptionResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionInitFailedResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionSuccessResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionTimedOutResult
+import org.usvm.instrumentation.util.InstrumentationModuleConstants
+import org.usvm.test.api.UTest
+import java.io.File
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.reflect.KClass
+import kotlin.time.Duration
+
+/**
+ * Executes [UTest]s concurrently on [workersCount] [UTestConcreteExecutor]s, each owning its own instrumented process.
+ *
+ * Idle workers take the next test from a shared queue, so a worker stuck on a slow test doesn't delay the others.
+ * Instrumented processes are started lazily, on the first test executed by a worker.
+ *
+ * @param processHeapSize max heap size of each instrumented process in the -Xmx format, e.g. 1g.
+ * @param restartOnTimeout whether the process of a worker is restarted after a test timed out in it,
+ * since the timed out test may leave the process in a broken state.
+ * @param instrumentedClassesCacheDirectory directory to keep the instrumented classes in, so that the processes
+ * of the workers and the restarted processes don't instrument the same classes again.
+ */
+class UTestConcreteExecutorPool(
+    instrumentationClassFactory: KClass<out JcInstrumenterFactory<*>>,
+    testingProjectClasspath: String,
+    jcClasspath: JcClasspath,
+    timeout: Duration,
+    val workersCount: Int = Runtime.getRuntime().availableProcessors(),
+    processHeapSize: String = InstrumentationModuleConstants.instrumentedProcessHeapSize,
+    private val restartOnTimeout: Boolean = true,
+    instrumentedClassesCacheDirectory: Path? = null,
+) : AutoCloseable {
+
+    constructor(
+        instrumentationClassFactory: KClass<out JcInstrumenterFactory<*>>,
+        testingProjectClasspath: List<String>,
+        jcClasspath: JcClasspath,
+        timeout: Duration,
+        workersCount: Int = Runtime.getRuntime().availableProcessors(),
+    ) : this(
+        instrumentationClassFactory,
+        testingProjectClasspath.joinToString(File.pathSeparator),
+        jcClasspath,
+        timeout,
+        workersCount
+    )
+
+    init {
+        require(workersCount > 0) { "Number of workers must be positive: $workersCount" }
+    }
+
+    private val workers = List(workersCount) {
+        UTestConcreteExecutor(
+            instrumentationClassFactory,
+            testingProjectClasspath,
+            jcClasspath,
+            timeout,
+            processHeapSize,
+            instrumentedClassesCacheDirectory
+        )
+    }
+
+    private val idleWorkers = Channel<UTestConcreteExecutor>(workersCount).apply {
+        workers.forEach { trySend(it) }
+    }
+
+    private val coveredInstructionsSet: MutableSet<JcInst> = ConcurrentHashMap.newKeySet()
+
+    /**
+     * Instructions covered by all the tests executed so far.
+     */
+    val coveredInstructions: Set<JcInst> get() = coveredInstructionsSet
+
+    /**
+     * Executes the [uTest] on the first idle worker, suspends while all the workers are busy.
+     */
+    suspend fun executeAsync(uTest: UTest): UTestExecutionResult {
+        val worker = idleWorkers.receive()
+        try {
+            val result = worker.executeAsync(uTest)
+            if (restartOnTimeout && result is UTestExecutionTimedOutResult) {
+                worker.restartRunner()
+            }
+            result.coveredTrace?.let { coveredInstructionsSet += it }
+            return result
+        } finally {
+            // Fails if the pool is closed, which must not hide the result of the test
+            idleWorkers.trySend(worker)
+        }
+    }
+
+    /**
+     * Executes the [uTests] concurrently on all the workers.
+     *
+     * @return the results in the order of [uTests].
+     */
+    suspend fun executeAll(uTests: List<UTest>): List<UTestExecutionResult> = coroutineScope {
+        uTests.map { uTest -> async { executeAsync(uTest) } }.awaitAll()
+    }
+
+    /**
+     * Stops the workers. Tests being executed are interrupted, while new tests are rejected.
+     */
+    override fun close() {
+        idleWorkers.close()
+        workers.forEach { it.close() }
+    }
+
+    private val UTestExecutionResult.coveredTrace: List<JcInst>?
+        get() = when (this) {
+            is UTestExecutionSuccessResult -> trace
+            is UTestExecutionExceptionResult -> trace
+            is UTestExecutionInitFailedResult -> trace
+            else -> null
+        }
+}
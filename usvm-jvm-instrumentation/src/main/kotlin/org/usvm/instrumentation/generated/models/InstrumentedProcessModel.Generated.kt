@@ -19,7 +19,8 @@ import kotlin.jvm.JvmStatic
  * #### Generated from [InstrumentedProcessModel.kt:10]
  */
 class InstrumentedProcessModel private constructor(
-    private val _callUTest: RdCall<SerializedUTest, ExecutionResult>
+    private val _callUTest: RdCall<SerializedUTest, ExecutionResult>,
+    private val _callUTestBatch: RdCall<SerializedUTestBatch, ExecutionResultBatch>
 ) : RdExtBase() {
     //companion
     
@@ -31,7 +32,10 @@ class InstrumentedProcessModel private constructor(
             serializers.register(ExecutionStateSerialized)
             serializers.register(SerializedStaticField)
             serializers.register(ClassToId)
+            serializers.register(MethodCoverage)
             serializers.register(ExecutionResult)
+            serializers.register(SerializedUTestBatch)
+            serializers.register(ExecutionResultBatch)
             serializers.register(ExecutionResultType.marshaller)
         }
         
@@ -53,7 +57,7 @@ class InstrumentedProcessModel private constructor(
         }
         
         
-        const val serializationHash = 1434578686845984847L
+        const val serializationHash = 4283962715042378546L
         
     }
     override val serializersOwner: ISerializersOwner get() = InstrumentedProcessModel
@@ -61,20 +65,24 @@ class InstrumentedProcessModel private constructor(
     
     //fields
     val callUTest: RdCall<SerializedUTest, ExecutionResult> get() = _callUTest
+    val callUTestBatch: RdCall<SerializedUTestBatch, ExecutionResultBatch> get() = _callUTestBatch
     //methods
     //initializer
     init {
         _callUTest.async = true
+        _callUTestBatch.async = true
     }
     
     init {
         bindableChildren.add("callUTest" to _callUTest)
+        bindableChildren.add("callUTestBatch" to _callUTestBatch)
     }
     
     //secondary constructor
     private constructor(
     ) : this(
-        RdCall<SerializedUTest, ExecutionResult>(SerializedUTest, ExecutionResult)
+        RdCall<SerializedUTest, ExecutionResult>(SerializedUTest, ExecutionResult),
+        RdCall<SerializedUTestBatch, ExecutionResultBatch>(SerializedUTestBatch, ExecutionResultBatch)
     )
     
     //equals trait
@@ -84,13 +92,15 @@ class InstrumentedProcessModel private constructor(
         printer.println("InstrumentedProcessModel (")
         printer.indent {
             print("callUTest = "); _callUTest.print(printer); println()
+            print("callUTestBatch = "); _callUTestBatch.print(printer); println()
         }
         printer.print(")")
     }
     //deepClone
     override fun deepClone(): InstrumentedProcessModel   {
         return InstrumentedProcessModel(
-            _callUTest.deepClonePolymorphic()
+            _callUTest.deepClonePolymorphic(),
+            _callUTestBatch.deepClonePolymorphic()
         )
     }
     //contexts
@@ -232,12 +242,13 @@ data class ExecuteParams (
 
 
 /**
- * #### Generated from [InstrumentedProcessModel.kt:63]
+ * #### Generated from [InstrumentedProcessModel.kt:68]
  */
 data class ExecutionResult (
     val type: ExecutionResultType,
     val classes: List<ClassToId>?,
     val trace: List<Long>?,
+    val coverage: List<MethodCoverage>?,
     val cause: org.usvm.instrumentation.testcase.descriptor.UTestValueDescriptor?,
     val result: org.usvm.instrumentation.testcase.descriptor.UTestValueDescriptor?,
     val initialState: ExecutionStateSerialized?,
@@ -253,17 +264,19 @@ data class ExecutionResult (
             val type = buffer.readEnum<ExecutionResultType>()
             val classes = buffer.readNullable { buffer.readList { ClassToId.read(ctx, buffer) } }
             val trace = buffer.readNullable { buffer.readList { buffer.readLong() } }
+            val coverage = buffer.readNullable { buffer.readList { MethodCoverage.read(ctx, buffer) } }
             val cause = buffer.readNullable { (ctx.serializers.get(org.usvm.instrumentation.serializer.UTestValueDescriptorSerializer.marshallerId)!! as IMarshaller<org.usvm.instrumentation.testcase.descriptor.UTestValueDescriptor>).read(ctx, buffer) }
             val result = buffer.readNullable { (ctx.serializers.get(org.usvm.instrumentation.serializer.UTestValueDescriptorSerializer.marshallerId)!! as IMarshaller<org.usvm.instrumentation.testcase.descriptor.UTestValueDescriptor>).read(ctx, buffer) }
             val initialState = buffer.readNullable { ExecutionStateSerialized.read(ctx, buffer) }
             val resultState = buffer.readNullable { ExecutionStateSerialized.read(ctx, buffer) }
-            return ExecutionResult(type, classes, trace, cause, result, initialState, resultState)
+            return ExecutionResult(type, classes, trace, coverage, cause, result, initialState, resultState)
         }
         
         override fun write(ctx: SerializationCtx, buffer: AbstractBuffer, value: ExecutionResult)  {
             buffer.writeEnum(value.type)
             buffer.writeNullable(value.classes) { buffer.writeList(it) { v -> ClassToId.write(ctx, buffer, v) } }
             buffer.writeNullable(value.trace) { buffer.writeList(it) { v -> buffer.writeLong(v) } }
+            buffer.writeNullable(value.coverage) { buffer.writeList(it) { v -> MethodCoverage.write(ctx, buffer, v) } }
             buffer.writeNullable(value.cause) { (ctx.serializers.get(org.usvm.instrumentation.serializer.UTestValueDescriptorSerializer.marshallerId)!! as IMarshaller<org.usvm.instrumentation.testcase.descriptor.UTestValueDescriptor>).write(ctx,buffer, it) }
             buffer.writeNullable(value.result) { (ctx.serializers.get(org.usvm.instrumentation.serializer.UTestValueDescriptorSerializer.marshallerId)!! as IMarshaller<org.usvm.instrumentation.testcase.descriptor.UTestValueDescriptor>).write(ctx,buffer, it) }
             buffer.writeNullable(value.initialState) { ExecutionStateSerialized.write(ctx, buffer, it) }
@@ -286,6 +299,7 @@ data class ExecutionResult (
         if (type != other.type) return false
         if (classes != other.classes) return false
         if (trace != other.trace) return false
+        if (coverage != other.coverage) return false
         if (cause != other.cause) return false
         if (result != other.result) return false
         if (initialState != other.initialState) return false
@@ -299,6 +313,7 @@ data class ExecutionResult (
         __r = __r*31 + type.hashCode()
         __r = __r*31 + if (classes != null) classes.hashCode() else 0
         __r = __r*31 + if (trace != null) trace.hashCode() else 0
+        __r = __r*31 + if (coverage != null) coverage.hashCode() else 0
         __r = __r*31 + if (cause != null) cause.hashCode() else 0
         __r = __r*31 + if (result != null) result.hashCode() else 0
         __r = __r*31 + if (initialState != null) initialState.hashCode() else 0
@@ -312,6 +327,7 @@ data class ExecutionResult (
             print("type = "); type.print(printer); println()
             print("classes = "); classes.print(printer); println()
             print("trace = "); trace.print(printer); println()
+            print("coverage = "); coverage.print(printer); println()
             print("cause = "); cause.print(printer); println()
             print("result = "); result.print(printer); println()
             print("initialState = "); initialState.print(printer); println()
@@ -325,7 +341,70 @@ data class ExecutionResult (
 
 
 /**
- * #### Generated from [InstrumentedProcessModel.kt:64]
+ * #### Generated from [InstrumentedProcessModel.kt:89]
+ */
+data class ExecutionResultBatch (
+    val classes: List<ClassToId>,
+    val results: List<ExecutionResult>
+) : IPrintable {
+    //companion
+    
+    companion object : IMarshaller<ExecutionResultBatch> {
+        override val _type: KClass<ExecutionResultBatch> = ExecutionResultBatch::class
+        
+        @Suppress("UNCHECKED_CAST")
+        override fun read(ctx: SerializationCtx, buffer: AbstractBuffer): ExecutionResultBatch  {
+            val classes = buffer.readList { ClassToId.read(ctx, buffer) }
+            val results = buffer.readList { ExecutionResult.read(ctx, buffer) }
+            return ExecutionResultBatch(classes, results)
+        }
+        
+        override fun write(ctx: SerializationCtx, buffer: AbstractBuffer, value: ExecutionResultBatch)  {
+            buffer.writeList(value.classes) { v -> ClassToId.write(ctx, buffer, v) }
+            buffer.writeList(value.results) { v -> ExecutionResult.write(ctx, buffer, v) }
+        }
+        
+        
+    }
+    //fields
+    //methods
+    //initializer
+    //secondary constructor
+    //equals trait
+    override fun equals(other: Any?): Boolean  {
+        if (this === other) return true
+        if (other == null || other::class != this::class) return false
+        
+        other as ExecutionResultBatch
+        
+        if (classes != other.classes) return false
+        if (results != other.results) return false
+        
+        return true
+    }
+    //hash code trait
+    override fun hashCode(): Int  {
+        var __r = 0
+        __r = __r*31 + classes.hashCode()
+        __r = __r*31 + results.hashCode()
+        return __r
+    }
+    //pretty print
+    override fun print(printer: PrettyPrinter)  {
+        printer.println("ExecutionResultBatch (")
+        printer.indent {
+            print("classes = "); classes.print(printer); println()
+            print("results = "); results.print(printer); println()
+        }
+        printer.print(")")
+    }
+    //deepClone
+    //contexts
+}
+
+
+/**
+ * #### Generated from [InstrumentedProcessModel.kt:69]
  */
 enum class ExecutionResultType {
     UTestExecutionInitFailedResult, 
@@ -410,6 +489,69 @@ data class ExecutionStateSerialized (
 }
 
 
+/**
+ * #### Generated from [InstrumentedProcessModel.kt:63]
+ */
+data class MethodCoverage (
+    val methodId: Long,
+    val probes: List<Long>
+) : IPrintable {
+    //companion
+    
+    companion object : IMarshaller<MethodCoverage> {
+        override val _type: KClass<MethodCoverage> = MethodCoverage::class
+        
+        @Suppress("UNCHECKED_CAST")
+        override fun read(ctx: SerializationCtx, buffer: AbstractBuffer): MethodCoverage  {
+            val methodId = buffer.readLong()
+            val probes = buffer.readList { buffer.readLong() }
+            return MethodCoverage(methodId, probes)
+        }
+        
+        override fun write(ctx: SerializationCtx, buffer: AbstractBuffer, value: MethodCoverage)  {
+            buffer.writeLong(value.methodId)
+            buffer.writeList(value.probes) { v -> buffer.writeLong(v) }
+        }
+        
+        
+    }
+    //fields
+    //methods
+    //initializer
+    //secondary constructor
+    //equals trait
+    override fun equals(other: Any?): Boolean  {
+        if (this === other) return true
+        if (other == null || other::class != this::class) return false
+        
+        other as MethodCoverage
+        
+        if (methodId != other.methodId) return false
+        if (probes != other.probes) return false
+        
+        return true
+    }
+    //hash code trait
+    override fun hashCode(): Int  {
+        var __r = 0
+        __r = __r*31 + methodId.hashCode()
+        __r = __r*31 + probes.hashCode()
+        return __r
+    }
+    //pretty print
+    override fun print(printer: PrettyPrinter)  {
+        printer.println("MethodCoverage (")
+        printer.indent {
+            print("methodId = "); methodId.print(printer); println()
+            print("probes = "); probes.print(printer); println()
+        }
+        printer.print(")")
+    }
+    //deepClone
+    //contexts
+}
+
+
 /**
  * #### Generated from [InstrumentedProcessModel.kt:53]
  */
@@ -534,3 +676,66 @@ data class SerializedUTest (
     //deepClone
     //contexts
 }
+
+
+/**
+ * #### Generated from [InstrumentedProcessModel.kt:85]
+ */
+data class SerializedUTestBatch (
+    val uTests: List<SerializedUTest>,
+    val timeoutMs: Long
+) : IPrintable {
+    //companion
+    
+    companion object : IMarshaller<SerializedUTestBatch> {
+        override val _type: KClass<SerializedUTestBatch> = SerializedUTestBatch::class
+        
+        @Suppress("UNCHECKED_CAST")
+        override fun read(ctx: SerializationCtx, buffer: AbstractBuffer): SerializedUTestBatch  {
+            val uTests = buffer.readList { SerializedUTest.read(ctx, buffer) }
+            val timeoutMs = buffer.readLong()
+            return SerializedUTestBatch(uTests, timeoutMs)
+        }
+        
+        override fun write(ctx: SerializationCtx, buffer: AbstractBuffer, value: SerializedUTestBatch)  {
+            buffer.writeList(value.uTests) { v -> SerializedUTest.write(ctx, buffer, v) }
+            buffer.writeLong(value.timeoutMs)
+        }
+        
+        
+    }
+    //fields
+    //methods
+    //initializer
+    //secondary constructor
+    //equals trait
+    override fun equals(other: Any?): Boolean  {
+        if (this === other) return true
+        if (other == null || other::class != this::class) return false
+        
+        other as SerializedUTestBatch
+        
+        if (uTests != other.uTests) return false
+        if (timeoutMs != other.timeoutMs) return false
+        
+        return true
+    }
+    //hash code trait
+    override fun hashCode(): Int  {
+        var __r = 0
+        __r = __r*31 + uTests.hashCode()
+        __r = __r*31 + timeoutMs.hashCode()
+        return __r
+    }
+    //pretty print
+    override fun print(printer: PrettyPrinter)  {
+        printer.println("SerializedUTestBatch (")
+        printer.indent {
+            print("uTests = "); uTests.print(printer); println()
+            print("timeoutMs = "); timeoutMs.print(printer); println()
+        }
+        printer.print(")")
+    }
+    //deepClone
+    //contexts
+}
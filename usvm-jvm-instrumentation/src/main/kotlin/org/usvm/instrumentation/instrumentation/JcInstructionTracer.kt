@@ -25,7 +25,7 @@ object JcInstructionTracer : Tracer<Trace> {
             TraceCollector.trace.allValues
         val trace = List(traceFromTraceCollector.size) { idx ->
             decode(traceFromTraceCollector[idx])
-        }
+        } + coveredProbedInstructions()
         val statics = List(TraceCollector.statics.size) { idx ->
             decodeStatic(TraceCollector.statics.arr[idx])
         }
@@ -38,28 +38,122 @@ object JcInstructionTracer : Tracer<Trace> {
         return List(traceFromTraceCollector.size) { idx -> traceFromTraceCollector[idx] }
     }
 
+    /**
+     * Coverage of methods instrumented with probes: encoded method id (see [encode]) to the bitmap
+     * of covered instructions, bit i of the bitmap is set if the instruction with index i is covered.
+     */
+    fun coveredProbes(): Map<Long, List<Long>> {
+        val probes = TraceCollector.probes
+        val bitmaps = hashMapOf<Long, LongArray>()
+        for (i in 0 until probes.touchedSize) {
+            val methodProbesId = probes.touched[i]
+            val methodProbes = probes.probes[methodProbesId]
+            val bitmap = LongArray((methodProbes.size + Long.SIZE_BITS - 1) / Long.SIZE_BITS)
+            bitmaps[probedMethodsIds[methodProbesId]] = bitmap
+            for (instIndex in methodProbes.indices) {
+                if (methodProbes[instIndex]) {
+                    val wordIndex = instIndex / Long.SIZE_BITS
+                    bitmap[wordIndex] = bitmap[wordIndex] or (1L shl (instIndex % Long.SIZE_BITS))
+                }
+            }
+        }
+        return bitmaps.mapValues { it.value.asList() }
+    }
+
+    private fun coveredProbedInstructions(): List<JcInst> {
+        val probes = TraceCollector.probes
+        val coveredInstructions = mutableSetOf<JcInst>()
+        for (i in 0 until probes.touchedSize) {
+            val methodProbesId = probes.touched[i]
+            val methodProbes = probes.probes[methodProbesId]
+            val methodInstructions = probedMethodsInstructions[methodProbesId]
+            for (instIndex in methodProbes.indices) {
+                if (methodProbes[instIndex]) {
+                    coveredInstructions.add(methodInstructions[instIndex])
+                }
+            }
+        }
+        return coveredInstructions.toList()
+    }
+
+    /**
+     * Registers the probe array of the [jcMethod] with a probe per instruction of [jcInstructions]
+     * in the [TraceCollector]. The array is registered once per method, so that instances of the class
+     * loaded by different classloaders share it rather than taking a new array on each load.
+     *
+     * @return id of the probe array to get it with [TraceCollector.jcMethodProbes].
+     */
+    fun registerProbes(jcMethod: JcMethod, jcInstructions: List<JcInst>): Long {
+        val encodedMethodId = encode(jcMethod)
+        val methodProbesId = methodProbesIds.getOrPut(encodedMethodId) {
+            val methodProbesId = TraceCollector.probes.register(jcInstructions.size)
+            check(methodProbesId == probedMethodsInstructions.size) { "Probes registered bypassing tracer" }
+            probedMethodsInstructions.add(jcInstructions)
+            probedMethodsIds.add(encodedMethodId)
+            methodProbesId
+        }
+        return methodProbesId.toLong()
+    }
+
+    /**
+     * Registers the probe array of the method with the [encodedMethodId] (see [encode]),
+     * e.g. for a class instrumented by another process.
+     */
+    fun registerProbes(encodedMethodId: Long): Long {
+        val jcMethod = decodeMethod(encodedMethodId)
+        return registerProbes(jcMethod, jcMethod.instList.instructions)
+    }
+
+    /**
+     * Encoded id (see [encode]) of the method of the probe array with the [methodProbesId].
+     */
+    fun probedMethodId(methodProbesId: Long): Long = probedMethodsIds[methodProbesId.toInt()]
+
     fun getEncodedClasses() =
         encodedClasses.entries.associate { it.key to it.value.id }
 
-    class EncodedClass(val id: Long) {
+    /**
+     * Encoding tables of a class, built once per class. Method ids are indices in [methods],
+     * instruction ids are indices in [EncodedMethod.instructions], so encoding and decoding take O(1).
+     */
+    class EncodedClass(val id: Long, val jcClass: JcClassOrInterface) {
         val encodedMethods = hashMapOf<JcMethod, EncodedMethod>()
         val encodedFields = hashMapOf<JcField, EncodedField>()
         var currentFieldIndex = 0L
+
+        val methods: List<JcMethod> by lazy { jcClass.methodsInEncodingOrder() }
+
+        private val methodIds: Map<JcMethod, Int> by lazy {
+            methods.withIndex().associate { (index, jcMethod) -> jcMethod to index }
+        }
+
+        // Static fields are indexed among all the declared fields
+        val staticFieldIds: Map<String, Int> by lazy {
+            jcClass.declaredFields.withIndex()
+                .filter { it.value.isStatic }
+                .associate { (index, jcField) -> jcField.name to index }
+        }
+
+        fun methodId(jcMethod: JcMethod): Int = methodIds[jcMethod] ?: error("Encoding error")
     }
 
-    class EncodedMethod(val id: Long) {
-        val encodedInstructions = hashMapOf<JcInst, EncodedInst>()
+    class EncodedMethod(val id: Long, jcMethod: JcMethod) {
+        val instructions: List<JcInst> by lazy { jcMethod.instList.instructions }
     }
 
     class EncodedField(val id: Long)
 
-    class EncodedInst(val id: Long)
-
-    private val encodedJcInstructions = hashMapOf<Long, JcInst>()
     private val encodedJcStaticFieldRef = hashMapOf<Long, Pair<JcField, StaticFieldAccessType>>()
 
+    // Indexed by ids of the probe arrays in TraceCollector
+    private val probedMethodsInstructions = arrayListOf<List<JcInst>>()
+    private val probedMethodsIds = arrayListOf<Long>()
+    // Encoded method ids to ids of their probe arrays
+    private val methodProbesIds = hashMapOf<Long, Int>()
+
     private val encodedClasses = hashMapOf<JcClassOrInterface, EncodedClass>()
-    private var currentClassIndex = 0L
+    // Indexed by class ids
+    private val encodedClassesById = arrayListOf<EncodedClass>()
 
     /**
      *  0000 0000 0000 0000 0000 0000 0000 0000
@@ -69,17 +163,15 @@ object JcInstructionTracer : Tracer<Trace> {
         return (classId shl Byte.SIZE_BITS * 5) or (methodId shl Byte.SIZE_BITS * 3) or instId
     }
 
-    private fun encodeClass(jcClass: JcClassOrInterface) =
-        encodedClasses.getOrPut(jcClass) { EncodedClass(currentClassIndex++) }
+    fun encodeClass(jcClass: JcClassOrInterface) =
+        encodedClasses.getOrPut(jcClass) {
+            EncodedClass(encodedClassesById.size.toLong(), jcClass).also { encodedClassesById.add(it) }
+        }
 
-    private fun encodeMethod(jcClass: JcClassOrInterface, jcMethod: JcMethod): EncodedMethod {
-        val encodedClass = encodeClass(jcClass)
-        val methodIndex = jcClass.declaredMethods
-            .sortedBy { it.description }
-            .indexOf(jcMethod)
-            .also { if (it == -1) error("Encoding error") }
-        return encodedClass.encodedMethods.getOrPut(jcMethod) { EncodedMethod(methodIndex.toLong()) }
-    }
+    private fun encodeMethod(encodedClass: EncodedClass, jcMethod: JcMethod): EncodedMethod =
+        encodedClass.encodedMethods.getOrPut(jcMethod) {
+            EncodedMethod(encodedClass.methodId(jcMethod).toLong(), jcMethod)
+        }
 
     fun encodeField(jcClass: JcClassOrInterface, jcField: JcField): EncodedField {
         val encodedClass = encodeClass(jcClass)
@@ -87,23 +179,14 @@ object JcInstructionTracer : Tracer<Trace> {
     }
 
     fun encode(jcInst: JcInst): Long {
-        val jcClass = jcInst.enclosingClass
-        val jcMethod = jcInst.enclosingMethod
-        val encodedClass = encodeClass(jcClass)
-        val encodedMethod = encodeMethod(jcClass, jcMethod)
-        val encodedInst =
-            encodedMethod.encodedInstructions.getOrPut(jcInst) {
-                EncodedInst(jcInst.location.index.toLong())
-            }
-        val instId = encodeTraceId(encodedClass.id, encodedMethod.id, encodedInst.id)
-        encodedJcInstructions[instId] = jcInst
-        return instId
+        val encodedClass = encodeClass(jcInst.enclosingClass)
+        val encodedMethod = encodeMethod(encodedClass, jcInst.enclosingMethod)
+        return encodeTraceId(encodedClass.id, encodedMethod.id, jcInst.location.index.toLong())
     }
 
     fun encode(jcMethod: JcMethod): Long {
-        val jcClass = jcMethod.enclosingClass
-        val encodedClass = encodeClass(jcClass)
-        val encodedMethod = encodeMethod(jcClass, jcMethod)
+        val encodedClass = encodeClass(jcMethod.enclosingClass)
+        val encodedMethod = encodeMethod(encodedClass, jcMethod)
         return encodeTraceId(encodedClass.id, encodedMethod.id, 0L)
     }
 
@@ -123,34 +206,70 @@ object JcInstructionTracer : Tracer<Trace> {
         var jcClass =
             jcRawFieldRef.declaringClass.toJcClassOrInterface(jcClasspath) ?: error("Can't find class in classpath")
         while (true) {
-            val encodedClass = encodedClasses.getOrPut(jcClass) { EncodedClass(currentClassIndex++) }
-            val indexedJcField =
-                jcClass.declaredFields.withIndex()
-                    .find { it.value.isStatic && it.value.name == jcRawFieldRef.fieldName }
-            if (indexedJcField == null) {
+            val encodedClass = encodeClass(jcClass)
+            val fieldIndex = encodedClass.staticFieldIds[jcRawFieldRef.fieldName]
+            if (fieldIndex == null) {
                 // static fields can be accessed via subclass of declaring class
                 jcClass = jcClass.superClass
                     ?: error("Field `${jcRawFieldRef.declaringClass.typeName}.${jcRawFieldRef.fieldName}` not found")
                 continue
             }
             val accessTypeId = accessType.ordinal.toLong()
-            val instId = encodeStaticFieldAccessId(encodedClass.id, indexedJcField.index.toLong(), accessTypeId)
-            encodedJcStaticFieldRef[instId] = indexedJcField.value to accessType
+            val instId = encodeStaticFieldAccessId(encodedClass.id, fieldIndex.toLong(), accessTypeId)
+            encodedJcStaticFieldRef[instId] = jcClass.declaredFields[fieldIndex] to accessType
             return instId
         }
     }
 
-    private fun decode(jcInstructionId: Long): JcInst =
-        encodedJcInstructions[jcInstructionId] ?: error("Can't decode inst")
+    /**
+     * Registers the static field access with the [jcStaticId] (see [encodeStaticFieldAccess]) for decoding,
+     * e.g. for a class instrumented by another process.
+     */
+    fun registerStaticFieldAccess(jcStaticId: Long) {
+        val encodedClass = decodeClass(jcStaticId)
+        val fieldIndex = ((jcStaticId ushr Byte.SIZE_BITS * 3) and METHOD_ID_MASK).toInt()
+        val accessType = StaticFieldAccessType.entries.getOrNull((jcStaticId and INST_ID_MASK).toInt())
+            ?: error("Can't decode static field access")
+        val jcField = encodedClass.jcClass.declaredFields.getOrNull(fieldIndex)
+            ?: error("Can't decode static field access")
+        encodedJcStaticFieldRef[jcStaticId] = jcField to accessType
+    }
+
+    /**
+     * Class of the encoded instruction, method or static field access with the [encodedId].
+     */
+    fun decodeClass(encodedId: Long): EncodedClass =
+        encodedClassesById.getOrNull((encodedId ushr Byte.SIZE_BITS * 5).toInt()) ?: error("Can't decode class")
+
+    private fun decodeMethod(encodedId: Long): JcMethod {
+        val methodId = ((encodedId ushr Byte.SIZE_BITS * 3) and METHOD_ID_MASK).toInt()
+        return decodeClass(encodedId).methods.getOrNull(methodId) ?: error("Can't decode method")
+    }
+
+    private fun decode(jcInstructionId: Long): JcInst {
+        val encodedClass = decodeClass(jcInstructionId)
+        val encodedMethod = encodeMethod(encodedClass, decodeMethod(jcInstructionId))
+        val instId = (jcInstructionId and INST_ID_MASK).toInt()
+        return encodedMethod.instructions.getOrNull(instId) ?: error("Can't decode inst")
+    }
 
     private fun decodeStatic(jcStaticId: Long): Pair<JcField, StaticFieldAccessType> =
         encodedJcStaticFieldRef[jcStaticId] ?: error("Can't decode inst")
 
+    private const val METHOD_ID_MASK = (1L shl Byte.SIZE_BITS * 2) - 1
+    private const val INST_ID_MASK = (1L shl Byte.SIZE_BITS * 3) - 1
+
     override fun reset() {
         TraceCollector.trace.clear()
         TraceCollector.statics.clear()
+        TraceCollector.probes.clear()
     }
 
 }
 
+/**
+ * Methods of the class in the order of their ids in encoded instructions.
+ */
+fun JcClassOrInterface.methodsInEncodingOrder(): List<JcMethod> = declaredMethods.sortedBy { it.description }
+
 data class Trace(val trace: List<JcInst>, val statics: List<Pair<JcField, StaticFieldAccessType>>)
\ No newline at end of file
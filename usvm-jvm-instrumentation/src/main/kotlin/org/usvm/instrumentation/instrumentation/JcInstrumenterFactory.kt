@@ -9,6 +9,12 @@ interface JcInstrumenterFactory<T: JcInstrumenter> {
 class JcRuntimeTraceInstrumenterFactory : JcInstrumenterFactory<JcRuntimeTraceInstrumenter> {
     override fun create(jcClasspath: JcClasspath): JcRuntimeTraceInstrumenter = JcRuntimeTraceInstrumenter(jcClasspath)
 }
+
+class JcRuntimeCoverageInstrumenterFactory : JcInstrumenterFactory<JcRuntimeTraceInstrumenter> {
+    override fun create(jcClasspath: JcClasspath): JcRuntimeTraceInstrumenter =
+        JcRuntimeTraceInstrumenter(jcClasspath, useProbes = true)
+}
+
 class NoInstrumentationFactory : JcInstrumenterFactory<NoInstrumentation> {
     override fun create(jcClasspath: JcClasspath): NoInstrumentation = NoInstrumentation(jcClasspath)
 }
\ No newline at end of file
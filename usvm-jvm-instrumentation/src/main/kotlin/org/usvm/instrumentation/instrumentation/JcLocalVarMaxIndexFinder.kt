@@ -0,0 +1,21 @@
+package org.usvm.instrumentation.instrumentation
+
+import org.jacodb.api.jvm.cfg.JcRawExpr
+import org.jacodb.api.jvm.cfg.JcRawExprVisitor
+import org.jacodb.api.jvm.cfg.JcRawLocalVar
+
+//Finds max index of local variables to add new ones without clashes
+internal class JcLocalVarMaxIndexFinder : JcRawExprVisitor.Default<Unit> {
+    var maxLocalVarIndex = -1
+    override fun visitJcRawLocalVar(value: JcRawLocalVar) {
+        maxLocalVarIndex = maxOf(maxLocalVarIndex, value.index)
+    }
+
+    override fun defaultVisitJcRawExpr(expr: JcRawExpr) {
+        visitOperands(expr.operands)
+    }
+
+    fun visitOperands(operands: List<JcRawExpr>) {
+        operands.forEach { it.accept(this) }
+    }
+}
@@ -3,27 +3,39 @@ package org.usvm.instrumentation.instrumentation
 import org.jacodb.api.jvm.JcClasspath
 import org.jacodb.api.jvm.JcMethod
 import org.jacodb.api.jvm.cfg.AbstractFullRawExprSetCollector
+import org.jacodb.api.jvm.cfg.JcRawArrayAccess
 import org.jacodb.api.jvm.cfg.JcRawAssignInst
 import org.jacodb.api.jvm.cfg.JcRawExpr
 import org.jacodb.api.jvm.cfg.JcRawFieldRef
 import org.jacodb.api.jvm.cfg.JcRawInst
 import org.jacodb.api.jvm.cfg.JcRawLabelInst
 import org.jacodb.api.jvm.cfg.JcRawLineNumberInst
+import org.jacodb.api.jvm.cfg.JcRawLocalVar
+import org.jacodb.api.jvm.ext.boolean
 import org.jacodb.api.jvm.ext.isEnum
+import org.jacodb.impl.cfg.JcRawBool
+import org.jacodb.impl.cfg.JcRawInt
 import org.jacodb.impl.cfg.MethodNodeBuilder
+import org.jacodb.impl.types.TypeNameImpl
 import org.objectweb.asm.tree.ClassNode
 import org.objectweb.asm.tree.MethodNode
 import org.usvm.instrumentation.collector.trace.TraceCollector
 import org.usvm.instrumentation.instrumentation.JcInstructionTracer.StaticFieldAccessType
+import org.usvm.jvm.util.getTypename
 import org.usvm.jvm.util.isSameSignature
 import org.usvm.jvm.util.replace
 
 /**
  * Class for runtime instrumentation for jcdb instructions
  * Collecting trace and information about static access
+ *
+ * @param useProbes if true, covered instructions are marked in a probe array of the method
+ * (see [JcInstructionTracer.registerProbes]) instead of calling [TraceCollector] on each instruction.
+ * The collected trace is the same, but executed instructions cost an array store instead of a hash set insertion.
  */
 class JcRuntimeTraceInstrumenter(
-    override val jcClasspath: JcClasspath
+    override val jcClasspath: JcClasspath,
+    private val useProbes: Boolean = false
 ) : JcInstrumenter, AbstractFullRawExprSetCollector() {
 
     private val rawStaticsGet = hashSetOf<JcRawFieldRef>()
@@ -32,6 +44,7 @@ class JcRuntimeTraceInstrumenter(
     private val traceHelper = TraceHelper(jcClasspath, TraceCollector::class.java)
     private val coveredInstructionMethodName = "jcInstructionCovered"
     private val staticFieldAccessedMethodName = "jcStaticFieldAccessed"
+    private val methodProbesMethodName = "jcMethodProbes"
 
     override fun visitJcRawAssignInst(inst: JcRawAssignInst) {
         val lhv = inst.lhv
@@ -55,10 +68,15 @@ class JcRuntimeTraceInstrumenter(
         val rawJcInstructionsList = jcMethod.rawInstList.filter { it !is JcRawLabelInst && it !is JcRawLineNumberInst }
         val jcInstructionsList = jcMethod.instList
         val instrumentedJcInstructionsList = jcMethod.rawInstList.toMutableList()
+        val probesLocalVar = if (useProbes) createProbesLocalVar(jcMethod) else null
         for (i in jcInstructionsList.indices) {
-            val encodedInst = JcInstructionTracer.encode(jcInstructionsList[i])
-            val invocation = traceHelper.createTraceMethodCall(encodedInst, coveredInstructionMethodName)
-            instrumentedJcInstructionsList.insertBefore(rawJcInstructionsList[i], invocation)
+            val coverageInst = if (probesLocalVar != null) {
+                createProbeSetInst(jcMethod, probesLocalVar, i)
+            } else {
+                val encodedInst = JcInstructionTracer.encode(jcInstructionsList[i])
+                traceHelper.createTraceMethodCall(encodedInst, coveredInstructionMethodName)
+            }
+            instrumentedJcInstructionsList.insertBefore(rawJcInstructionsList[i], coverageInst)
 
             getStaticFieldRefs(rawJcInstructionsList[i])
             rawStaticsSet.forEach { jcRawFieldRef ->
@@ -76,9 +94,27 @@ class JcRuntimeTraceInstrumenter(
                 instrumentedJcInstructionsList.insertBefore(rawJcInstructionsList[i], traceMethodCall)
             }
         }
+        if (probesLocalVar != null) {
+            // Probe array is loaded once on method entry, before any label which can be jumped to
+            val methodProbesId = JcInstructionTracer.registerProbes(jcMethod, jcInstructionsList)
+            val probesCall = traceHelper.createTraceMethodCallExpr(methodProbesId, methodProbesMethodName)
+            val probesInit = JcRawAssignInst(jcMethod, probesLocalVar, probesCall)
+            instrumentedJcInstructionsList.insertBefore(instrumentedJcInstructionsList.first(), probesInit)
+        }
         return MethodNodeBuilder(jcMethod, instrumentedJcInstructionsList).build()
     }
 
+    private fun createProbesLocalVar(jcMethod: JcMethod): JcRawLocalVar {
+        val maxIndexFinder = JcLocalVarMaxIndexFinder()
+        jcMethod.rawInstList.forEach { inst -> maxIndexFinder.visitOperands(inst.operands) }
+        return JcRawLocalVar(maxIndexFinder.maxLocalVarIndex + 1, PROBES_LOCAL_VAR_NAME, probesTypeName)
+    }
+
+    private fun createProbeSetInst(jcMethod: JcMethod, probesLocalVar: JcRawLocalVar, instIndex: Int): JcRawInst {
+        val probe = JcRawArrayAccess(probesLocalVar, JcRawInt(instIndex), jcClasspath.boolean.getTypename())
+        return JcRawAssignInst(jcMethod, probe, JcRawBool(true))
+    }
+
     override fun instrumentClass(classNode: ClassNode): ClassNode {
         val className = classNode.name.replace('/', '.')
         val jcClass = jcClasspath.findClassOrNull(className) ?: return classNode
@@ -105,6 +141,8 @@ class JcRuntimeTraceInstrumenter(
 
     companion object {
         const val GENERATED_CLINIT_NAME = "generatedClinit0"
+        private const val PROBES_LOCAL_VAR_NAME = "%probesGenerated0"
+        private val probesTypeName = TypeNameImpl.fromTypeName("boolean[]")
     }
 
 }
\ No newline at end of file
@@ -33,7 +33,7 @@ class TraceHelper(
     private fun createJcVirtualMethod(jMethod: Method): JcVirtualMethod = JcVirtualMethodImpl(
         name = jMethod.name,
         access = jMethod.modifiers,
-        returnType = TypeNameImpl.fromTypeName(jMethod.returnType.name),
+        returnType = TypeNameImpl.fromTypeName(jMethod.returnType.typeName),
         parameters = createJcVirtualMethodParams(jMethod),
         description = ""
     )
@@ -51,6 +51,16 @@ class TraceHelper(
         return JcRawCallInst(jcTraceMethod, createStaticExprWithLongArg(jcInstId, jcTraceMethod))
     }
 
+    /**
+     * This method create instrumenting method call expression, e.g. to assign its result to a local variable
+     * @param id --- Argument of the instrumenting method
+     * @param traceMethodName --- jacodb method name for instrumenting
+     */
+    fun createTraceMethodCallExpr(id: Long, traceMethodName: String): JcRawStaticCallExpr {
+        val jcTraceMethod = jcVirtualGlobalObjectClass.declaredMethods.find { it.name == traceMethodName }!!
+        return createStaticExprWithLongArg(id, jcTraceMethod)
+    }
+
     fun createMockCollectorCall(traceMethodName: String, id: Long, jcThisReference: JcRawValue): JcRawStaticCallExpr {
         val jcTraceMethod = jcVirtualGlobalObjectClass.declaredMethods.find { it.name == traceMethodName }!!
         val jcRawLong = JcRawLong(id)
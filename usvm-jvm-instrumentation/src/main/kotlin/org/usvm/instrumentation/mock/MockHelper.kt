@@ -17,6 +17,7 @@ import org.objectweb.asm.tree.MethodNode
 import org.usvm.instrumentation.classloader.WorkerClassLoader
 import org.usvm.instrumentation.collector.trace.MockCollector
 import org.usvm.instrumentation.instrumentation.JcInstructionTracer
+import org.usvm.instrumentation.instrumentation.JcLocalVarMaxIndexFinder
 import org.usvm.instrumentation.instrumentation.TraceHelper
 import org.usvm.jvm.util.getTypename
 import org.usvm.jvm.util.isSameSignature
@@ -335,20 +336,4 @@ class MockHelper(val jcClasspath: JcClasspath, val classLoader: WorkerClassLoade
     private class JcLocalVarIndexGenerator(private var index: Int = 0) {
         fun nextLocalVarIndex(): Int = index++
     }
-
-    private class JcLocalVarMaxIndexFinder : JcRawExprVisitor.Default<Unit> {
-        var maxLocalVarIndex = -1
-        override fun visitJcRawLocalVar(value: JcRawLocalVar) {
-            maxLocalVarIndex = maxOf(maxLocalVarIndex, value.index)
-        }
-
-        override fun defaultVisitJcRawExpr(expr: JcRawExpr) {
-            visitOperands(expr.operands)
-        }
-
-        fun visitOperands(operands: List<JcRawExpr>) {
-            operands.forEach { it.accept(this) }
-        }
-    }
 }
-
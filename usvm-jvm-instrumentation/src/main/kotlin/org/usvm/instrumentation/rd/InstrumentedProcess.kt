@@ -13,12 +13,15 @@ import kotlinx.coroutines.withTimeoutOrNull
 import org.apache.commons.cli.DefaultParser
 import org.apache.commons.cli.Options
 import org.jacodb.api.jvm.JcClasspath
+import org.jacodb.api.jvm.ext.findClass
+import org.jacodb.api.jvm.ext.toType
 import org.jacodb.impl.JcRamErsSettings
 import org.jacodb.impl.features.InMemoryHierarchy
 import org.jacodb.impl.jacodb
 import org.usvm.instrumentation.generated.models.*
 import org.usvm.instrumentation.instrumentation.JcInstructionTracer
 import org.usvm.instrumentation.serializer.SerializationContext
+import org.usvm.instrumentation.testcase.descriptor.UTestExceptionDescriptor
 import org.usvm.instrumentation.serializer.UTestInstSerializer.Companion.registerUTestInstSerializer
 import org.usvm.instrumentation.serializer.UTestValueDescriptorSerializer.Companion.registerUTestValueDescriptorSerializer
 import org.usvm.test.api.UTest
@@ -26,7 +29,13 @@ import org.usvm.instrumentation.testcase.api.*
 import org.usvm.instrumentation.util.*
 import org.usvm.test.api.UTestCall
 import java.io.File
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
 import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
 import kotlin.time.DurationUnit
 import kotlin.time.toDuration
 
@@ -41,6 +50,10 @@ class InstrumentedProcess private constructor() {
 
     private lateinit var uTestExecutor: UTestExecutor
 
+    private val batchExecutor = Executors.newSingleThreadExecutor { runnable ->
+        Thread(runnable, "usvm-executor-batch-worker").apply { isDaemon = true }
+    }
+
     companion object {
 
         @JvmStatic
@@ -135,20 +148,67 @@ class InstrumentedProcess private constructor() {
 
     private fun InstrumentedProcessModel.setup() {
         callUTest.measureExecutionForTermination { serializedUTest ->
-            val uTest = UTest(serializedUTest.initStatements, serializedUTest.callMethodExpression as UTestCall)
-            val callRes = callUTest(uTest)
-            serializeExecutionResult(callRes)
+            val callRes = callUTest(serializedUTest.toUTest())
+            serializeExecutionResult(callRes, encodedClasses())
+        }
+        // Tests of a batch share the serialization context, so the instructions and descriptors shared by them
+        // are sent once, and the encoded classes are sent once for the whole batch
+        callUTestBatch.measureExecutionForTermination { batch ->
+            val timeout = batch.timeoutMs.milliseconds
+            val results = mutableListOf<ExecutionResult>()
+            for (serializedUTest in batch.uTests) {
+                val callRes = callUTest(serializedUTest.toUTest(), timeout)
+                results += serializeExecutionResult(callRes, classesToId = null)
+                // The timed out test is still running, so the rest of the batch is left to a new process
+                if (callRes is UTestExecutionTimedOutResult) {
+                    break
+                }
+            }
+            ExecutionResultBatch(encodedClasses(), results)
         }
     }
 
-    private fun serializeExecutionResult(uTestExecutionResult: UTestExecutionResult): ExecutionResult {
-        val classesToId = JcInstructionTracer.getEncodedClasses().entries.map { ClassToId(it.key.name, it.value) }
+    /**
+     * Executes the [uTest] on the [batchExecutor] thread to give it the [timeout],
+     * the thread is left running the test on timeout.
+     */
+    private fun callUTest(uTest: UTest, timeout: Duration): UTestExecutionResult {
+        val execution = batchExecutor.submit(Callable { callUTest(uTest) })
+        return try {
+            execution.get(timeout.inWholeMilliseconds, TimeUnit.MILLISECONDS)
+        } catch (e: TimeoutException) {
+            execution.cancel(true)
+            val cause = UTestExceptionDescriptor(
+                type = jcClasspath.findClass<Exception>().toType(),
+                message = "Test execution exceeded $timeout",
+                stackTrace = listOf(),
+                raisedByUserCode = false
+            )
+            UTestExecutionTimedOutResult(cause)
+        } catch (e: ExecutionException) {
+            throw e.cause ?: e
+        }
+    }
+
+    private fun SerializedUTest.toUTest(): UTest = UTest(initStatements, callMethodExpression as UTestCall)
+
+    private fun encodedClasses(): List<ClassToId> =
+        JcInstructionTracer.getEncodedClasses().entries.map { ClassToId(it.key.name, it.value) }
+
+    private fun coveredProbes(): List<MethodCoverage> =
+        JcInstructionTracer.coveredProbes().map { (methodId, probes) -> MethodCoverage(methodId, probes) }
+
+    private fun serializeExecutionResult(
+        uTestExecutionResult: UTestExecutionResult,
+        classesToId: List<ClassToId>?
+    ): ExecutionResult {
         return when (uTestExecutionResult) {
             is UTestExecutionExceptionResult -> ExecutionResult(
                 type = ExecutionResultType.UTestExecutionExceptionResult,
                 classes = classesToId,
                 cause = uTestExecutionResult.cause,
                 trace = JcInstructionTracer.coveredInstructionsIds(),
+                coverage = coveredProbes(),
                 initialState = serializeExecutionState(uTestExecutionResult.initialState),
                 result = null,
                 resultState = serializeExecutionState(uTestExecutionResult.resultState),
@@ -159,6 +219,7 @@ class InstrumentedProcess private constructor() {
                 classes = classesToId,
                 cause = uTestExecutionResult.cause,
                 trace = null,
+                coverage = null,
                 initialState = null,
                 result = null,
                 resultState = null
@@ -169,6 +230,7 @@ class InstrumentedProcess private constructor() {
                 classes = classesToId,
                 cause = uTestExecutionResult.cause,
                 trace = JcInstructionTracer.coveredInstructionsIds(),
+                coverage = coveredProbes(),
                 initialState = null,
                 result = null,
                 resultState = null
@@ -178,6 +240,7 @@ class InstrumentedProcess private constructor() {
                 type = ExecutionResultType.UTestExecutionSuccessResult,
                 classes = classesToId,
                 trace = JcInstructionTracer.coveredInstructionsIds(),
+                coverage = coveredProbes(),
                 initialState = serializeExecutionState(uTestExecutionResult.initialState),
                 result = uTestExecutionResult.result,
                 resultState = serializeExecutionState(uTestExecutionResult.resultState),
@@ -189,6 +252,7 @@ class InstrumentedProcess private constructor() {
                 classes = classesToId,
                 cause = uTestExecutionResult.cause,
                 trace = null,
+                coverage = null,
                 initialState = null,
                 result = null,
                 resultState = null
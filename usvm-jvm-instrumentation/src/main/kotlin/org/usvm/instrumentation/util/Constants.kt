@@ -14,6 +14,10 @@ object InstrumentationModuleConstants {
     const val concreteExecutorProcessTimeout = 120
     //If something gone wrong with RD
     const val triesToRecreateExecutorRdProcess = 3
+    //Max heap size of executor process
+    const val instrumentedProcessHeapSize = "1g"
+    //System property of executor process with directory of instrumented classes cache
+    const val instrumentedClassesCacheDirectoryProperty = "usvm.instrumented.classes.cache.directory"
     //Rollback strategy
     val testExecutorStaticsRollbackStrategy = StaticsRollbackStrategy.REINIT
     //Max depth of descriptor construction
@@ -60,6 +60,11 @@ object InstrumentedProcessModel : Ext(InstrumentedProcessRoot) {
         field("classId", PredefinedType.long)
     }
 
+    private val methodCoverage = structdef {
+        field("methodId", PredefinedType.long)
+        field("probes", immutableList(PredefinedType.long))
+    }
+
     private val executionResult = structdef {
         field("type", enum("ExecutionResultType") {
             +"UTestExecutionInitFailedResult"
@@ -70,16 +75,29 @@ object InstrumentedProcessModel : Ext(InstrumentedProcessRoot) {
         })
         field("classes", immutableList(classToId).nullable)
         field("trace", immutableList(PredefinedType.long).nullable)
+        field("coverage", immutableList(methodCoverage).nullable)
         field("cause", UTestValueDescriptor.nullable)
         field("result", UTestValueDescriptor.nullable)
         field("initialState", executionStateSerialized.nullable)
         field("resultState", executionStateSerialized.nullable)
     }
 
+    private val serializedUTestBatch = structdef {
+        field("uTests", immutableList(serializedUTest))
+        field("timeoutMs", PredefinedType.long)
+    }
+
+    private val executionResultBatch = structdef {
+        field("classes", immutableList(classToId))
+        field("results", immutableList(executionResult))
+    }
 
     init {
         call("callUTest", serializedUTest, executionResult).apply {
             async
         }
+        call("callUTestBatch", serializedUTestBatch, executionResultBatch).apply {
+            async
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package org.usvm.instrumentation.executor
+
+import kotlinx.coroutines.async
+import kotlinx.coroutines.channels.ClosedSendChannelException
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.yield
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.usvm.instrumentation.instrumentation.JcRuntimeTraceInstrumenterFactory
+import org.usvm.instrumentation.testcase.api.UTestExecutionExceptionResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionSuccessResult
+import org.usvm.instrumentation.testcase.descriptor.UTestConstantDescriptor
+import org.usvm.instrumentation.util.InstrumentationModuleConstants
+import org.usvm.instrumentation.util.UTestCreator
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
+import kotlin.test.assertIsNot
+import kotlin.test.assertTrue
+
+class ConcreteExecutorPoolTests : UTestConcreteExecutorTest() {
+
+    companion object {
+        private lateinit var pool: UTestConcreteExecutorPool
+
+        @BeforeAll
+        @JvmStatic
+        fun initClasspath() {
+            testJarPath = listOf("build/libs/usvm-jvm-instrumentation-test.jar")
+            init()
+            pool = UTestConcreteExecutorPool(
+                JcRuntimeTraceInstrumenterFactory::class,
+                testJarPath,
+                jcClasspath,
+                InstrumentationModuleConstants.testExecutionTimeout,
+                workersCount = 2
+            )
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun close() {
+            pool.close()
+            uTestConcreteExecutor.close()
+        }
+    }
+
+    @Test
+    fun `results are in order of tests`() = executeTest {
+        val uTests = List(3) { UTestCreator.A.arithmeticOperation(jcClasspath) } +
+                UTestCreator.A.exception(jcClasspath) +
+                UTestCreator.C.lol(jcClasspath)
+        val results = pool.executeAll(uTests)
+        assertEquals(uTests.size, results.size)
+        results.take(3).forEach { res ->
+            assertIs<UTestExecutionSuccessResult>(res)
+            val result = res.result
+            assertIs<UTestConstantDescriptor.Int>(result)
+            assertEquals(239, result.value)
+        }
+        assertIs<UTestExecutionExceptionResult>(results[3])
+        assertIs<UTestExecutionSuccessResult>(results[4])
+        assertTrue(pool.coveredInstructions.isNotEmpty())
+    }
+
+    @Test
+    fun `closing pool doesn't hide results of running tests`() = executeTest {
+        val closedPool = UTestConcreteExecutorPool(
+            JcRuntimeTraceInstrumenterFactory::class,
+            testJarPath,
+            jcClasspath,
+            InstrumentationModuleConstants.testExecutionTimeout,
+            workersCount = 1
+        )
+        val uTest = UTestCreator.SleepingClass.sleepFor(jcClasspath, 1_000L)
+        val result = coroutineScope {
+            val execution = async { runCatching { closedPool.executeAsync(uTest) } }
+            // Let the execution take the worker
+            yield()
+            closedPool.close()
+            execution.await()
+        }
+        assertIsNot<ClosedSendChannelException>(result.exceptionOrNull())
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Disabled
 import org.junit.jupiter.api.Test
 import org.usvm.instrumentation.testcase.api.UTestExecutionExceptionResult
 import org.usvm.instrumentation.testcase.api.UTestExecutionSuccessResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionTimedOutResult
 import org.usvm.instrumentation.testcase.descriptor.UTestConstantDescriptor
 import org.usvm.instrumentation.util.UTestCreator
 import kotlin.test.assertContains
@@ -42,6 +43,37 @@ class ConcreteExecutorTests: UTestConcreteExecutorTest() {
         assertIs<UTestExecutionSuccessResult>(res)
     }
 
+    @Test
+    fun `batch execution`() = executeTest {
+        val uTests = listOf(
+            UTestCreator.A.arithmeticOperation(jcClasspath),
+            UTestCreator.A.exception(jcClasspath),
+            UTestCreator.C.lol(jcClasspath)
+        )
+        val results = uTestConcreteExecutor.executeBatchAsync(uTests)
+        assertEquals(uTests.size, results.size)
+        val arithmeticResult = results[0]
+        assertIs<UTestExecutionSuccessResult>(arithmeticResult)
+        val result = arithmeticResult.result
+        assertIs<UTestConstantDescriptor.Int>(result)
+        assertEquals(239, result.value)
+        assertNotNull(arithmeticResult.trace)
+        assertIs<UTestExecutionExceptionResult>(results[1])
+        assertIs<UTestExecutionSuccessResult>(results[2])
+    }
+
+    @Test
+    fun `batch execution after timeout`() = executeTest {
+        val uTests = listOf(
+            UTestCreator.SleepingClass.sleepFor(jcClasspath, 60_000L),
+            UTestCreator.A.arithmeticOperation(jcClasspath)
+        )
+        val results = uTestConcreteExecutor.executeBatchAsync(uTests)
+        assertEquals(uTests.size, results.size)
+        assertIs<UTestExecutionTimedOutResult>(results[0])
+        assertIs<UTestExecutionSuccessResult>(results[1])
+    }
+
     @Test
     fun `arithmetic operation`() = executeTest {
         val uTest = UTestCreator.A.arithmeticOperation(jcClasspath)
@@ -0,0 +1,76 @@
+package org.usvm.instrumentation.executor
+
+import org.jacodb.api.jvm.ext.findClass
+import org.jacodb.api.jvm.ext.findDeclaredMethodOrNull
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.usvm.instrumentation.instrumentation.JcInstructionTracer
+import org.usvm.instrumentation.instrumentation.JcRuntimeCoverageInstrumenterFactory
+import org.usvm.instrumentation.testcase.api.UTestExecutionExceptionResult
+import org.usvm.instrumentation.testcase.api.UTestExecutionSuccessResult
+import org.usvm.instrumentation.util.InstrumentationModuleConstants
+import org.usvm.instrumentation.util.UTestCreator
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
+import kotlin.test.assertNotNull
+import kotlin.test.assertTrue
+
+class CoverageInstrumentationTests : UTestConcreteExecutorTest() {
+
+    companion object {
+        private lateinit var coverageExecutor: UTestConcreteExecutor
+
+        @BeforeAll
+        @JvmStatic
+        fun initClasspath() {
+            testJarPath = listOf("build/libs/usvm-jvm-instrumentation-test.jar")
+            init()
+            coverageExecutor = UTestConcreteExecutor(
+                JcRuntimeCoverageInstrumenterFactory::class,
+                testJarPath,
+                jcClasspath,
+                InstrumentationModuleConstants.testExecutionTimeout
+            )
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun close() {
+            coverageExecutor.close()
+            uTestConcreteExecutor.close()
+        }
+    }
+
+    @Test
+    fun `coverage is equal to trace`() = executeTest {
+        val uTest = UTestCreator.A.arithmeticOperation(jcClasspath)
+        val traceResult = uTestConcreteExecutor.executeAsync(uTest)
+        val coverageResult = coverageExecutor.executeAsync(uTest)
+        assertIs<UTestExecutionSuccessResult>(traceResult)
+        assertIs<UTestExecutionSuccessResult>(coverageResult)
+        val trace = assertNotNull(traceResult.trace)
+        val coverage = assertNotNull(coverageResult.trace)
+        assertTrue(coverage.isNotEmpty())
+        assertEquals(trace.toSet(), coverage.toSet())
+    }
+
+    @Test
+    fun `coverage of exceptional execution`() = executeTest {
+        val uTest = UTestCreator.A.exception(jcClasspath)
+        val traceResult = uTestConcreteExecutor.executeAsync(uTest)
+        val coverageResult = coverageExecutor.executeAsync(uTest)
+        assertIs<UTestExecutionExceptionResult>(traceResult)
+        assertIs<UTestExecutionExceptionResult>(coverageResult)
+        assertEquals(traceResult.trace?.toSet(), coverageResult.trace?.toSet())
+    }
+
+    @Test
+    fun `probes of a method are registered once`() {
+        val jcMethod = jcClasspath.findClass<example.A>().findDeclaredMethodOrNull("returnField")
+        val instructions = assertNotNull(jcMethod).instList.instructions
+        val methodProbesId = JcInstructionTracer.registerProbes(jcMethod, instructions)
+        // Classes loaded again by another classloader are instrumented again
+        assertEquals(methodProbesId, JcInstructionTracer.registerProbes(jcMethod, instructions))
+    }
+}
@@ -0,0 +1,141 @@
+package org.usvm.instrumentation.executor
+
+import org.jacodb.api.jvm.ext.findClass
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.usvm.instrumentation.agent.InstrumentedClassesCache
+import org.usvm.instrumentation.instrumentation.JcInstrumenter
+import org.usvm.instrumentation.instrumentation.JcInstrumenterFactory
+import org.usvm.instrumentation.instrumentation.JcRuntimeCoverageInstrumenterFactory
+import org.usvm.instrumentation.instrumentation.JcRuntimeTraceInstrumenterFactory
+import org.usvm.instrumentation.testcase.api.UTestExecutionSuccessResult
+import org.usvm.instrumentation.util.InstrumentationModuleConstants
+import org.usvm.instrumentation.util.UTestCreator
+import org.usvm.jvm.util.toByteArray
+import org.usvm.jvm.util.toClassNode
+import org.usvm.test.api.UTest
+import java.io.File
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.io.path.listDirectoryEntries
+import kotlin.io.path.readBytes
+import kotlin.io.path.writeBytes
+import kotlin.reflect.KClass
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class InstrumentedClassesCacheTests : UTestConcreteExecutorTest() {
+
+    companion object {
+        private lateinit var cacheDirectory: Path
+
+        private val instrumenterFactoryName = JcRuntimeTraceInstrumenterFactory::class.java.name
+        private val instrumentationVersion = byteArrayOf(1)
+
+        @BeforeAll
+        @JvmStatic
+        fun initClasspath() {
+            testJarPath = listOf("build/libs/usvm-jvm-instrumentation-test.jar")
+            init()
+            cacheDirectory = Files.createTempDirectory("usvm-instrumented-classes")
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun close() {
+            uTestConcreteExecutor.close()
+            cacheDirectory.toFile().deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `trace of cached classes`() = executeTest {
+        val uTest = UTestCreator.Singleton.addToArray(jcClasspath)
+        val expected = uTestConcreteExecutor.executeAsync(uTest)
+        assertIs<UTestExecutionSuccessResult>(expected)
+
+        // The first process instruments the classes and the second one loads them from the cache
+        repeat(2) {
+            val result = executeWithCache(JcRuntimeTraceInstrumenterFactory::class, uTest)
+            assertIs<UTestExecutionSuccessResult>(result)
+            assertEquals(expected.trace?.toSet(), result.trace?.toSet())
+            assertEquals(expected.resultState.statics.keys, result.resultState.statics.keys)
+        }
+        assertTrue(cacheDirectory.listDirectoryEntries("*.class").isNotEmpty())
+    }
+
+    @Test
+    fun `coverage of cached classes`() = executeTest {
+        val uTest = UTestCreator.A.arithmeticOperation(jcClasspath)
+        val expected = uTestConcreteExecutor.executeAsync(uTest)
+        assertIs<UTestExecutionSuccessResult>(expected)
+
+        repeat(2) {
+            val result = executeWithCache(JcRuntimeCoverageInstrumenterFactory::class, uTest)
+            assertIs<UTestExecutionSuccessResult>(result)
+            assertEquals(expected.trace?.toSet(), result.trace?.toSet())
+        }
+    }
+
+    @Test
+    fun `instrumented class is loaded from cache`() {
+        val directory = Files.createTempDirectory("usvm-instrumented-classes")
+        try {
+            val classfileBuffer = jcClasspath.findClass<example.A>().bytecode()
+            storeInstrumented(directory, classfileBuffer)
+
+            val cache = InstrumentedClassesCache(directory, instrumenterFactoryName, instrumentationVersion)
+            assertNotNull(cache.load(classfileBuffer, jcClasspath))
+            assertEquals(1, cache.hits)
+
+            // Classes instrumented by another version of the instrumentation are never loaded
+            val anotherVersionCache = InstrumentedClassesCache(directory, instrumenterFactoryName, byteArrayOf(2))
+            assertNull(anotherVersionCache.load(classfileBuffer, jcClasspath))
+        } finally {
+            directory.toFile().deleteRecursively()
+        }
+    }
+
+    @Test
+    fun `corrupted file is a cache miss`() {
+        val directory = Files.createTempDirectory("usvm-instrumented-classes")
+        try {
+            val classfileBuffer = jcClasspath.findClass<example.A>().bytecode()
+            storeInstrumented(directory, classfileBuffer)
+            for (file in directory.listDirectoryEntries("*.class")) {
+                val bytes = file.readBytes()
+                file.writeBytes(bytes.copyOf(bytes.size / 2))
+            }
+
+            val cache = InstrumentedClassesCache(directory, instrumenterFactoryName, instrumentationVersion)
+            assertNull(cache.load(classfileBuffer, jcClasspath))
+            assertEquals(0, cache.hits)
+        } finally {
+            directory.toFile().deleteRecursively()
+        }
+    }
+
+    private fun storeInstrumented(directory: Path, classfileBuffer: ByteArray) {
+        val instrumenter = JcRuntimeTraceInstrumenterFactory().create(jcClasspath)
+        val instrumentedClass = instrumenter.instrumentClass(classfileBuffer.toClassNode())
+            .toByteArray(jcClasspath, checkClass = true)
+        InstrumentedClassesCache(directory, instrumenterFactoryName, instrumentationVersion)
+            .store(classfileBuffer, instrumentedClass, jcClasspath)
+        assertTrue(directory.listDirectoryEntries("*.class").isNotEmpty())
+    }
+
+    private suspend fun executeWithCache(
+        instrumentationClassFactory: KClass<out JcInstrumenterFactory<out JcInstrumenter>>,
+        uTest: UTest
+    ) = UTestConcreteExecutor(
+        instrumentationClassFactory,
+        testJarPath.joinToString(File.pathSeparator),
+        jcClasspath,
+        InstrumentationModuleConstants.testExecutionTimeout,
+        instrumentedClassesCacheDirectory = cacheDirectory
+    ).use { it.executeAsync(uTest) }
+}
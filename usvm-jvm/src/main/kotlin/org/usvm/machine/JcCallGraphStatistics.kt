@@ -2,13 +2,16 @@ package org.usvm.machine
 
 import org.jacodb.api.jvm.JcMethod
 import org.jacodb.api.jvm.JcType
+import org.jacodb.api.jvm.cfg.JcInst
 import org.jacodb.api.jvm.ext.toType
 import org.usvm.algorithms.limitedBfsTraversal
+import org.usvm.statistics.ApplicationGraphIndex
 import org.usvm.statistics.distances.CallGraphStatistics
 import org.usvm.types.TypesResult
 import org.usvm.types.UTypeStream
 import org.usvm.util.canBeOverridden
 import org.usvm.util.findMethod
+import java.util.BitSet
 import java.util.concurrent.ConcurrentHashMap
 
 /**
@@ -21,15 +24,17 @@ import java.util.concurrent.ConcurrentHashMap
  * @param typeStream [UTypeStream] used to resolve method overrides.
  * @param subclassesToTake only method overrides from [subclassesToTake] first subtypes returned by [typeStream] are
  * considered during traversal. If equal to zero, method overrides are not considered during traversal at all.
+ * @param index the dense ids of methods of [applicationGraph], reachable methods are kept as bitsets of these ids.
  */
 class JcCallGraphStatistics(
     private val depthLimit: UInt,
     private val applicationGraph: JcApplicationGraph,
     private val typeStream: UTypeStream<JcType>,
-    private val subclassesToTake: Int = 0
+    private val subclassesToTake: Int = 0,
+    private val index: ApplicationGraphIndex<JcMethod, JcInst> = ApplicationGraphIndex(applicationGraph),
 ) : CallGraphStatistics<JcMethod> {
 
-    private val cache = ConcurrentHashMap<JcMethod, Set<JcMethod>>()
+    private val cache = ConcurrentHashMap<JcMethod, BitSet>()
 
     private fun getCallees(method: JcMethod): Set<JcMethod> {
         val callees = mutableSetOf<JcMethod>()
@@ -69,6 +74,9 @@ class JcCallGraphStatistics(
     override fun checkReachability(methodFrom: JcMethod, methodTo: JcMethod): Boolean =
         cache.computeIfAbsent(methodFrom) {
             // TODO: stop traversal on reaching methodTo and cache remaining elements
-            limitedBfsTraversal(listOf(methodFrom), depthLimit, adjacentVertices = { getCallees(it).asSequence() }).toSet()
-        }.contains(methodTo)
+            val reachable = BitSet()
+            limitedBfsTraversal(listOf(methodFrom), depthLimit, adjacentVertices = { getCallees(it).asSequence() })
+                .forEach { reachable.set(index.methodId(it)) }
+            reachable
+        }.get(index.methodId(methodTo))
 }
@@ -0,0 +1,149 @@
+package org.usvm.machine
+
+import org.jacodb.api.jvm.JcClassOrInterface
+import org.jacodb.api.jvm.JcClasspath
+import org.jacodb.api.jvm.JcMethod
+import org.usvm.statistics.distances.CfgDistances
+import org.usvm.statistics.distances.CfgDistancesStorage
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+import kotlin.io.path.createDirectories
+import kotlin.io.path.exists
+import kotlin.io.path.inputStream
+import kotlin.io.path.outputStream
+
+/**
+ * Keeps [CfgDistances] of methods in files in the [directory], a file per class, e.g. next to the jacodb database.
+ *
+ * A file is named after the hash of the class name and bytecode and the jacodb version and classpath features
+ * building the instructions, so the distances of a changed class are never loaded, and files of a class are loaded
+ * on the first request for any of its methods.
+ * Failures to read or write files are logged and otherwise ignored, as the distances can always be recomputed.
+ */
+class JcCfgDistancesFileStorage(
+    private val directory: Path,
+) : CfgDistancesStorage<JcMethod> {
+    private val classDistances = ConcurrentHashMap<JcClassOrInterface, Map<String, CfgDistances>>()
+    private val irVersions = ConcurrentHashMap<JcClasspath, ByteArray>()
+
+    override fun load(method: JcMethod): CfgDistances? =
+        classDistances.computeIfAbsent(method.enclosingClass, ::readClass)[method.key]
+
+    override fun store(distances: Map<JcMethod, CfgDistances>) {
+        distances.entries.groupBy { it.key.enclosingClass }.forEach { (jcClass, methods) ->
+            val stored = classDistances[jcClass].orEmpty()
+            val updated = stored + methods.associate { (method, methodDistances) -> method.key to methodDistances }
+            classDistances[jcClass] = updated
+            writeClass(jcClass, updated)
+        }
+    }
+
+    private val JcMethod.key: String get() = name + description
+
+    private fun JcClassOrInterface.file(): Path {
+        val digest = MessageDigest.getInstance("SHA-256")
+        digest.update(name.toByteArray())
+        digest.update(bytecode())
+        digest.update(irVersions.computeIfAbsent(classpath) { irVersion(this) })
+        val hash = digest.digest().joinToString(separator = "") { "%02x".format(it) }
+        return directory.resolve("$hash.cfg")
+    }
+
+    /**
+     * The instructions of methods, which the distances are computed over, depend on the jacodb implementation
+     * and the classpath features.
+     */
+    private fun irVersion(jcClass: JcClassOrInterface): ByteArray {
+        val implementation = jcClass.javaClass
+        val jacodbVersion = implementation.`package`?.implementationVersion
+            ?: implementation.protectionDomain?.codeSource?.location?.toString()
+        val features = jcClass.classpath.features.orEmpty().map { it.javaClass.name }
+        return (listOf(jacodbVersion) + features).joinToString(separator = "\n").toByteArray()
+    }
+
+    private fun readClass(jcClass: JcClassOrInterface): Map<String, CfgDistances> {
+        val file = jcClass.file()
+        if (!file.exists()) {
+            return emptyMap()
+        }
+
+        return try {
+            DataInputStream(GZIPInputStream(file.inputStream()).buffered()).use { input ->
+                if (input.readInt() != FORMAT_VERSION) {
+                    return emptyMap()
+                }
+
+                val methodsCount = input.readInt()
+                check(methodsCount >= 0) { "Negative methods count: $methodsCount" }
+                HashMap<String, CfgDistances>(methodsCount * 2).apply {
+                    repeat(methodsCount) {
+                        val key = input.readUTF()
+                        val size = input.readInt()
+                        check(size >= 0) { "Negative method size: $size" }
+                        val distancesToExit = input.readIntArray(size)
+                        val rows = arrayOfNulls<IntArray>(size)
+                        repeat(input.readInt()) {
+                            rows[input.readInt()] = input.readIntArray(size)
+                        }
+                        put(key, CfgDistances(rows, distancesToExit))
+                    }
+                }
+            }
+        } catch (e: Exception) {
+            // Any failure on a corrupted file is a cache miss, e.g., an out of bounds row index
+            logger.warn(e) { "Failed to read CFG distances of ${jcClass.name} from $file" }
+            emptyMap()
+        }
+    }
+
+    private fun writeClass(jcClass: JcClassOrInterface, distances: Map<String, CfgDistances>) {
+        val file = jcClass.file()
+        try {
+            directory.createDirectories()
+            // Written to a temporary file first, so that concurrent runs never read a partially written file
+            val tmpFile = Files.createTempFile(directory, file.fileName.toString(), ".tmp")
+            try {
+                writeDistances(tmpFile, distances)
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE)
+            } finally {
+                Files.deleteIfExists(tmpFile)
+            }
+        } catch (e: Exception) {
+            logger.warn(e) { "Failed to write CFG distances of ${jcClass.name} to $file" }
+        }
+    }
+
+    private fun writeDistances(file: Path, distances: Map<String, CfgDistances>) {
+        DataOutputStream(GZIPOutputStream(file.outputStream()).buffered()).use { output ->
+            output.writeInt(FORMAT_VERSION)
+            output.writeInt(distances.size)
+            for ((key, methodDistances) in distances) {
+                output.writeUTF(key)
+                output.writeInt(methodDistances.size)
+                output.writeIntArray(methodDistances.distancesToExit)
+                output.writeInt(methodDistances.rows.count { it != null })
+                methodDistances.rows.forEachIndexed { from, row ->
+                    if (row != null) {
+                        output.writeInt(from)
+                        output.writeIntArray(row)
+                    }
+                }
+            }
+        }
+    }
+
+    private fun DataInputStream.readIntArray(size: Int): IntArray = IntArray(size) { readInt() }
+
+    private fun DataOutputStream.writeIntArray(array: IntArray) = array.forEach { writeInt(it) }
+
+    private companion object {
+        const val FORMAT_VERSION = 1
+    }
+}
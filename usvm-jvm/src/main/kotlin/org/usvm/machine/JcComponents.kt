@@ -1,6 +1,7 @@
 package org.usvm.machine
 
 import org.jacodb.api.jvm.JcType
+import org.usvm.SolverType
 import org.usvm.UBv32SizeExprProvider
 import org.usvm.UComponents
 import org.usvm.UComposer
@@ -11,22 +12,62 @@ import org.usvm.collections.immutable.internal.MutabilityOwnership
 import org.usvm.memory.UReadOnlyMemory
 import org.usvm.model.ULazyModelDecoder
 import org.usvm.solver.UExprTranslator
+import org.usvm.solver.UPortfolioStatistics
 import org.usvm.solver.USoftConstraintsProvider
 import org.usvm.solver.USolverBase
+import org.usvm.solver.USolverQueryCache
+import org.usvm.solver.USolverQueryCacheStatistics
+import org.usvm.solver.USolverQueryRecorder
+import org.usvm.solver.UTranslationCacheManager
+import org.usvm.solver.UTranslationCacheStatistics
 import org.usvm.solver.UTypeSolver
+import java.util.Collections
+import kotlin.io.path.Path
 
 class JcComponents(
     private val typeSystem: JcTypeSystem,
     // TODO specific JcMachineOptions should be here
     private val options: UMachineOptions,
 ) : UComponents<JcType, USizeSort> {
-    private val closeableResources = mutableListOf<AutoCloseable>()
+    /**
+     * Hit and miss counters shared by the query caches of all the solvers made by these components.
+     */
+    val solverQueryCacheStatistics = USolverQueryCacheStatistics()
+
+    /**
+     * Backend wins shared by all the [SolverType.PORTFOLIO] solvers made by these components.
+     */
+    val portfolioStatistics = UPortfolioStatistics()
+
+    /**
+     * Counters shared by the translation caches of all the solvers made by these components.
+     */
+    val translationCacheStatistics = UTranslationCacheStatistics()
+
+    /**
+     * The recorder of queries of all the solvers made by these components,
+     * if [UMachineOptions.solverQueriesDirectory] is set.
+     */
+    val solverQueryRecorder: USolverQueryRecorder? =
+        options.solverQueriesDirectory?.let { USolverQueryRecorder(Path(it)) }
+
+    // Solvers may be created concurrently by the workers of a parallel machine
+    private val closeableResources: MutableList<AutoCloseable> = Collections.synchronizedList(mutableListOf())
     override val useSolverForForks: Boolean get() = options.useSolverForForks
+    override val deferForkChecks: Boolean get() = options.deferForkChecks
+    override val maxModelsPerState: Int get() = options.maxModelsPerState ?: Int.MAX_VALUE
+
+    // Shared by all the solvers, so that they use the same pool of solver processes
+    private val solverFactory by lazy {
+        SolverFactory.mkFactory(options.runSolverInAnotherProcess, options.solverPoolSize)
+            .also { closeableResources += it }
+    }
 
     override fun <Context : UContext<USizeSort>> buildTranslatorAndLazyDecoder(
         ctx: Context,
     ): Pair<UExprTranslator<JcType, USizeSort>, ULazyModelDecoder<JcType>> {
-        val translator = JcExprTranslator(ctx)
+        val translationCaches = UTranslationCacheManager(options.translationCacheSize, translationCacheStatistics)
+        val translator = JcExprTranslator(ctx, translationCaches)
         val decoder: ULazyModelDecoder<JcType> = ULazyModelDecoder(translator)
 
         return translator to decoder
@@ -40,17 +81,35 @@ class JcComponents(
     override fun <Context : UContext<USizeSort>> mkSolver(ctx: Context): USolverBase<JcType> {
         val (translator, decoder) = buildTranslatorAndLazyDecoder(ctx)
 
-        val solverFactory = SolverFactory.mkFactory(options.runSolverInAnotherProcess)
-        val smtSolver = solverFactory.mkSolver(ctx, options.solverType)
+        val smtSolver = solverFactory.mkSolver(ctx, options.solverType, portfolioStatistics)
         val typeSolver = UTypeSolver(typeSystem)
         closeableResources += smtSolver
-        closeableResources += solverFactory
 
-        return USolverBase(ctx, smtSolver, typeSolver, translator, decoder, options.solverTimeout)
+        return USolverBase(
+            ctx,
+            smtSolver,
+            typeSolver,
+            translator,
+            decoder,
+            options.solverTimeout,
+            options.useIncrementalSolver,
+            mkSolverQueryCache(),
+            options.useConstraintSlicing,
+            solverQueryRecorder,
+        )
+    }
+
+    private fun mkSolverQueryCache(): USolverQueryCache<JcType>? {
+        if (options.solverQueryCacheSize <= 0) {
+            return null
+        }
+
+        return USolverQueryCache(options.solverQueryCacheSize, solverQueryCacheStatistics)
     }
 
     fun close() {
-        closeableResources.forEach(AutoCloseable::close)
+        // Solvers are closed before the factory they were made by
+        closeableResources.asReversed().forEach(AutoCloseable::close)
     }
 
     override fun mkTypeSystem(ctx: UContext<USizeSort>): JcTypeSystem {
@@ -18,6 +18,7 @@ import org.usvm.machine.state.JcMethodResult
 import org.usvm.machine.state.JcState
 import org.usvm.machine.state.lastStmt
 import org.usvm.ps.createPathSelector
+import org.usvm.statistics.ApplicationGraphIndex
 import org.usvm.statistics.CompositeUMachineObserver
 import org.usvm.statistics.CoverageStatistics
 import org.usvm.statistics.StatisticsByMethodPrinter
@@ -25,10 +26,14 @@ import org.usvm.statistics.StepsStatistics
 import org.usvm.statistics.TimeStatistics
 import org.usvm.statistics.TransitiveCoverageZoneObserver
 import org.usvm.statistics.UMachineObserver
+import org.usvm.statistics.UProfilingObserver
 import org.usvm.statistics.collectors.AllStatesCollector
 import org.usvm.statistics.collectors.CoveredNewStatesCollector
 import org.usvm.statistics.collectors.TargetsReachedStatesCollector
 import org.usvm.statistics.constraints.SoftConstraintsObserver
+import org.usvm.statistics.constraints.SolverQueryCacheObserver
+import org.usvm.statistics.constraints.SolverQueryRecorderObserver
+import org.usvm.statistics.constraints.TranslationCacheObserver
 import org.usvm.statistics.distances.CfgStatistics
 import org.usvm.statistics.distances.CfgStatisticsImpl
 import org.usvm.statistics.distances.InterprocDistance
@@ -37,6 +42,7 @@ import org.usvm.statistics.distances.MultiTargetDistanceCalculator
 import org.usvm.statistics.distances.PlainCallGraphStatistics
 import org.usvm.stopstrategies.createStopStrategy
 import org.usvm.util.originalInst
+import kotlin.io.path.Path
 
 val logger = object : KLogging() {}.logger
 
@@ -54,7 +60,13 @@ class JcMachine(
 
     private val interpreter = JcInterpreter(ctx, applicationGraph, jcMachineOptions, interpreterObserver)
 
-    private val cfgStatistics = CfgStatisticsImpl(applicationGraph)
+    // Dense ids of methods and statements shared by the statistics
+    private val applicationGraphIndex = ApplicationGraphIndex(applicationGraph)
+    private val cfgStatistics = CfgStatisticsImpl(
+        applicationGraph,
+        applicationGraphIndex,
+        jcMachineOptions.cfgDistancesCacheDirectory?.let(::JcCfgDistancesFileStorage),
+    )
 
     fun analyze(methods: List<JcMethod>, targets: List<JcTarget> = emptyList()): List<JcState> {
         logger.debug("{}.analyze({})", this, methods)
@@ -75,6 +87,12 @@ class JcMachine(
                 }.toSet() + methods
             }
 
+        val cfgStatisticsPrecomputationDepth = options.cfgStatisticsPrecomputationDepth
+        if (cfgStatisticsPrecomputationDepth != null) {
+            val precomputedMethods = cfgStatistics.precompute(methodsToTrackCoverage, cfgStatisticsPrecomputationDepth)
+            logger.debug("Precomputed CFG distances in {} methods", precomputedMethods)
+        }
+
         val coverageStatistics: CoverageStatistics<JcMethod, JcInst, JcState> = CoverageStatistics(
             methodsToTrackCoverage,
             applicationGraph
@@ -87,7 +105,8 @@ class JcMachine(
                     options.targetSearchDepth,
                     applicationGraph,
                     typeSystem.topTypeStream(),
-                    subclassesToTake = 10
+                    subclassesToTake = 10,
+                    index = applicationGraphIndex,
                 )
             }
 
@@ -104,7 +123,8 @@ class JcMachine(
             { coverageStatistics },
             { transparentCfgStatistics },
             { callGraphStatistics },
-            { loopTracker }
+            { loopTracker },
+            stateLanguageKey = { it.methodResult }
         )
 
         val statesCollector =
@@ -174,6 +194,27 @@ class JcMachine(
             observers.add(SoftConstraintsObserver())
         }
 
+        if (options.solverQueryCacheSize > 0) {
+            observers.add(SolverQueryCacheObserver(components.solverQueryCacheStatistics, logger::info))
+        }
+
+        if (options.translationCacheSize > 0) {
+            observers.add(TranslationCacheObserver(components.translationCacheStatistics, logger::info))
+        }
+
+        components.solverQueryRecorder?.let { recorder ->
+            observers.add(SolverQueryRecorderObserver(recorder, logger::info))
+        }
+
+        observers.add(
+            UProfilingObserver<JcMethod, JcInst, JcState>(
+                options.profilingDirectory?.let { Path(it) },
+                printStatement = { "${it.location.index}: $it" },
+                printMethod = { it.humanReadableSignature },
+                print = logger::info,
+            )
+        )
+
         if (logger.isInfoEnabled) {
             observers.add(
                 StatisticsByMethodPrinter(
@@ -199,6 +240,8 @@ class JcMachine(
             stopStrategy = stopStrategy,
         )
 
+        cfgStatistics.storeDistances()
+
         return statesCollector.collectedStates
     }
 
@@ -1,5 +1,7 @@
 package org.usvm.machine
 
+import java.nio.file.Path
+
 /**
  * JcMachine specific options.
  * */
@@ -19,4 +21,10 @@ data class JcMachineOptions(
      * Hard constraint for maximal array size.
      * */
     val arrayMaxSize: Int = 1_500,
+
+    /**
+     * Directory where CFG distances are kept between runs, e.g. next to the jacodb database.
+     * Distances of a class are recomputed when its bytecode changes. If null, distances are not kept.
+     * */
+    val cfgDistancesCacheDirectory: Path? = null,
 )
@@ -1,34 +1,63 @@
 package org.usvm.machine
 
 import io.ksmt.KContext
+import io.ksmt.expr.KExpr
 import io.ksmt.solver.KSolver
 import io.ksmt.solver.KSolverConfiguration
+import io.ksmt.solver.KSolverStatus
 import io.ksmt.solver.KTheory
+import io.ksmt.solver.cvc5.KCvc5Solver
 import io.ksmt.solver.runner.KSolverRunnerManager
 import io.ksmt.solver.yices.KYicesSolver
 import io.ksmt.solver.yices.KYicesSolverConfiguration
 import io.ksmt.solver.yices.KYicesSolverUniversalConfiguration
 import io.ksmt.solver.z3.KZ3Solver
+import io.ksmt.sort.KBoolSort
 import io.ksmt.symfpu.solver.KSymFpuSolver
 import org.usvm.SolverType
 import org.usvm.UContext
+import org.usvm.solver.UPortfolioSolver
+import org.usvm.solver.UPortfolioStatistics
+import kotlin.time.Duration
 
 internal interface SolverFactory : AutoCloseable {
+    /**
+     * @param portfolioStatistics the statistics of backend wins used by [SolverType.PORTFOLIO] solvers.
+     */
     fun <Context : UContext<USizeSort>> mkSolver(
         ctx: Context,
-        solverType: SolverType
+        solverType: SolverType,
+        portfolioStatistics: UPortfolioStatistics,
     ): KSolver<out KSolverConfiguration>
 
+    fun <Context : UContext<USizeSort>> mkCvc5Solver(ctx: Context): KSolver<out KSolverConfiguration>
+
+    fun <Context : UContext<USizeSort>> mkPortfolioSolver(
+        ctx: Context,
+        statistics: UPortfolioStatistics,
+    ): KSolver<out KSolverConfiguration> = UPortfolioSolver(
+        mapOf(
+            "z3" to mkSolver(ctx, SolverType.Z3, statistics),
+            "yices" to mkSolver(ctx, SolverType.YICES, statistics),
+            "cvc5" to mkCvc5Solver(ctx),
+        ),
+        statistics,
+    )
+
     companion object {
-        fun mkFactory(runSolverInAnotherProcess: Boolean): SolverFactory =
-            if (runSolverInAnotherProcess) AnotherProcessSolverFactory() else SameProcessSolverFactory
+        fun mkFactory(runSolverInAnotherProcess: Boolean, poolSize: Int = 1): SolverFactory {
+            // Checked before the pool is created by KSMT
+            require(poolSize > 0) { "Solver pool size must be positive: $poolSize" }
+            return if (runSolverInAnotherProcess) AnotherProcessSolverFactory(poolSize) else SameProcessSolverFactory
+        }
     }
 }
 
 private object SameProcessSolverFactory : SolverFactory {
     override fun <Context : UContext<USizeSort>> mkSolver(
         ctx: Context,
-        solverType: SolverType
+        solverType: SolverType,
+        portfolioStatistics: UPortfolioStatistics,
     ): KSolver<out KSolverConfiguration> = when (solverType) {
         // Yices with Fp support via SymFpu
         SolverType.YICES -> KSymFpuSolver(KYicesSolver(ctx), ctx).apply {
@@ -43,15 +72,31 @@ private object SameProcessSolverFactory : SolverFactory {
                 optimizeForTheories(setOf(KTheory.Array, KTheory.BV, KTheory.UF, KTheory.FP))
             }
         }
+
+        SolverType.PORTFOLIO -> mkPortfolioSolver(ctx, portfolioStatistics)
     }
 
+    override fun <Context : UContext<USizeSort>> mkCvc5Solver(ctx: Context): KSolver<out KSolverConfiguration> =
+        KCvc5Solver(ctx).apply {
+            configure {
+                optimizeForTheories(setOf(KTheory.Array, KTheory.BV, KTheory.UF, KTheory.FP))
+            }
+        }
+
     override fun close() {
         // Do nothing
     }
 }
 
-private class AnotherProcessSolverFactory : SolverFactory {
-    private val solverManager: KSolverRunnerManager = KSolverRunnerManager()
+/**
+ * Runs solvers in a pool of [poolSize] external processes, so that native solver crashes don't kill the analysis
+ * and queries of different solvers are solved concurrently.
+ *
+ * The runners restart dead and hung processes and restore asserted constraints in them,
+ * while [RetryingSolver] repeats the query interrupted by a restart.
+ */
+private class AnotherProcessSolverFactory(poolSize: Int) : SolverFactory {
+    private val solverManager: KSolverRunnerManager = KSolverRunnerManager(workerPoolSize = poolSize)
 
     init {
         // YicesWithSymFpu is custom solver, so we need to register it
@@ -60,26 +105,84 @@ private class AnotherProcessSolverFactory : SolverFactory {
 
     override fun <Context : UContext<USizeSort>> mkSolver(
         ctx: Context,
-        solverType: SolverType
+        solverType: SolverType,
+        portfolioStatistics: UPortfolioStatistics,
     ): KSolver<out KSolverConfiguration> = when (solverType) {
         // Yices with Fp support via SymFpu
-        SolverType.YICES -> solverManager.createSolver(ctx, YicesWithSymFpu::class).apply {
+        SolverType.YICES -> RetryingSolver(solverManager.createSolver(ctx, YicesWithSymFpu::class).apply {
             configure {
                 // Fp theory is handled by the SymFpu
                 optimizeForTheories(setOf(KTheory.Array, KTheory.BV, KTheory.UF))
             }
-        }
+        })
 
-        SolverType.Z3 -> solverManager.createSolver(ctx, KZ3Solver::class).apply {
+        SolverType.Z3 -> RetryingSolver(solverManager.createSolver(ctx, KZ3Solver::class).apply {
             configure {
                 optimizeForTheories(setOf(KTheory.Array, KTheory.BV, KTheory.UF, KTheory.FP))
             }
-        }
+        })
+
+        SolverType.PORTFOLIO -> mkPortfolioSolver(ctx, portfolioStatistics)
     }
 
+    override fun <Context : UContext<USizeSort>> mkCvc5Solver(ctx: Context): KSolver<out KSolverConfiguration> =
+        RetryingSolver(solverManager.createSolver(ctx, KCvc5Solver::class).apply {
+            configure {
+                optimizeForTheories(setOf(KTheory.Array, KTheory.BV, KTheory.UF, KTheory.FP))
+            }
+        })
+
     override fun close() {
         solverManager.close()
     }
 
     class YicesWithSymFpu(ctx: KContext): KSymFpuSolver<KYicesSolverConfiguration>(KYicesSolver(ctx), ctx)
 }
+
+/**
+ * Repeats a check once, if the [solver] returned [KSolverStatus.UNKNOWN] because its process died or was restarted
+ * by the runner, rather than because the solver stopped on the timeout or gave up.
+ *
+ * The cause is decided by [KSolver.reasonOfUnknown] of the KSMT runner, which is either the reason reported by
+ * the solver in the process or the reason set by the runner itself. The following reasons are not retried:
+ * - the solver stopped on its timeout: "timeout" or "canceled" of Z3, "interrupted" of Yices and "timeout"
+ * of cvc5 (the runner reports them as is);
+ * - the runner didn't get a result within the timeout and restarted the process: "timeout: ..." of the runner,
+ * as the query would hang again;
+ * - the solver gave up: "incomplete" of Z3 and cvc5.
+ *
+ * Any other reason, e.g., the one of an executor which is not alive or failed with an exception, and a failure
+ * to get the reason from a dead process are considered process failures.
+ */
+internal class RetryingSolver<Config : KSolverConfiguration>(
+    private val solver: KSolver<Config>,
+) : KSolver<Config> by solver {
+    override fun check(timeout: Duration): KSolverStatus =
+        checkWithRetry { solver.check(timeout) }
+
+    override fun checkWithAssumptions(assumptions: List<KExpr<KBoolSort>>, timeout: Duration): KSolverStatus =
+        checkWithRetry { solver.checkWithAssumptions(assumptions, timeout) }
+
+    private inline fun checkWithRetry(check: () -> KSolverStatus): KSolverStatus {
+        val status = check()
+        if (status != KSolverStatus.UNKNOWN || !isProcessFailure()) {
+            return status
+        }
+
+        return check()
+    }
+
+    private fun isProcessFailure(): Boolean {
+        val reason = try {
+            solver.reasonOfUnknown()
+        } catch (e: Exception) {
+            return true
+        }
+        return reason.isNotBlank() && softStopReasons.none { reason.contains(it, ignoreCase = true) }
+    }
+
+    private companion object {
+        // Parts of the reasons of unknown reported by the solvers when they stop on the timeout or are interrupted
+        val softStopReasons = listOf("timeout", "canceled", "cancelled", "interrupted", "incomplete")
+    }
+}
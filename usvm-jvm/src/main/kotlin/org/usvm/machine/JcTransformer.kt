@@ -20,6 +20,7 @@ import org.usvm.model.UModelEvaluator
 import org.usvm.solver.UExprTranslator
 import org.usvm.solver.URegionDecoder
 import org.usvm.solver.USoftConstraintsProvider
+import org.usvm.solver.UTranslationCacheManager
 
 interface JcTransformer : UTransformer<JcType, USizeSort> {
     fun <Sort : USort> transform(expr: JcStaticFieldReading<Sort>): UExpr<Sort>
@@ -34,7 +35,10 @@ class JcComposer(
         memory.read(JcStaticFieldLValue(expr.field, expr.sort))
 }
 
-class JcExprTranslator(ctx: UContext<USizeSort>) : UExprTranslator<JcType, USizeSort>(ctx), JcTransformer {
+class JcExprTranslator(
+    ctx: UContext<USizeSort>,
+    translationCaches: UTranslationCacheManager = UTranslationCacheManager(),
+) : UExprTranslator<JcType, USizeSort>(ctx, translationCaches), JcTransformer {
     override fun <Sort : USort> transform(expr: JcStaticFieldReading<Sort>): UExpr<Sort> =
         getOrPutRegionDecoder(expr.regionId) {
             JcStaticFieldDecoder(expr.regionId, this)
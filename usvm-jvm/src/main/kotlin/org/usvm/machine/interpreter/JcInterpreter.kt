@@ -76,6 +76,7 @@ import org.usvm.util.write
 import org.usvm.utils.ensureSat
 import org.usvm.utils.logAssertFailure
 import org.usvm.utils.onStateDeath
+import java.util.concurrent.ConcurrentHashMap
 
 typealias JcStepScope = StepScope<JcState, JcType, JcInst, JcContext>
 
@@ -644,7 +645,8 @@ class JcInterpreter(
             ::classInitializerAlwaysAnalysisRequiredForType
         )
 
-    private val localVarToIdx = mutableMapOf<JcMethod, MutableMap<String, Int>>() // (method, localName) -> idx
+    // (method, localName) -> idx, concurrent since states may be stepped by several workers
+    private val localVarToIdx = ConcurrentHashMap<JcMethod, MutableMap<String, Int>>()
 
     // TODO: now we need to explicitly evaluate indices of registers, because we don't have specific ULValues
     private fun mapLocalToIdxMapper(method: JcMethod, local: JcImmediate) =
@@ -652,7 +654,9 @@ class JcInterpreter(
             is JcLocalVar -> localVarToIdx
                 .getOrPut(method) { mutableMapOf() }
                 .run {
-                    getOrPut(local.name) { method.parametersWithThisCount + size }
+                    synchronized(this) {
+                        getOrPut(local.name) { method.parametersWithThisCount + size }
+                    }
                 }
 
             is JcThis -> 0
@@ -669,7 +673,8 @@ class JcInterpreter(
     }
 
     // TODO: make this region! (like interningPool)
-    private val initializedRefs = hashSetOf<UConcreteHeapRef>()
+    // Concurrent since states may be stepped by several workers
+    private val initializedRefs: MutableSet<UConcreteHeapRef> = ConcurrentHashMap.newKeySet()
 
     // Equal string constants must have equal references
     private fun stringConstantAllocator(
@@ -14,6 +14,7 @@ import org.usvm.memory.UMemory
 import org.usvm.merging.MutableMergeGuard
 import org.usvm.model.UModelBase
 import org.usvm.targets.UTargetsSet
+import org.usvm.utils.retainModels
 
 class JcState(
     ctx: JcContext,
@@ -86,7 +87,7 @@ class JcState(
             memory.clone(mergedPathConstraints.typeConstraints, newThisOwnership, newOtherOwnership)
                 .mergeWith(other.memory, mergeGuard, newThisOwnership, newOtherOwnership, mergedOwnership)
                 ?: return null
-        val mergedModels = models + other.models
+        val mergedModels = ctx.retainModels(models + other.models)
         val methodResult = if (other.methodResult == JcMethodResult.NoCall && methodResult == JcMethodResult.NoCall) {
             JcMethodResult.NoCall
         } else {
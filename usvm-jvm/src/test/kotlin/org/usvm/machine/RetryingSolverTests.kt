@@ -0,0 +1,126 @@
+package org.usvm.machine
+
+import io.ksmt.KContext
+import io.ksmt.expr.KExpr
+import io.ksmt.solver.KSolver
+import io.ksmt.solver.KSolverConfiguration
+import io.ksmt.solver.KSolverStatus
+import io.ksmt.solver.cvc5.KCvc5Solver
+import io.ksmt.solver.runner.KSolverRunnerManager
+import io.ksmt.solver.yices.KYicesSolver
+import io.ksmt.solver.z3.KZ3Solver
+import io.ksmt.sort.KBoolSort
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import java.math.BigInteger
+import kotlin.reflect.KClass
+import kotlin.test.assertEquals
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+import kotlin.time.Duration.Companion.seconds
+
+class RetryingSolverTests {
+    @Test
+    fun `check is repeated after process failure`() {
+        val solver = mockSolver(KSolverStatus.UNKNOWN, KSolverStatus.SAT, reasonOfUnknown = "Solver process is dead")
+
+        assertEquals(KSolverStatus.SAT, RetryingSolver(solver).check(1.seconds))
+        verify(exactly = 2) { solver.check(any()) }
+    }
+
+    @Test
+    fun `check is not repeated after timeout`() {
+        val solver = mockSolver(KSolverStatus.UNKNOWN, KSolverStatus.SAT, reasonOfUnknown = "timeout")
+
+        assertEquals(KSolverStatus.UNKNOWN, RetryingSolver(solver).check(1.seconds))
+        verify(exactly = 1) { solver.check(any()) }
+    }
+
+    @Test
+    fun `check with infinite timeout is repeated after process failure`() {
+        val solver = mockSolver(KSolverStatus.UNKNOWN, KSolverStatus.UNSAT, reasonOfUnknown = null)
+
+        assertEquals(KSolverStatus.UNSAT, RetryingSolver(solver).check(Duration.INFINITE))
+        verify(exactly = 2) { solver.check(any()) }
+    }
+
+    @Test
+    fun `check is repeated only once`() {
+        val solver = mockSolver(
+            KSolverStatus.UNKNOWN,
+            KSolverStatus.UNKNOWN,
+            reasonOfUnknown = "Solver process is dead"
+        )
+
+        assertEquals(KSolverStatus.UNKNOWN, RetryingSolver(solver).check(1.seconds))
+        verify(exactly = 2) { solver.check(any()) }
+    }
+
+    @Test
+    fun `check is not repeated after timeout of z3 runner`() = checkHardQueryWithRunner(KZ3Solver::class)
+
+    @Test
+    fun `check is not repeated after timeout of yices runner`() = checkHardQueryWithRunner(KYicesSolver::class)
+
+    @Test
+    fun `check is not repeated after timeout of cvc5 runner`() = checkHardQueryWithRunner(KCvc5Solver::class)
+
+    /**
+     * Checks that the reason of unknown reported by the real runner on a timeout is not taken for a process failure.
+     */
+    private fun <Config : KSolverConfiguration> checkHardQueryWithRunner(solverType: KClass<out KSolver<Config>>) {
+        val ctx = KContext()
+        KSolverRunnerManager().use { manager ->
+            manager.createSolver(ctx, solverType).use { runner ->
+                var checks = 0
+                val solver = object : KSolver<Config> by runner {
+                    override fun check(timeout: Duration): KSolverStatus {
+                        checks++
+                        return runner.check(timeout)
+                    }
+                }
+                solver.assert(factorization(ctx))
+
+                assertEquals(KSolverStatus.UNKNOWN, RetryingSolver(solver).check(100.milliseconds))
+                assertEquals(1, checks, "Retried on reason: ${runner.reasonOfUnknown()}")
+            }
+        }
+    }
+
+    /**
+     * Factorization of a product of two 32-bit primes, which takes the solvers much longer than the timeout.
+     */
+    private fun factorization(ctx: KContext): KExpr<KBoolSort> = with(ctx) {
+        val product = BigInteger.valueOf(4294967291L) * BigInteger.valueOf(4294967279L)
+        val x = mkConst("x", mkBvSort(64u))
+        val y = mkConst("y", mkBvSort(64u))
+        val one = mkBv(1L, 64u)
+        mkAnd(
+            mkBvUnsignedGreaterExpr(x, one),
+            mkBvUnsignedGreaterExpr(y, one),
+            mkEq(
+                mkBvMulExpr(mkBvZeroExtensionExpr(64, x), mkBvZeroExtensionExpr(64, y)),
+                mkBv(product, 128u)
+            )
+        )
+    }
+
+    /**
+     * @param reasonOfUnknown the reason of unknown reported by the solver, or null if getting it fails.
+     */
+    private fun mockSolver(
+        vararg statuses: KSolverStatus,
+        reasonOfUnknown: String?,
+    ): KSolver<KSolverConfiguration> {
+        val solver = mockk<KSolver<KSolverConfiguration>>()
+        every { solver.check(any()) } returnsMany statuses.toList()
+        if (reasonOfUnknown != null) {
+            every { solver.reasonOfUnknown() } returns reasonOfUnknown
+        } else {
+            every { solver.reasonOfUnknown() } throws IllegalStateException("Solver process is dead")
+        }
+        return solver
+    }
+}
@@ -9,6 +9,7 @@ import org.usvm.UContext
 import org.usvm.UMachineOptions
 import org.usvm.USizeExprProvider
 import org.usvm.language.SampleType
+import org.usvm.solver.UPortfolioSolver
 import org.usvm.solver.USolverBase
 import org.usvm.solver.UTypeSolver
 import org.usvm.types.UTypeSystem
@@ -20,6 +21,8 @@ class SampleLanguageComponents(
     private val options: UMachineOptions,
 ) : UComponents<SampleType, USizeSort> {
     override val useSolverForForks: Boolean get() = options.useSolverForForks
+    override val deferForkChecks: Boolean get() = options.deferForkChecks
+    override val maxModelsPerState: Int get() = options.maxModelsPerState ?: Int.MAX_VALUE
 
     override fun <Context : UContext<USizeSort>> mkSolver(ctx: Context): USolverBase<SampleType> {
         val (translator, decoder) = buildTranslatorAndLazyDecoder(ctx)
@@ -27,10 +30,19 @@ class SampleLanguageComponents(
         val solver = when (options.solverType) {
             SolverType.YICES -> KYicesSolver(ctx)
             SolverType.Z3 -> KZ3Solver(ctx)
+            SolverType.PORTFOLIO -> UPortfolioSolver(mapOf("z3" to KZ3Solver(ctx), "yices" to KYicesSolver(ctx)))
         }
 
         val typeSolver = UTypeSolver(typeSystem)
-        return USolverBase(ctx, solver, typeSolver, translator, decoder, options.solverTimeout)
+        return USolverBase(
+            ctx,
+            solver,
+            typeSolver,
+            translator,
+            decoder,
+            options.solverTimeout,
+            options.useIncrementalSolver,
+        )
     }
 
     override fun mkTypeSystem(ctx: UContext<USizeSort>): UTypeSystem<SampleType> = typeSystem
@@ -0,0 +1,65 @@
+package org.usvm.machine
+
+import org.usvm.language.Goto
+import org.usvm.language.If
+import org.usvm.language.Label
+import org.usvm.language.Method
+import org.usvm.language.SetLabel
+import org.usvm.language.Stmt
+import org.usvm.ps.StateLoopTracker
+
+/**
+ * Finds loops of sample language methods by their back edges, i.e., by [Goto]s and [If]s jumping to a preceding
+ * [SetLabel], which is the header of the loop.
+ */
+class SampleLoopTracker(
+    private val applicationGraph: SampleApplicationGraph,
+) : StateLoopTracker<SampleLoopTracker.LoopInfo, Stmt, SampleState> {
+    private val methodLoops = hashMapOf<Method<*>, Map<Stmt, LoopInfo>>()
+
+    override fun findLoopEntrance(statement: Stmt): LoopInfo? {
+        val method = applicationGraph.methodOf(statement)
+        val loops = methodLoops.getOrPut(method) { findLoops(method) }
+        return loops[statement]
+    }
+
+    override fun isLoopIterationFork(loop: LoopInfo, forkPoint: Stmt): Boolean =
+        forkPoint in loop.forkPoints
+
+    class LoopInfo(val header: SetLabel, val forkPoints: Set<Stmt>)
+
+    private fun findLoops(method: Method<*>): Map<Stmt, LoopInfo> {
+        val stmts = method.body?.stmts.orEmpty()
+        val labelIndices = hashMapOf<Label, Int>()
+        stmts.forEachIndexed { idx, stmt ->
+            if (stmt is SetLabel) {
+                labelIndices[stmt.label] = idx
+            }
+        }
+
+        val loopForkPoints = hashMapOf<SetLabel, MutableSet<Stmt>>()
+        for ((idx, stmt) in stmts.withIndex()) {
+            val headerIdx = stmt.jumpLabel()?.let(labelIndices::getValue) ?: continue
+            if (headerIdx > idx) {
+                continue
+            }
+
+            // Branches of the loop body which may exit the loop or jump to its next iteration
+            val forkPoints = loopForkPoints.getOrPut(stmts[headerIdx] as SetLabel) { hashSetOf() }
+            for (bodyIdx in headerIdx..idx) {
+                val bodyStmt = stmts[bodyIdx]
+                if (bodyStmt is If && labelIndices.getValue(bodyStmt.label) !in headerIdx + 1..idx) {
+                    forkPoints.add(bodyStmt)
+                }
+            }
+        }
+
+        return loopForkPoints.entries.associate { (header, forkPoints) -> header to LoopInfo(header, forkPoints) }
+    }
+
+    private fun Stmt.jumpLabel(): Label? = when (this) {
+        is Goto -> label
+        is If -> label
+        else -> null
+    }
+}
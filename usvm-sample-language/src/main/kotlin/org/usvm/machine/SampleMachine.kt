@@ -11,11 +11,13 @@ import org.usvm.language.Program
 import org.usvm.language.SampleType
 import org.usvm.language.Stmt
 import org.usvm.ps.createPathSelector
+import org.usvm.statistics.ApplicationGraphIndex
 import org.usvm.statistics.CompositeUMachineObserver
 import org.usvm.statistics.CoverageStatistics
 import org.usvm.statistics.StepsStatistics
 import org.usvm.statistics.TimeStatistics
 import org.usvm.statistics.UMachineObserver
+import org.usvm.statistics.UProfilingObserver
 import org.usvm.statistics.collectors.AllStatesCollector
 import org.usvm.statistics.collectors.CoveredNewStatesCollector
 import org.usvm.statistics.collectors.TargetsReachedStatesCollector
@@ -25,6 +27,7 @@ import org.usvm.statistics.distances.CfgStatisticsImpl
 import org.usvm.statistics.distances.PlainCallGraphStatistics
 import org.usvm.stopstrategies.createStopStrategy
 import org.usvm.targets.UTargetsSet
+import kotlin.io.path.Path
 
 /**
  * Entry point for a sample language analyzer.
@@ -42,7 +45,10 @@ class SampleMachine(
     private val interpreter = SampleInterpreter(ctx, applicationGraph)
     private val resultModelConverter = ResultModelConverter(ctx)
 
-    private val cfgStatistics = CfgStatisticsImpl(applicationGraph)
+    // Dense ids of methods and statements shared by the statistics
+    private val applicationGraphIndex = ApplicationGraphIndex(applicationGraph)
+    private val cfgStatistics = CfgStatisticsImpl(applicationGraph, applicationGraphIndex)
+    private val loopTracker = SampleLoopTracker(applicationGraph)
 
     fun analyze(
         methods: List<Method<*>>,
@@ -61,7 +67,8 @@ class SampleMachine(
                 0u -> PlainCallGraphStatistics()
                 else -> CallGraphStatisticsImpl(
                     options.targetSearchDepth,
-                    applicationGraph
+                    applicationGraph,
+                    applicationGraphIndex
                 )
             }
 
@@ -74,7 +81,9 @@ class SampleMachine(
             timeStatistics,
             { coverageStatistics },
             { cfgStatistics },
-            { callGraphStatistics }
+            { callGraphStatistics },
+            { loopTracker },
+            stateLanguageKey = { it.returnRegister to it.exceptionRegister }
         )
 
         val statesCollector =
@@ -106,6 +115,8 @@ class SampleMachine(
             observers.add(SoftConstraintsObserver())
         }
 
+        observers.add(UProfilingObserver<Method<*>, Stmt, SampleState>(options.profilingDirectory?.let { Path(it) }))
+
         run(
             interpreter = interpreter,
             pathSelector = pathSelector,
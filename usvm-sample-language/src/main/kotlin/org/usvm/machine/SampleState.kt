@@ -18,6 +18,7 @@ import org.usvm.memory.UMemory
 import org.usvm.merging.MutableMergeGuard
 import org.usvm.model.UModelBase
 import org.usvm.targets.UTargetsSet
+import org.usvm.utils.retainModels
 
 class SampleState(
     ctx: UContext<USizeSort>,
@@ -88,7 +89,7 @@ class SampleState(
         val mergedMemory = memory.clone(mergedPathConstraints.typeConstraints, thisOwnership, otherOwnership)
             .mergeWith(other.memory, mergeGuard, thisOwnership, otherOwnership, mergedOwnership)
             ?: return null
-        val mergedModels = models + other.models
+        val mergedModels = ctx.retainModels(models + other.models)
         val mergedReturnRegister = if (returnRegister == null && other.returnRegister == null) {
             null
         } else {
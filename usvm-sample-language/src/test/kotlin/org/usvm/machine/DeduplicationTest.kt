@@ -0,0 +1,37 @@
+package org.usvm.machine
+
+import org.junit.jupiter.api.Test
+import org.usvm.PathSelectionStrategy
+import org.usvm.SolverType
+import org.usvm.UMachineOptions
+import org.usvm.language.IntConst
+import org.usvm.programs.MergingProgram
+import org.usvm.programs.StructProgram
+import kotlin.test.assertEquals
+
+class DeduplicationTest {
+    val options = UMachineOptions(
+        listOf(PathSelectionStrategy.BFS),
+        solverType = SolverType.YICES,
+        deduplicateStates = true,
+    )
+
+    @Test
+    fun runIfMerging() {
+        val machine = SampleMachine(MergingProgram.program, options)
+        val results = machine.analyze(MergingProgram.ifMerging)
+
+        assertEquals(setOf(0, 1), results.returnedValues())
+    }
+
+    @Test
+    fun runCheckImplicitRefEquality() {
+        val machine = SampleMachine(StructProgram.program, options)
+        val results = machine.analyze(StructProgram.checkImplicitRefEquality)
+
+        assertEquals(setOf(0, 1, 2, 3), results.returnedValues())
+    }
+
+    private fun Collection<ProgramExecutionResult>.returnedValues(): Set<Int> =
+        filterIsInstance<SuccessfulExecutionResult>().mapTo(mutableSetOf()) { (it.outputModel.returnExpr as IntConst).const }
+}
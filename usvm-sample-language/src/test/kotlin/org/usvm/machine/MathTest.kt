@@ -1,11 +1,17 @@
 package org.usvm.machine
 
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
 import org.usvm.UMachineOptions
 import org.usvm.language.BooleanConst
 import org.usvm.language.DivisionByZero
 import org.usvm.language.IntConst
 import org.usvm.programs.MathProgram
+import org.usvm.statistics.UProfilingObserver
+import java.nio.file.Path
+import kotlin.io.path.readLines
+import kotlin.io.path.readText
+import kotlin.test.assertEquals
 import kotlin.test.assertTrue
 
 class MathTest {
@@ -23,6 +29,78 @@ class MathTest {
         }
     }
 
+    @Test
+    fun testAbsWithDeferredForkChecks() {
+        val machine = SampleMachine(programDecl.program, UMachineOptions(stopOnCoverage = -1, deferForkChecks = true))
+        val results = machine.analyze(programDecl.abs)
+        assertTrue {
+            results.any { it is SuccessfulExecutionResult && (it.inputModel.argumentExprs[0] as IntConst).const < 0 }
+        }
+        assertTrue {
+            results.any { it is SuccessfulExecutionResult && (it.inputModel.argumentExprs[0] as IntConst).const >= 0 }
+        }
+    }
+
+    @Test
+    fun testParallelMatchesSequential() {
+        val options = UMachineOptions(stopOnCoverage = -1, workersCount = 4)
+        SampleMachine(programDecl.program, options).use { parallelMachine ->
+            for (method in listOf(programDecl.abs, programDecl.division, programDecl.absOverflow)) {
+                val sequentialResults = machine.analyze(method)
+                val parallelResults = parallelMachine.analyze(method)
+                // All the paths are explored, so both machines find the same paths, possibly with other models
+                assertEquals(sequentialResults.size, parallelResults.size)
+                assertEquals(sequentialResults.outcomes(), parallelResults.outcomes())
+            }
+        }
+    }
+
+    @Test
+    fun testParallelWithLoopIterationLimit() {
+        // The loop selectors compute the stats of the added states from the stats of their parent state
+        for (loopIterativeDeepening in listOf(false, true)) {
+            val options = UMachineOptions(
+                stopOnCoverage = -1,
+                loopIterativeDeepening = loopIterativeDeepening,
+                loopIterationLimit = 3,
+            )
+            val sequentialResults = SampleMachine(programDecl.program, options).use { it.analyze(programDecl.sumUpTo) }
+            val parallelResults = SampleMachine(programDecl.program, options.copy(workersCount = 4)).use {
+                it.analyze(programDecl.sumUpTo)
+            }
+
+            assertEquals(sequentialResults.size, parallelResults.size)
+            assertEquals(sequentialResults.returnedValues(), parallelResults.returnedValues())
+            // The states with more iterations than the limit are dropped, so the analysis terminates
+            assertTrue { sequentialResults.returnedValues().all { it <= 1 + 2 + 3 + 4 } }
+        }
+    }
+
+    private fun Collection<ProgramExecutionResult>.returnedValues(): Set<Int> =
+        filterIsInstance<SuccessfulExecutionResult>()
+            .mapTo(hashSetOf()) { (it.outputModel.returnExpr as IntConst).const }
+
+    private fun Collection<ProgramExecutionResult>.outcomes(): Map<Any, Int> =
+        groupingBy { result ->
+            when (result) {
+                is SuccessfulExecutionResult -> (result.outputModel.returnExpr as? BooleanConst)?.const ?: result::class
+                is UnsuccessfulExecutionResult -> result.exception::class
+            }
+        }.eachCount()
+
+    @Test
+    fun testAbsProfile(@TempDir profilingDirectory: Path) {
+        val options = UMachineOptions(stopOnCoverage = -1, profilingDirectory = profilingDirectory.toString())
+        SampleMachine(programDecl.program, options).analyze(programDecl.abs)
+
+        val stacks = profilingDirectory.resolve(UProfilingObserver.COLLAPSED_STACKS_FILE).readLines()
+        assertTrue { stacks.isNotEmpty() }
+        assertTrue { stacks.all { it.startsWith("abs(") } }
+
+        val json = profilingDirectory.resolve(UProfilingObserver.JSON_FILE).readText()
+        assertTrue { "\"statements\"" in json && "\"solverQueries\"" in json }
+    }
+
     @Test
     fun testDivByZero() {
         val results = machine.analyze(programDecl.division)
@@ -7,6 +7,7 @@ import org.usvm.language.builders.div
 import org.usvm.language.builders.expr
 import org.usvm.language.builders.lt
 import org.usvm.language.builders.method
+import org.usvm.language.builders.plus
 import org.usvm.language.builders.unaryMinus
 
 object MathProgram : ProgramDecl() {
@@ -22,6 +23,16 @@ object MathProgram : ProgramDecl() {
         ret(res)
     }
 
+    val sumUpTo by method(IntType, returnType = IntType) { n ->
+        var sum by 0.expr
+        var idx by 0.expr
+        loop(idx lt n) {
+            idx += 1.expr
+            sum += idx
+        }
+        ret(sum)
+    }
+
     val absOverflow by method(IntType, returnType = BooleanType) { a ->
         val res by abs(a)
         branch(res lt 0.expr) {
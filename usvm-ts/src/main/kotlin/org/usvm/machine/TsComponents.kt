@@ -1,5 +1,6 @@
 package org.usvm.machine
 
+import io.ksmt.solver.cvc5.KCvc5Solver
 import io.ksmt.solver.yices.KYicesSolver
 import io.ksmt.solver.z3.KZ3Solver
 import io.ksmt.symfpu.solver.KSymFpuSolver
@@ -16,23 +17,62 @@ import org.usvm.machine.types.TsTypeSystem
 import org.usvm.memory.UReadOnlyMemory
 import org.usvm.model.ULazyModelDecoder
 import org.usvm.solver.UExprTranslator
+import org.usvm.solver.UPortfolioSolver
+import org.usvm.solver.UPortfolioStatistics
 import org.usvm.solver.USolverBase
+import org.usvm.solver.USolverQueryCache
+import org.usvm.solver.USolverQueryCacheStatistics
+import org.usvm.solver.USolverQueryRecorder
+import org.usvm.solver.UTranslationCacheManager
+import org.usvm.solver.UTranslationCacheStatistics
 import org.usvm.solver.UTypeSolver
 import org.usvm.types.UTypeSystem
+import java.util.Collections
+import kotlin.io.path.Path
 
 class TsComponents(
     private val typeSystem: TsTypeSystem,
     private val options: UMachineOptions,
 ) : UComponents<EtsType, TsSizeSort> {
-    private val closeableResources = mutableListOf<AutoCloseable>()
+    /**
+     * Hit and miss counters shared by the query caches of all the solvers made by these components.
+     */
+    val solverQueryCacheStatistics = USolverQueryCacheStatistics()
+
+    /**
+     * Backend wins shared by all the [SolverType.PORTFOLIO] solvers made by these components.
+     */
+    val portfolioStatistics = UPortfolioStatistics()
+
+    /**
+     * Counters shared by the translation caches of all the solvers made by these components.
+     */
+    val translationCacheStatistics = UTranslationCacheStatistics()
+
+    /**
+     * The recorder of queries of all the solvers made by these components,
+     * if [UMachineOptions.solverQueriesDirectory] is set.
+     */
+    val solverQueryRecorder: USolverQueryRecorder? =
+        options.solverQueriesDirectory?.let { USolverQueryRecorder(Path(it)) }
+
+    // Solvers may be created concurrently by the workers of a parallel machine
+    private val closeableResources: MutableList<AutoCloseable> = Collections.synchronizedList(mutableListOf())
 
     override val useSolverForForks: Boolean
         get() = options.useSolverForForks
 
+    override val deferForkChecks: Boolean
+        get() = options.deferForkChecks
+
+    override val maxModelsPerState: Int
+        get() = options.maxModelsPerState ?: Int.MAX_VALUE
+
     override fun <Context : UContext<TsSizeSort>> buildTranslatorAndLazyDecoder(
         ctx: Context,
     ): Pair<UExprTranslator<EtsType, TsSizeSort>, ULazyModelDecoder<EtsType>> {
-        val translator = TsExprTranslator(ctx)
+        val translationCaches = UTranslationCacheManager(options.translationCacheSize, translationCacheStatistics)
+        val translator = TsExprTranslator(ctx, translationCaches)
         val decoder = ULazyModelDecoder(translator)
 
         return translator to decoder
@@ -59,13 +99,40 @@ class TsComponents(
         val smtSolver = when (options.solverType) {
             SolverType.YICES -> KSymFpuSolver(KYicesSolver(ctx), ctx)
             SolverType.Z3 -> KZ3Solver(ctx)
+            SolverType.PORTFOLIO -> UPortfolioSolver(
+                mapOf(
+                    "z3" to KZ3Solver(ctx),
+                    "yices" to KSymFpuSolver(KYicesSolver(ctx), ctx),
+                    "cvc5" to KCvc5Solver(ctx),
+                ),
+                portfolioStatistics,
+            )
         }
 
         closeableResources += smtSolver
 
         val typeSolver = UTypeSolver(typeSystem)
 
-        return USolverBase(ctx, smtSolver, typeSolver, translator, decoder, options.solverTimeout)
+        return USolverBase(
+            ctx,
+            smtSolver,
+            typeSolver,
+            translator,
+            decoder,
+            options.solverTimeout,
+            options.useIncrementalSolver,
+            mkSolverQueryCache(),
+            options.useConstraintSlicing,
+            solverQueryRecorder,
+        )
+    }
+
+    private fun mkSolverQueryCache(): USolverQueryCache<EtsType>? {
+        if (options.solverQueryCacheSize <= 0) {
+            return null
+        }
+
+        return USolverQueryCache(options.solverQueryCacheSize, solverQueryCacheStatistics)
     }
 
     fun close() {
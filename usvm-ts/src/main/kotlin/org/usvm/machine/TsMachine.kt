@@ -20,16 +20,21 @@ import org.usvm.statistics.StatisticsByMethodPrinter
 import org.usvm.statistics.StepsStatistics
 import org.usvm.statistics.TimeStatistics
 import org.usvm.statistics.UMachineObserver
+import org.usvm.statistics.UProfilingObserver
 import org.usvm.statistics.collectors.AllStatesCollector
 import org.usvm.statistics.collectors.CoveredNewStatesCollector
 import org.usvm.statistics.collectors.TargetsReachedStatesCollector
 import org.usvm.statistics.constraints.SoftConstraintsObserver
+import org.usvm.statistics.constraints.SolverQueryCacheObserver
+import org.usvm.statistics.constraints.SolverQueryRecorderObserver
+import org.usvm.statistics.constraints.TranslationCacheObserver
 import org.usvm.statistics.distances.CfgStatisticsImpl
 import org.usvm.statistics.distances.PlainCallGraphStatistics
 import org.usvm.stopstrategies.StopStrategy
 import org.usvm.stopstrategies.createStopStrategy
 import org.usvm.util.TsStateVisualizer
 import org.usvm.util.humanReadableSignature
+import kotlin.io.path.Path
 import kotlin.time.Duration.Companion.seconds
 
 private val logger = KotlinLogging.logger {}
@@ -61,6 +66,12 @@ class TsMachine(
                 CoverageZone.CLASS -> TODO("Unsupported yet")
             }
 
+        val cfgStatisticsPrecomputationDepth = options.cfgStatisticsPrecomputationDepth
+        if (cfgStatisticsPrecomputationDepth != null) {
+            val precomputedMethods = cfgStatistics.precompute(methodsToTrackCoverage, cfgStatisticsPrecomputationDepth)
+            logger.debug { "Precomputed CFG distances in $precomputedMethods methods" }
+        }
+
         val coverageStatistics = CoverageStatistics<EtsMethod, EtsStmt, TsState>(
             methods = methodsToTrackCoverage,
             applicationGraph = graph,
@@ -105,6 +116,18 @@ class TsMachine(
             observers.add(SoftConstraintsObserver())
         }
 
+        if (options.solverQueryCacheSize > 0) {
+            observers.add(SolverQueryCacheObserver(components.solverQueryCacheStatistics) { logger.info { it } })
+        }
+
+        if (options.translationCacheSize > 0) {
+            observers.add(TranslationCacheObserver(components.translationCacheStatistics) { logger.info { it } })
+        }
+
+        components.solverQueryRecorder?.let { recorder ->
+            observers.add(SolverQueryRecorderObserver(recorder) { logger.info { it } })
+        }
+
         val stepsStatistics = StepsStatistics<EtsMethod, TsState>()
 
         val stopStrategy = object : StopStrategy {
@@ -132,6 +155,14 @@ class TsMachine(
         observers.add(stepsStatistics)
         machineObserver?.let { observers.add(it) }
 
+        observers.add(
+            UProfilingObserver<EtsMethod, EtsStmt, TsState>(
+                options.profilingDirectory?.let { Path(it) },
+                printMethod = { it.humanReadableSignature },
+                print = logger::info,
+            )
+        )
+
         if (logger.isInfoEnabled) {
             observers.add(
                 StatisticsByMethodPrinter(
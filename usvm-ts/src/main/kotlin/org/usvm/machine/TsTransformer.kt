@@ -7,6 +7,7 @@ import org.usvm.UTransformer
 import org.usvm.collections.immutable.internal.MutabilityOwnership
 import org.usvm.memory.UReadOnlyMemory
 import org.usvm.solver.UExprTranslator
+import org.usvm.solver.UTranslationCacheManager
 
 interface TsTransformer : UTransformer<EtsType, TsSizeSort>
 
@@ -18,4 +19,5 @@ class TsComposer(
 
 class TsExprTranslator(
     ctx: UContext<TsSizeSort>,
-) : UExprTranslator<EtsType, TsSizeSort>(ctx), TsTransformer
+    translationCaches: UTranslationCacheManager = UTranslationCacheManager(),
+) : UExprTranslator<EtsType, TsSizeSort>(ctx, translationCaches), TsTransformer
@@ -6,7 +6,12 @@ import kotlin.time.Duration.Companion.seconds
 
 enum class SolverType {
     YICES,
-    Z3
+    Z3,
+    /**
+     * Runs every query on all the available solvers concurrently and takes the first answer.
+     * Solvers which rarely win on queries over some theories are launched on such queries only occasionally.
+     */
+    PORTFOLIO,
 }
 
 enum class PathSelectionStrategy {
@@ -223,14 +228,60 @@ data class UMachineOptions(
      * A timeout for checks with the SMT solver.
      */
     val solverTimeout: Duration = 1.seconds,
+    /**
+     * Whether path constraints should be kept asserted in the SMT solver between queries, so that
+     * only constraints not seen before are asserted on each query.
+     */
+    val useIncrementalSolver: Boolean = false,
+    /**
+     * Maximum number of solver query results kept in a cache to answer the same or subsumed queries
+     * without the SMT solver. Zero disables the cache.
+     */
+    val solverQueryCacheSize: Int = 0,
+    /**
+     * Bound on the translated memory updates cached by each solver: a new cache generation starts after
+     * this number of entries is added or looked up, and entries unused for a whole generation are evicted.
+     * Zero means the caches are unbounded.
+     */
+    val translationCacheSize: Int = 0,
+    /**
+     * Whether fork conditions should be checked against independent slices of path constraints first,
+     * that is, only against the constraints sharing symbols with the condition.
+     */
+    val useConstraintSlicing: Boolean = false,
+    /**
+     * Optional directory to write every solver query to as an SMT-LIB2 file, together with its result, time and
+     * the statement it was made on. The queries can be replayed with `org.usvm.solver.USolverQueryReplayer`.
+     */
+    val solverQueriesDirectory: String? = null,
+    /**
+     * Optional directory to write the profile of the analysis to: wall time, solver time and queries, forks and
+     * created states of each statement and method. The profile is written both as collapsed stacks for flame graphs
+     * (`profile.collapsed`) and as JSON (`profile.json`).
+     */
+    val profilingDirectory: String? = null,
     /**
      * Whether we use a solver on symbolic branching to fork only with satisfiable states or keep all states.
      */
     val useSolverForForks: Boolean = true,
+    /**
+     * Whether forks should be made without solver checks, deferring the feasibility check of a forked state until
+     * the state is peeked by the path selector. States never peeked before the analysis stops cost no solver calls.
+     * Infeasible states are removed without being stepped, and observers are notified of them as unreachable
+     * terminated states.
+     * Takes effect only if [useSolverForForks] is set.
+     */
+    val deferForkChecks: Boolean = false,
     /**
      * Whether we should run solver in another process or not.
      */
     val runSolverInAnotherProcess: Boolean = false,
+    /**
+     * Number of external solver processes shared by all the solvers of a machine when [runSolverInAnotherProcess]
+     * is set. Queries of different solvers (e.g., of parallel workers, see [workersCount]) run concurrently
+     * in different processes. A crashed or hung process is restarted and the query is retried once.
+     */
+    val solverPoolSize: Int = 1,
     /**
      * Whether we should try to apply soft constraints for symbolic values.
      */
@@ -247,6 +298,11 @@ data class UMachineOptions(
      * Depth of the interprocedural reachability search used in distance-based path selectors.
      */
     val targetSearchDepth: UInt = 0u,
+    /**
+     * If not null, CFG distances in the methods of the coverage zone and the methods called from them up to this
+     * call depth are computed in parallel before the analysis starts, instead of on demand during the analysis.
+     */
+    val cfgStatisticsPrecomputationDepth: UInt? = null,
     /**
      * Should machine use merging when possible
      */
@@ -259,8 +315,36 @@ data class UMachineOptions(
      * Limit loop iterations.
      * */
     val loopIterationLimit: Int? = null,
+    /**
+     * Fraction of the heap, which, if still occupied after a garbage collection, makes the path selector drop
+     * the states it hasn't peeked for the longest time. If null, states are never dropped because of the heap usage.
+     */
+    val heapUsageThreshold: Double? = null,
+    /**
+     * The maximum number of models kept by a state, the most recent ones are kept.
+     * If null, the number of models is not limited.
+     */
+    val maxModelsPerState: Int? = null,
+    /**
+     * The maximum number of states in the path selector keeping their models. Models of the states
+     * which haven't been peeked for the longest time are dropped and recomputed by the solver when the state forks.
+     * If null, models are never dropped.
+     */
+    val maxStatesWithModels: Int? = null,
+    /**
+     * Drop states which converged with another state in the path selector, i.e., which are at the same statement
+     * with the same call stack, path constraints and memory.
+     *
+     * Supported by the JVM and sample language machines only.
+     */
+    val deduplicateStates: Boolean = false,
     /**
      * If set to false, exception will be suppressed and the failed state will be killed.
      * */
     val throwExceptionOnStepFailure: Boolean = false,
+    /**
+     * Number of worker threads stepping states concurrently. Each worker uses its own SMT solver.
+     * Values greater than 1 make the exploration order and state ids non-deterministic.
+     */
+    val workersCount: Int = 1,
 )
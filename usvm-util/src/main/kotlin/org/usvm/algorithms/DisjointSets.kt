@@ -1,20 +1,30 @@
 package org.usvm.algorithms
 
+import org.usvm.collections.immutable.implementations.immutableMap.UPersistentHashMap
+import org.usvm.collections.immutable.internal.MutabilityOwnership
+import org.usvm.collections.immutable.persistentHashMapOf
+
 /**
  * Mutable union-find data structure. Represents a collection of disjoint sets of elements of type [T].
  * Initially, every set is a singleton element.
  * Has two operations: [union] (x, y), which computes union of two sets containing x and y,
  * and [find] (x), which finds a representative of set containing x.
  * All actual set changes in this data structures can be listened by [subscribe].
+ *
+ * The structure is backed by persistent maps, so [clone] is O(1) and the copies share their contents.
  */
 class DisjointSets<T> private constructor(
-    private val parent: MutableMap<T, T>,
-    private val rank: MutableMap<T, Int>,
+    private var parent: UPersistentHashMap<T, T>,
+    private var rank: UPersistentHashMap<T, Int>,
     private var unionCallback: ((T, T) -> Unit)?,
     private val representativeSelector: RepresentativeSelector<T>?,
-) : Iterable<Map.Entry<T, T>> by parent.entries {
+) : Iterable<Map.Entry<T, T>> {
     constructor(representativeSelector: RepresentativeSelector<T>? = null) :
-        this(mutableMapOf(), mutableMapOf(), unionCallback = null, representativeSelector)
+        this(persistentHashMapOf(), persistentHashMapOf(), unionCallback = null, representativeSelector)
+
+    private var ownership = MutabilityOwnership()
+
+    override fun iterator(): Iterator<Map.Entry<T, T>> = parent.iterator()
 
     /**
      * Returns representative of set containing [x].
@@ -23,7 +33,9 @@ class DisjointSets<T> private constructor(
     fun find(x: T): T {
         val p = parent[x] ?: return x
         val root = find(p)
-        parent[x] = root
+        if (root != p) {
+            parent = parent.put(x, root, ownership)
+        }
         return root
     }
 
@@ -33,7 +45,7 @@ class DisjointSets<T> private constructor(
     fun connected(x: T, y: T) = find(x) == find(y)
 
     private fun merge(x: T, y: T) {
-        parent[y] = x
+        parent = parent.put(y, x, ownership)
         unionCallback?.let { it(x, y) }
     }
 
@@ -72,7 +84,7 @@ class DisjointSets<T> private constructor(
             rankU < rankV -> merge(v, u)
             else -> {
                 merge(u, v)
-                rank[u] = rankU + 1
+                rank = rank.put(u, rankU + 1, ownership)
             }
         }
     }
@@ -90,8 +102,8 @@ class DisjointSets<T> private constructor(
      * Resets this structure to default state, where every set is a singleton element.
      */
     fun clear() {
-        parent.clear()
-        rank.clear()
+        parent = persistentHashMapOf()
+        rank = persistentHashMapOf()
         unionCallback = null
     }
 
@@ -100,7 +112,11 @@ class DisjointSets<T> private constructor(
      * Creates a copy of this structure.
      * Note that current subscribers get unsubscribed!
      */
-    fun clone() = DisjointSets(parent.toMutableMap(), rank.toMutableMap(), unionCallback = null, representativeSelector)
+    fun clone(): DisjointSets<T> {
+        // Both structures share the persistent maps, so neither of them may mutate them in place anymore
+        ownership = MutabilityOwnership()
+        return DisjointSets(parent, rank, unionCallback = null, representativeSelector)
+    }
 
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
@@ -37,4 +37,20 @@ class DisjointSetsTests {
         verify(exactly = 4) { subscriber1(any(), any()) }
         verify(exactly = 1) { subscriber2(any(), any()) }
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testClonesAreIndependent() {
+        val dsu1 = DisjointSets<String>()
+        dsu1.union("a", "b")
+
+        val dsu2 = dsu1.clone()
+        dsu1.union("b", "c")
+        dsu2.union("a", "d")
+
+        assertTrue { dsu1.connected("a", "c") }
+        assertFalse { dsu1.connected("a", "d") }
+        assertTrue { dsu2.connected("a", "d") }
+        assertFalse { dsu2.connected("a", "c") }
+        assertTrue { dsu1.connected("a", "b") && dsu2.connected("a", "b") }
+    }
+}